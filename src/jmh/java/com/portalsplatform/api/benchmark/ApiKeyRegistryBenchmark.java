@@ -0,0 +1,57 @@
+package com.portalsplatform.api.benchmark;
+
+import com.portalsplatform.api.security.ApiKeyPrincipal;
+import com.portalsplatform.api.security.ApiKeyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiKeyRegistryBenchmark {
+
+    @Param({"1000", "100000"})
+    public int keys;
+
+    private ApiKeyRegistry registry;
+    private String[] apiKeys;
+
+    @Setup
+    public void setUp() {
+        registry = new ApiKeyRegistry();
+        apiKeys = new String[keys];
+        List<ApiKeyRegistry.Entry> entries = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            apiKeys[i] = "partner-" + i + "-3f9c1d7e5a2b";
+            entries.add(ApiKeyRegistry.entryForKey(apiKeys[i], "tenant-" + (i % 1000), "standard"));
+        }
+        registry.replace(entries);
+    }
+
+    @Benchmark
+    public ApiKeyPrincipal knownKey() {
+        return registry.authenticate(apiKeys[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    @Benchmark
+    public ApiKeyPrincipal unknownKey() {
+        return registry.authenticate("not-a-registered-key-0000");
+    }
+}
@@ -0,0 +1,92 @@
+package com.portalsplatform.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the JMH benchmarks, writes JSON results and compares them with the stored baseline.
+ * <p>
+ * Results go to target/jmh-result.json. With -Djmh.saveBaseline=true they are also copied to
+ * benchmarks/baseline.json; otherwise, if a baseline exists, each score is compared with it and
+ * changes beyond -Djmh.regressionThreshold percent are reported (and fail the run when
+ * -Djmh.failOnRegression=true). Any regular JMH arguments, such as a benchmark regex, are passed through.
+ */
+public final class BenchmarkRunner {
+
+    private static final Path RESULT = Path.of("target", "jmh-result.json");
+    private static final Path BASELINE = Path.of("benchmarks", "baseline.json");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(RESULT.getParent());
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT.toString())
+                .build();
+        new Runner(options).run();
+
+        if (Boolean.getBoolean("jmh.saveBaseline")) {
+            Files.createDirectories(BASELINE.getParent());
+            Files.copy(RESULT, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Saved baseline to " + BASELINE);
+        } else if (Files.exists(BASELINE)) {
+            int regressions = compare(Double.parseDouble(System.getProperty("jmh.regressionThreshold", "10")));
+            if (regressions > 0 && Boolean.getBoolean("jmh.failOnRegression")) {
+                System.exit(1);
+            }
+        } else {
+            System.out.println("No baseline at " + BASELINE + ", run with -Djmh.saveBaseline=true to create one");
+        }
+    }
+
+    private static int compare(double thresholdPercent) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = new HashMap<>();
+        for (JsonNode run : objectMapper.readTree(BASELINE.toFile())) {
+            baseline.put(key(run), run);
+        }
+
+        int regressions = 0;
+        System.out.printf("%n%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (JsonNode run : objectMapper.readTree(RESULT.toFile())) {
+            JsonNode previous = baseline.get(key(run));
+            if (previous == null) {
+                continue;
+            }
+            double before = previous.path("primaryMetric").path("score").asDouble();
+            double after = run.path("primaryMetric").path("score").asDouble();
+            double change = before == 0 ? 0 : (after - before) / before * 100;
+            // Throughput should go up; time based modes should go down
+            boolean higherIsBetter = "thrpt".equals(run.path("mode").asText());
+            boolean regressed = higherIsBetter ? change < -thresholdPercent : change > thresholdPercent;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n", key(run), before, after, change,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) beyond %.0f%%%n", regressions, thresholdPercent);
+        return regressions;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+        run.path("params").fields().forEachRemaining(param ->
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+        return key.append(" [").append(run.path("mode").asText()).append(']').toString();
+    }
+}
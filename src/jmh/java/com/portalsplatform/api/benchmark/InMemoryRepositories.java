@@ -0,0 +1,97 @@
+package com.portalsplatform.api.benchmark;
+
+import com.portalsplatform.api.model.Customer;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.repository.CustomerRepository;
+import com.portalsplatform.api.repository.TransactionRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map backed stand-ins for the Mongo repositories, implementing only the finder methods
+ * the service layer calls so benchmarks measure our code rather than the database.
+ */
+final class InMemoryRepositories {
+
+    private final Map<String, Customer> customers = new ConcurrentHashMap<>();
+    private final Map<String, List<Transaction>> transactions = new ConcurrentHashMap<>();
+
+    /**
+     * Seed one customer with transactions spread evenly over the given number of months.
+     */
+    InMemoryRepositories withCustomer(String customerId, int transactionCount, int months) {
+        customers.put(customerId, new Customer(customerId, "Bench", "Customer", customerId + "@bench.test"));
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> list = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            list.add(new Transaction("TXN" + i, customerId, new BigDecimal(25 + (i * 37) % 300),
+                    now.minusDays((long) i * months * 30 / Math.max(1, transactionCount)), "Bench " + i));
+        }
+        list.sort(Comparator.comparing(Transaction::getTransactionDate).reversed());
+        transactions.put(customerId, list);
+        return this;
+    }
+
+    CustomerRepository customerRepository() {
+        return proxy(CustomerRepository.class, (method, args) -> switch (method) {
+            case "findByCustomerId" -> Optional.ofNullable(customers.get((String) args[0]));
+            case "existsByCustomerId" -> customers.containsKey((String) args[0]);
+            case "countByCustomerId" -> customers.containsKey((String) args[0]) ? 1L : 0L;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    TransactionRepository transactionRepository() {
+        return proxy(TransactionRepository.class, (method, args) -> switch (method) {
+            case "findByCustomerIdOrderByTransactionDateDesc" ->
+                    transactions.getOrDefault((String) args[0], List.of());
+            case "findByCustomerIdAndTransactionDateBetween", "findCustomerTransactionsInPeriod" ->
+                    between((String) args[0], (LocalDateTime) args[1], (LocalDateTime) args[2]);
+            case "countByCustomerId" -> (long) transactions.getOrDefault((String) args[0], List.of()).size();
+            case "sumPoints" -> sum(transactions.getOrDefault((String) args[0], List.of()));
+            case "sumPointsBetween" -> sum(between((String) args[0], (LocalDateTime) args[1], (LocalDateTime) args[2]));
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private List<Transaction> between(String customerId, LocalDateTime start, LocalDateTime end) {
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction t : transactions.getOrDefault(customerId, List.of())) {
+            if (!t.getTransactionDate().isBefore(start) && !t.getTransactionDate().isAfter(end)) {
+                result.add(t);
+            }
+        }
+        return result;
+    }
+
+    private static TransactionRepository.PointsSum sum(List<Transaction> list) {
+        long points = 0;
+        for (Transaction t : list) {
+            points += t.getPointsEarned();
+        }
+        return list.isEmpty() ? null : new TransactionRepository.PointsSum(points, list.size());
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> "InMemory" + type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.handle(method.getName(), args);
+                }));
+    }
+}
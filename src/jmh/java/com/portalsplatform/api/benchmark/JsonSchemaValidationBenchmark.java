@@ -0,0 +1,74 @@
+package com.portalsplatform.api.benchmark;
+
+import com.portalsplatform.api.config.SchemaValidationProperties;
+import com.portalsplatform.api.metrics.StageMetrics;
+import com.portalsplatform.api.security.JsonSchemaValidationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSchemaValidationBenchmark {
+
+    @Param({"valid", "invalid", "unmatched"})
+    public String payload;
+
+    private JsonSchemaValidationFilter filter;
+    private byte[] body;
+    private String path;
+
+    @Setup
+    public void setUp() {
+        SchemaValidationProperties properties = new SchemaValidationProperties();
+        properties.setRules(List.of(rule("/api/customers", "customer-schema.json"),
+                rule("/api/transactions", "TransactionRequest.schema.json")));
+        filter = new JsonSchemaValidationFilter(properties, new StageMetrics(new SimpleMeterRegistry()));
+
+        path = "unmatched".equals(payload) ? "/api/other" : "/api/transactions";
+        String json = "invalid".equals(payload)
+                ? "{\"customerId\": 42, \"amount\": \"lots\"}"
+                : "{\"customerId\": \"CUST001\", \"amount\": 120.00, \"description\": \"Electronics Store\"}";
+        body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int validate() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("application/json");
+        request.setContent(body);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static SchemaValidationProperties.Rule rule(String path, String schema) {
+        SchemaValidationProperties.Rule rule = new SchemaValidationProperties.Rule();
+        rule.setPath(path);
+        rule.setMethod("POST");
+        rule.setSchema(schema);
+        return rule;
+    }
+}
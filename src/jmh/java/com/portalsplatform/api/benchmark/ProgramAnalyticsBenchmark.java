@@ -0,0 +1,104 @@
+package com.portalsplatform.api.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.portalsplatform.api.config.AnalyticsProperties;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.ProgramAnalyticsResponse;
+import com.portalsplatform.api.service.ProgramAnalyticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speedup of {@link ProgramAnalyticsService} with the number of customerId partitions.
+ * <p>
+ * Needs a Mongo: a Testcontainers instance is started unless -Djmh.mongoUri points at one.
+ * The seeded database is dropped at the end of the trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgramAnalyticsBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+    private static final int CUSTOMERS = 10_000;
+    private static final int TRANSACTIONS = 500_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    private MongoDBContainer container;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private ProgramAnalyticsService analyticsService;
+
+    @Setup
+    public void setUp() {
+        String uri = System.getProperty("jmh.mongoUri");
+        if (uri == null) {
+            container = new MongoDBContainer("mongo:7");
+            container.start();
+            uri = container.getReplicaSetUrl();
+        }
+        mongoClient = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(mongoClient, "analytics-benchmark");
+        mongoTemplate.getDb().drop();
+        mongoTemplate.indexOps(Transaction.class).createIndex(new Index()
+                .on("customerId", Sort.Direction.ASC)
+                .on("transactionDate", Sort.Direction.DESC));
+
+        Random random = new Random(42);
+        List<Transaction> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            batch.add(new Transaction("TXN" + i, String.format("CUST%05d", random.nextInt(CUSTOMERS)),
+                    BigDecimal.valueOf(1 + random.nextInt(300)),
+                    MONTH.atDay(1 + random.nextInt(MONTH.lengthOfMonth())).atTime(12, 0), "Benchmark"));
+            if (batch.size() == 10_000) {
+                mongoTemplate.insertAll(batch);
+                batch.clear();
+            }
+        }
+
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.setPartitions(partitions);
+        analyticsService = new ProgramAnalyticsService(mongoTemplate, properties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        mongoClient.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public ProgramAnalyticsResponse monthlyAnalytics() {
+        return analyticsService.compute(MONTH, partitions);
+    }
+}
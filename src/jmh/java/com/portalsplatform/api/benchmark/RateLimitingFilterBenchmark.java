@@ -0,0 +1,70 @@
+package com.portalsplatform.api.benchmark;
+
+import com.portalsplatform.api.metrics.StageMetrics;
+import com.portalsplatform.api.security.RateLimitingFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimitingFilter} with 8 threads either hammering one shared client counter
+ * or spreading over many clients. The limit is set high enough that every call takes
+ * the allowed path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RateLimitingFilterBenchmark {
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private RateLimitingFilter filter;
+    private String[] apiKeys;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitingFilter(new StageMetrics(new SimpleMeterRegistry()), Integer.MAX_VALUE);
+        apiKeys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            apiKeys[i] = "partner-key-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        filter.destroy();
+    }
+
+    @Benchmark
+    public int filter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/CUST001/rewards");
+        request.addHeader("X-API-Key", apiKeys[ThreadLocalRandom.current().nextInt(clients)]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
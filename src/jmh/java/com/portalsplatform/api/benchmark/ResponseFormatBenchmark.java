@@ -0,0 +1,104 @@
+package com.portalsplatform.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.portalsplatform.api.config.ProtobufHttpMessageConverter;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding throughput of the response formats offered through content negotiation, for a
+ * 36-month rewards response and a 1,000-transaction page. Payload sizes are printed at setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private RewardsResponse rewards;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        // Configured like the application's mapper: ISO dates rather than timestamp arrays
+        objectMapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Map<String, Integer> monthlyPoints = new TreeMap<>();
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i < 36; i++) {
+            monthlyPoints.put(month.minusMonths(i).toString(), 50 + i * 13);
+        }
+        rewards = new RewardsResponse("CUST0000001", "Jennifer Rodriguez", 12_345, monthlyPoints, "All time");
+
+        transactions = new ArrayList<>();
+        LocalDateTime date = LocalDateTime.now();
+        for (int i = 0; i < 1_000; i++) {
+            Transaction transaction = new Transaction(String.format("TXN%08d", i), "CUST0000001",
+                    new BigDecimal(25 + (i * 37) % 400 + ".99"), date.minusHours(i * 7L), "Store Purchase");
+            transaction.setId(String.format("%024x", i));
+            transactions.add(transaction);
+        }
+
+        System.out.printf("%n%s payload: rewards (36 months) %,d bytes, transactions (1,000) %,d bytes%n",
+                format, rewards().length, transactionPage().length);
+    }
+
+    @Benchmark
+    public byte[] rewards() throws IOException {
+        return encode(rewards);
+    }
+
+    @Benchmark
+    public byte[] transactionPage() throws IOException {
+        return encode(transactions);
+    }
+
+    private byte[] encode(Object body) throws IOException {
+        if ("protobuf".equals(format)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            ProtobufHttpMessageConverter.encode(body, out);
+            return out.toByteArray();
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+}
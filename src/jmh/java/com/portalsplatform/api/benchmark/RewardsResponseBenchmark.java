@@ -0,0 +1,70 @@
+package com.portalsplatform.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portalsplatform.api.model.dto.MonthlySeriesResponse;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RewardsResponseBenchmark {
+
+    @Param({"1", "12", "36"})
+    public int months;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<String, Integer> monthlyPoints;
+    private RewardsResponse response;
+    private MonthlySeriesResponse series;
+
+    @Setup
+    public void setUp() {
+        monthlyPoints = new TreeMap<>();
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i < months; i++) {
+            monthlyPoints.put(month.minusMonths(i).toString(), 50 + i * 13);
+        }
+        response = construct();
+        series = constructSeries();
+    }
+
+    @Benchmark
+    public RewardsResponse construct() {
+        return new RewardsResponse("CUST001", "John Doe", 12_345, monthlyPoints, "All time");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public MonthlySeriesResponse constructSeries() {
+        return MonthlySeriesResponse.of(construct());
+    }
+
+    @Benchmark
+    public byte[] serializeSeries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(series);
+    }
+}
@@ -0,0 +1,93 @@
+package com.portalsplatform.api.benchmark;
+
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.CustomerCacheProperties;
+import com.portalsplatform.api.config.ProjectionProperties;
+import com.portalsplatform.api.config.ReadRouting;
+import com.portalsplatform.api.config.ReadRoutingProperties;
+import com.portalsplatform.api.model.dto.RewardsField;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import com.portalsplatform.api.service.ClosedMonthRewards;
+import com.portalsplatform.api.service.CustomerNameCache;
+import com.portalsplatform.api.service.RewardsProjection;
+import com.portalsplatform.api.service.RewardsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totals and month grouping in {@link RewardsServiceImpl} over in-memory repositories.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RewardsServiceBenchmark {
+
+    private static final String CUSTOMER_ID = "BENCH001";
+    private static final Set<RewardsField> TOTAL_ONLY = EnumSet.of(RewardsField.CUSTOMER_ID, RewardsField.TOTAL_POINTS);
+
+    @Param({"100", "1000", "10000"})
+    public int transactions;
+
+    private RewardsServiceImpl rewardsService;
+    private String lastMonth;
+
+    @Setup
+    public void setUp() {
+        InMemoryRepositories repositories = new InMemoryRepositories().withCustomer(CUSTOMER_ID, transactions, 36);
+        // The projection is never started and no month counts as closed, so every call reads the
+        // transaction repository instead of a memoized month
+        ClosedMonthProperties neverClosed = new ClosedMonthProperties();
+        neverClosed.setGracePeriod(Duration.ofDays(365L * 100));
+        rewardsService = new RewardsServiceImpl(repositories.customerRepository(), repositories.transactionRepository(),
+                new RewardsProjection(null, null, new ProjectionProperties(), null),
+                new CustomerNameCache(new CustomerCacheProperties(), new SimpleMeterRegistry()),
+                new ClosedMonthRewards(neverClosed, new ReadRouting(null, new ReadRoutingProperties()), null,
+                        new SimpleMeterRegistry()));
+        lastMonth = LocalDate.now().minusMonths(1).format(DateTimeFormatter.ofPattern("yyyy-MM"));
+    }
+
+    @Benchmark
+    public RewardsResponse totalRewards() {
+        return rewardsService.calculateTotalRewards(CUSTOMER_ID);
+    }
+
+    @Benchmark
+    public RewardsResponse recentRewards() {
+        return rewardsService.calculateRewardsForLastMonths(CUSTOMER_ID, 12);
+    }
+
+    @Benchmark
+    public RewardsResponse monthlyRewards() {
+        return rewardsService.calculateMonthlyRewards(CUSTOMER_ID, lastMonth);
+    }
+
+    @Benchmark
+    public RewardsResponse totalPointsOnly() {
+        return rewardsService.calculateTotalRewards(CUSTOMER_ID, TOTAL_ONLY);
+    }
+
+    @Benchmark
+    public RewardsResponse recentPointsOnly() {
+        return rewardsService.calculateRewardsForLastMonths(CUSTOMER_ID, 12, TOTAL_ONLY);
+    }
+}
@@ -0,0 +1,42 @@
+package com.portalsplatform.api.benchmark;
+
+import com.portalsplatform.api.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionPointsBenchmark {
+
+    // Below, inside and above the two point tiers
+    @Param({"45.00", "75.50", "1250.99"})
+    public String amount;
+
+    private BigDecimal value;
+
+    @Setup
+    public void setUp() {
+        value = new BigDecimal(amount);
+    }
+
+    @Benchmark
+    public Integer calculatePoints() {
+        return Transaction.calculatePoints(value);
+    }
+}
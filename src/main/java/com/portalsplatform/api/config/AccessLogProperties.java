@@ -0,0 +1,30 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "access-log")
+@Data
+public class AccessLogProperties {
+
+    // One JSON line per /api request on the "access" logger, written off the request thread
+    private boolean enabled = true;
+
+    // Entries waiting for the writer; beyond this they are dropped and counted, never waited for
+    private int queueCapacity = 8192;
+
+    // Requests at least this slow are always logged, like errors
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    // Share of successful requests logged when no route below matches
+    private double defaultSampleRate = 1.0;
+
+    // Share of successful requests logged per path pattern (Ant style), first match wins
+    private Map<String, Double> routes = new LinkedHashMap<>();
+}
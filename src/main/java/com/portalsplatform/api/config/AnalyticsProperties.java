@@ -0,0 +1,26 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "analytics")
+@Data
+public class AnalyticsProperties {
+
+    // customerId ranges aggregated concurrently for one month
+    private int partitions = Runtime.getRuntime().availableProcessors();
+
+    // Customer ids sampled per partition to choose range boundaries
+    private int samplesPerPartition = 100;
+
+    // Lower bounds of the points-per-customer distribution buckets
+    private long[] distributionBoundaries = {0, 1, 100, 500, 1_000, 5_000};
+
+    // How long a closed month's figures are reused; bounds how long writes that bypass Spring Data,
+    // e.g. from other instances or the data generator, stay unseen
+    private Duration closedMonthTtl = Duration.ofMinutes(15);
+}
@@ -0,0 +1,26 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "api.security.keys")
+@Data
+public class ApiKeyProperties {
+
+    // JSON file of {"sha256", "tenant", "rateTier"} entries; unset disables the file source
+    private String file;
+
+    // Load active keys from the api_keys collection
+    private boolean mongoEnabled = false;
+
+    // How often file and Mongo sources are checked for changes; zero disables hot reload
+    private Duration reloadInterval = Duration.ofSeconds(30);
+
+    // Metadata for the single key configured via api.security.api-key
+    private String defaultTenant = "default";
+    private String defaultRateTier = "standard";
+}
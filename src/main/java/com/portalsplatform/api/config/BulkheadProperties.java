@@ -0,0 +1,39 @@
+package com.portalsplatform.api.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "bulkheads")
+@Data
+public class BulkheadProperties {
+
+    // Cheap reads: transaction history pages and the leaderboard
+    private Pool lookup = new Pool(16, 200, Duration.ofSeconds(2));
+
+    // Rewards and analytics computations, which may aggregate a customer's whole history
+    private Pool rewards = new Pool(16, 50, Duration.ofSeconds(10));
+
+    // Customer and transaction creation
+    private Pool write = new Pool(8, 100, Duration.ofSeconds(5));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        // Worker threads; at most this many calls of the class run at once
+        private int threads;
+
+        // Calls waiting for a thread; beyond it calls are rejected with 503
+        private int queueCapacity;
+
+        // Time from submission, queueing included, before the caller gets a 503
+        private Duration timeout;
+    }
+}
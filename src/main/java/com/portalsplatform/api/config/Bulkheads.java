@@ -0,0 +1,175 @@
+package com.portalsplatform.api.config;
+
+import com.portalsplatform.api.exception.BulkheadRejectedException;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Separate bounded executors per class of request, so slow rewards computations cannot starve
+ * cheap lookups or writes of threads. Controllers hand their work to {@link #lookup}, {@link #rewards}
+ * or {@link #write} and return the future; the Tomcat thread is released while it runs.
+ * <p>
+ * A call is rejected with {@link BulkheadRejectedException} when its bulkhead's queue is full, or
+ * when it has not finished within the bulkhead timeout. If the request's {@link RequestDeadline}
+ * comes first, it fails with {@link DeadlineExceededException} at the deadline instead. A queued
+ * call is then dropped; a running one finishes in the background, since interrupting a Mongo call
+ * would poison the connection (its Mongo operations are bounded by the deadline anyway).
+ * The request's {@link CallContext} travels with the call, so the deadline, session token and
+ * rewards version are still known on the worker thread; the request's own attributes are not
+ * usable there once the servlet thread has returned.
+ * <p>
+ * Per bulkhead ({@code bulkhead} tag): {@code rewards.bulkhead.calls{result=accepted|rejected|timed_out}},
+ * {@code rewards.bulkhead.active}, {@code rewards.bulkhead.queued}, {@code rewards.bulkhead.saturation}
+ * (busy threads plus queued calls over threads plus queue capacity) and {@code rewards.bulkhead.queue_wait}.
+ */
+@Component
+@Slf4j
+public class Bulkheads implements DisposableBean {
+
+    private final Bulkhead lookup;
+    private final Bulkhead rewards;
+    private final Bulkhead write;
+
+    public Bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.lookup = new Bulkhead("lookup", properties.getLookup(), meterRegistry);
+        this.rewards = new Bulkhead("rewards", properties.getRewards(), meterRegistry);
+        this.write = new Bulkhead("write", properties.getWrite(), meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> lookup(Supplier<T> work) {
+        return lookup.submit(work);
+    }
+
+    public <T> CompletableFuture<T> rewards(Supplier<T> work) {
+        return rewards.submit(work);
+    }
+
+    public <T> CompletableFuture<T> write(Supplier<T> work) {
+        return write.submit(work);
+    }
+
+    @Override
+    public void destroy() {
+        for (Bulkhead bulkhead : List.of(lookup, rewards, write)) {
+            bulkhead.executor.shutdown();
+        }
+    }
+
+    private static final class Bulkhead {
+
+        private final String name;
+        private final Duration timeout;
+        private final ThreadPoolExecutor executor;
+        private final Counter accepted;
+        private final Counter rejected;
+        private final Counter timedOut;
+        private final Timer queueWait;
+
+        private Bulkhead(String name, BulkheadProperties.Pool pool, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.timeout = pool.getTimeout();
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(pool.getThreads(), pool.getThreads(), 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, pool.getQueueCapacity())), runnable -> {
+                        Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.accepted = calls(meterRegistry, "accepted");
+            this.rejected = calls(meterRegistry, "rejected");
+            this.timedOut = calls(meterRegistry, "timed_out");
+            this.queueWait = Timer.builder("rewards.bulkhead.queue_wait")
+                    .description("Time calls waited for a bulkhead thread")
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            double capacity = pool.getThreads() + Math.max(1, pool.getQueueCapacity());
+            Gauge.builder("rewards.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .description("Bulkhead threads running a call")
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            Gauge.builder("rewards.bulkhead.queued", executor, e -> e.getQueue().size())
+                    .description("Calls waiting for a bulkhead thread")
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            Gauge.builder("rewards.bulkhead.saturation", executor,
+                            e -> (e.getActiveCount() + e.getQueue().size()) / capacity)
+                    .description("Share of bulkhead threads and queue slots in use")
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<T> work) {
+            CallContext context = CallContext.current();
+            CompletableFuture<T> result = new CompletableFuture<>();
+            long submitted = System.nanoTime();
+            Runnable task = () -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    result.complete(CallContext.with(context, work));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                log.warn("Bulkhead {} is full, rejecting call", name);
+                return CompletableFuture.failedFuture(new BulkheadRejectedException(name, "is full"));
+            }
+            accepted.increment();
+
+            // A request deadline due before the bulkhead timeout cuts the call short instead
+            Long deadline = RequestDeadline.remainingNanos();
+            boolean deadlineFirst = deadline != null && deadline < timeout.toNanos();
+            long waitNanos = deadlineFirst ? Math.max(0, deadline) : timeout.toNanos();
+            CompletableFuture<T> response = new CompletableFuture<>();
+            result.orTimeout(waitNanos, TimeUnit.NANOSECONDS).whenComplete((value, error) -> {
+                if (error instanceof TimeoutException) {
+                    timedOut.increment();
+                    executor.remove(task);
+                    if (deadlineFirst) {
+                        log.warn("Call in bulkhead {} ran out of its request deadline", name);
+                        response.completeExceptionally(new DeadlineExceededException("in bulkhead " + name));
+                    } else {
+                        log.warn("Call in bulkhead {} timed out after {}", name, timeout);
+                        response.completeExceptionally(new BulkheadRejectedException(name, "timed out after " + timeout));
+                    }
+                } else if (error != null) {
+                    response.completeExceptionally(error);
+                } else {
+                    response.complete(value);
+                }
+            });
+            return response;
+        }
+
+        private Counter calls(MeterRegistry meterRegistry, String result) {
+            return Counter.builder("rewards.bulkhead.calls")
+                    .description("Calls submitted to a bulkhead")
+                    .tag("bulkhead", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
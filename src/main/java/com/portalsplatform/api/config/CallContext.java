@@ -0,0 +1,126 @@
+package com.portalsplatform.api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * What the work of one request needs to know about it, on whichever thread runs that work.
+ * <p>
+ * Controllers hand their work to {@link Bulkheads} threads, and {@link HedgedReads} runs reads on
+ * threads of its own. By then the servlet thread has returned, and Spring has marked the request's
+ * attributes completed; reading or writing them from a worker throws. So the deadline and session
+ * token are captured here as plain values on the request thread, the rewards version and staleness
+ * of the response are recorded here by whichever thread computes it, and the object itself is
+ * handed to the workers with {@link #with}.
+ */
+public final class CallContext {
+
+    private static final ThreadLocal<CallContext> CURRENT = new ThreadLocal<>();
+    private static final String REQUEST_ATTRIBUTE = CallContext.class.getName();
+
+    private final Long deadline;
+    private final String sessionToken;
+    private volatile Long rewardsVersion;
+    private volatile Duration staleness;
+
+    CallContext(Long deadline, String sessionToken) {
+        this.deadline = deadline;
+        this.sessionToken = sessionToken;
+    }
+
+    /**
+     * The context installed on this thread by {@link #with}, or on a request thread the request's
+     * own, created on first use. Null outside a request.
+     */
+    public static CallContext current() {
+        CallContext context = CURRENT.get();
+        if (context != null) {
+            return context;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                ? of(servletAttributes.getRequest())
+                : null;
+    }
+
+    /**
+     * Start the context of {@code request} on its own thread, before any work is handed off.
+     *
+     * @param deadline the {@link System#nanoTime} at which the request's deadline passes
+     */
+    public static CallContext start(HttpServletRequest request, long deadline) {
+        CallContext context = new CallContext(deadline, request.getHeader(ReadRouting.SESSION_TOKEN_HEADER));
+        request.setAttribute(REQUEST_ATTRIBUTE, context);
+        return context;
+    }
+
+    /**
+     * The context of {@code request}, without a deadline if it was never {@link #start started}.
+     * Only for the request's own thread.
+     */
+    public static CallContext of(HttpServletRequest request) {
+        CallContext context = (CallContext) request.getAttribute(REQUEST_ATTRIBUTE);
+        if (context == null) {
+            context = new CallContext(null, request.getHeader(ReadRouting.SESSION_TOKEN_HEADER));
+            request.setAttribute(REQUEST_ATTRIBUTE, context);
+        }
+        return context;
+    }
+
+    /**
+     * Run {@code work} with {@code context} as the current one, e.g. on a worker thread.
+     */
+    public static <T> T with(CallContext context, Supplier<T> work) {
+        CallContext previous = CURRENT.get();
+        if (context != null) {
+            CURRENT.set(context);
+        }
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the {@link System#nanoTime} at which the request's deadline passes, or null
+     */
+    public Long deadline() {
+        return deadline;
+    }
+
+    public String sessionToken() {
+        return sessionToken;
+    }
+
+    /**
+     * The rewards version the response is about to be tagged with, or null.
+     */
+    public Long rewardsVersion() {
+        return rewardsVersion;
+    }
+
+    public void setRewardsVersion(Long rewardsVersion) {
+        this.rewardsVersion = rewardsVersion;
+    }
+
+    /**
+     * Age of a stale rewards response served instead of a fresh one, or null.
+     */
+    public Duration staleness() {
+        return staleness;
+    }
+
+    public void setStaleness(Duration staleness) {
+        this.staleness = staleness;
+    }
+}
@@ -0,0 +1,34 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "mongo.circuit-breaker")
+@Data
+public class CircuitBreakerProperties {
+
+    // Fail repository calls fast while Mongo keeps failing or stalling
+    private boolean enabled = true;
+
+    // Most recent repository calls the failure rate is computed over
+    private int slidingWindow = 50;
+
+    // Calls in the window before the failure rate is trusted
+    private int minimumCalls = 20;
+
+    // Share of failed or slow calls in the window that opens the circuit
+    private double failureRateThreshold = 0.5;
+
+    // Calls slower than this count as failures even if they succeed
+    private Duration slowCallThreshold = Duration.ofSeconds(2);
+
+    // How long an open circuit rejects calls before letting trial calls through
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    // Trial calls that must succeed, with none failing, to close the circuit again
+    private int halfOpenCalls = 5;
+}
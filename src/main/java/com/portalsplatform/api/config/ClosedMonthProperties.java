@@ -0,0 +1,23 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "closed-months")
+@Data
+public class ClosedMonthProperties {
+
+    // A month is closed once this long has passed since it ended; later transactions are backdated
+    private Duration gracePeriod = Duration.ofDays(7);
+
+    // Memoized (customer, month) totals kept; the least recently used are dropped beyond this
+    private int maxEntries = 100_000;
+
+    // Cache-Control max-age for closed-month responses, served as immutable; bounds how long a client
+    // keeps a month a backdated transaction has since changed
+    private Duration maxAge = Duration.ofDays(30);
+}
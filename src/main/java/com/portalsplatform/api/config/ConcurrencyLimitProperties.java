@@ -0,0 +1,38 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "concurrency-limit")
+@Data
+public class ConcurrencyLimitProperties {
+
+    // Shed /api requests beyond the adaptive limit with 503 instead of queueing them on Tomcat threads
+    private boolean enabled = true;
+
+    // Concurrent requests allowed before any latency has been observed
+    private int initialLimit = 20;
+
+    // Bounds of the adaptive limit; the upper bound should not exceed the server's worker threads
+    private int minLimit = 10;
+    private int maxLimit = 200;
+
+    // Latency increase over the long-term baseline tolerated before the limit is lowered
+    private double rttTolerance = 1.5;
+
+    // Samples in the long-term latency baseline
+    private int longWindow = 600;
+
+    // Weight of each new limit estimate; lower values react more slowly but oscillate less
+    private double smoothing = 0.2;
+
+    // Part of the limit reserved for GET/HEAD when the limit is reached; the rest is reserved for writes
+    private double readShare = 0.7;
+
+    // Sent as Retry-After on rejected requests
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,14 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "customer-cache")
+@Data
+public class CustomerCacheProperties {
+
+    // Customer display names kept in memory; least recently used entries are evicted beyond this
+    private int maxEntries = 100_000;
+}
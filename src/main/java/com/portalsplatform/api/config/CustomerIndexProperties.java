@@ -0,0 +1,27 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "customer-index")
+@Data
+public class CustomerIndexProperties {
+
+    // Answer customer existence from the in-memory index instead of Mongo
+    private boolean enabled = true;
+
+    private double falsePositiveRate = 0.01;
+
+    // Lower bound for the first filter layer; it is otherwise sized from the customer count at load
+    private long initialCapacity = 100_000;
+
+    // Customer ids confirmed by Mongo, kept to skip the lookup on repeat requests
+    private int confirmedCacheSize = 10_000;
+
+    // Wait before reloading after the customers change stream fails
+    private Duration retryBackoff = Duration.ofSeconds(5);
+}
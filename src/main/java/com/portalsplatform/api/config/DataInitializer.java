@@ -25,7 +25,7 @@ public class DataInitializer {
     private final TransactionRepository transactionRepository;
 
     @Bean
-    @Profile("!test") // Don't run during tests
+    @Profile("!test & !generate") // Don't run during tests or dataset generation
     CommandLineRunner initDatabase() {
         return args -> {
             // Check if data already exists
@@ -0,0 +1,41 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@ConfigurationProperties(prefix = "generator")
+@Data
+public class GeneratorProperties {
+
+    private int customers = 10_000;
+
+    private long transactions = 1_000_000;
+
+    // Same seed and anchor date always produce the same dataset
+    private long seed = 42;
+
+    // Transactions are spread uniformly over this many years before the anchor date
+    private int years = 3;
+
+    private LocalDate anchorDate;
+
+    // Skew of per-customer activity; higher concentrates transactions on fewer customers
+    private double zipfExponent = 1.1;
+
+    // Skew of purchase amounts; kept milder so a realistic share of purchases earns points
+    private double amountZipfExponent = 0.6;
+
+    // Amounts are drawn from 1..maxAmount dollars
+    private int maxAmount = 1_000;
+
+    private int writerThreads = 4;
+
+    private int batchSize = 5_000;
+
+    // Drop existing customers and transactions before generating
+    private boolean clean = false;
+}
@@ -0,0 +1,315 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.ReadPreference;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hedged rewards reads: the read goes to the primary, and if it has not answered within the
+ * {@code percentile} latency of its query type it is started again on
+ * {@code mongo.hedging.read-preference}, and whichever attempt succeeds first is used. With hedging
+ * enabled, rewards reads therefore leave {@code mongo.read-preference} for the hedge alone.
+ * <p>
+ * The loser is abandoned: its result is dropped and {@link ReadRoutingMongoDatabaseFactory} refuses
+ * to start further Mongo operations for it. An operation already on the server runs on, bounded
+ * by the request deadline, since interrupting it would poison the connection. Hedges draw on a
+ * budget refilled by {@code max-hedge-rate} per read, so a slow cluster sees at most that share of
+ * extra reads. Reads in a causally consistent session are never hedged, as the session cannot be
+ * shared by two attempts.
+ * <p>
+ * Published as {@code rewards.hedging.calls{result=not_hedged|primary_won|hedge_won|budget_exhausted}},
+ * {@code rewards.hedging.wasted} (time the loser kept a thread busy after the winner answered) and
+ * {@code rewards.hedging.threshold{operation}}.
+ */
+@Component
+public class HedgedReads implements DisposableBean {
+
+    private static final ThreadLocal<Attempt<?>> CURRENT = new ThreadLocal<>();
+
+    // Hedges that may be saved up while reads are fast
+    private static final double MAX_BUDGET = 10;
+
+    private final HedgingProperties properties;
+    private final ReadRouting readRouting;
+    private final ReadPreference hedgePreference;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final Counter notHedged;
+    private final Counter primaryWon;
+    private final Counter hedgeWon;
+    private final Counter budgetExhausted;
+    private final Timer wasted;
+
+    // Guarded by this; earned by reads, so hedging never runs ahead of max-hedge-rate
+    private double budget;
+
+    public HedgedReads(HedgingProperties properties, ReadRoutingProperties readRoutingProperties,
+                       ReadRouting readRouting, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.readRouting = readRouting;
+        this.hedgePreference = "primary".equalsIgnoreCase(properties.getReadPreference())
+                ? ReadPreference.primary()
+                : ReadPreference.valueOf(properties.getReadPreference(), List.of(),
+                        readRoutingProperties.getMaxStaleness().toSeconds(), TimeUnit.SECONDS);
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, Math.max(2, properties.getThreads()), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "hedged-read-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.notHedged = calls("not_hedged");
+        this.primaryWon = calls("primary_won");
+        this.hedgeWon = calls("hedge_won");
+        this.budgetExhausted = calls("budget_exhausted");
+        this.wasted = Timer.builder("rewards.hedging.wasted")
+                .description("Time the losing attempt of a hedged read kept running after the winner answered")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code reads} on the primary, hedged; as {@link ReadRouting#secondary(String, Supplier)}
+     * would if hedging is disabled or the read is in a session.
+     *
+     * @param operation query type whose latencies set the hedging delay
+     */
+    public <T> T read(String operation, String sessionToken, Supplier<T> reads) {
+        if (!properties.isEnabled() || (sessionToken != null && !sessionToken.isBlank())) {
+            return readRouting.secondary(sessionToken, reads);
+        }
+        LatencyTracker tracker = trackers.computeIfAbsent(operation, this::tracker);
+        CallContext context = CallContext.current();
+        Attempt<T> first = new Attempt<>(context, () -> readRouting.primary(reads));
+        if (!start(first)) {
+            notHedged.increment();
+            return readRouting.primary(reads);
+        }
+        first.future.whenComplete((value, error) -> {
+            if (error == null) {
+                tracker.record(first.elapsedNanos());
+            }
+        });
+        deposit();
+
+        long delay = tracker.threshold();
+        if (delay < 0) {
+            notHedged.increment();
+            return join(first.future);
+        }
+        try {
+            T value = first.future.get(delay, TimeUnit.NANOSECONDS);
+            notHedged.increment();
+            return value;
+        } catch (TimeoutException e) {
+            // Slower than usual for this query type: hedge below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first.abandon();
+            throw new IllegalStateException("Interrupted waiting for a rewards read", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+
+        if (!withdraw()) {
+            budgetExhausted.increment();
+            return join(first.future);
+        }
+        Attempt<T> second = new Attempt<>(context, () -> readRouting.preferred(hedgePreference, reads));
+        if (!start(second)) {
+            notHedged.increment();
+            return join(first.future);
+        }
+        return race(first, second);
+    }
+
+    private <T> T race(Attempt<T> first, Attempt<T> second) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (Attempt<T> attempt : List.of(first, second)) {
+            attempt.future.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (winner.complete(value)) {
+                        Attempt<T> loser = attempt == first ? second : first;
+                        (attempt == first ? primaryWon : hedgeWon).increment();
+                        loser.abandon();
+                        long wonAt = System.nanoTime();
+                        loser.future.whenComplete((v, e) -> wasted.record(System.nanoTime() - wonAt, TimeUnit.NANOSECONDS));
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    // Both failed: report the original read's error
+                    first.future.whenComplete((v, e) -> winner.completeExceptionally(e));
+                }
+            });
+        }
+        return join(winner);
+    }
+
+    private <T> boolean start(Attempt<T> attempt) {
+        try {
+            executor.execute(attempt);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private synchronized void deposit() {
+        budget = Math.min(MAX_BUDGET, budget + properties.getMaxHedgeRate());
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+
+    /**
+     * True while the calling thread runs an attempt that lost its race; it should stop issuing reads.
+     */
+    static boolean abandoned() {
+        Attempt<?> attempt = CURRENT.get();
+        return attempt != null && attempt.abandoned;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a rewards read", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        // Rethrow as-is so callers map Mongo and lookup errors the same as unhedged reads
+        if (error instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        throw new IllegalStateException(error);
+    }
+
+    private LatencyTracker tracker(String operation) {
+        LatencyTracker tracker = new LatencyTracker(properties);
+        Gauge.builder("rewards.hedging.threshold", tracker, t -> Math.max(0, t.threshold()) / 1e6)
+                .description("Latency after which a rewards read is hedged, in milliseconds")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return tracker;
+    }
+
+    private Counter calls(String result) {
+        return Counter.builder("rewards.hedging.calls")
+                .description("Hedgeable rewards reads by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Attempt<T> implements Runnable {
+
+        private final CallContext context;
+        private final Supplier<T> reads;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile boolean abandoned;
+        private volatile long startedAt;
+
+        private Attempt(CallContext context, Supplier<T> reads) {
+            this.context = context;
+            this.reads = reads;
+        }
+
+        @Override
+        public void run() {
+            startedAt = System.nanoTime();
+            CURRENT.set(this);
+            try {
+                future.complete(CallContext.with(context, reads));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                CURRENT.remove();
+            }
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - startedAt;
+        }
+
+        void abandon() {
+            abandoned = true;
+        }
+    }
+
+    /**
+     * Recent latencies of one query type; the percentile is recomputed every tenth of a window.
+     */
+    static final class LatencyTracker {
+
+        private final long[] samples;
+        private final int minSamples;
+        private final double percentile;
+        private final long minDelayNanos;
+        private int next;
+        private int count;
+        private int sinceUpdate;
+        private volatile long threshold = -1;
+
+        LatencyTracker(HedgingProperties properties) {
+            this.samples = new long[Math.max(10, properties.getSampleWindow())];
+            this.minSamples = Math.min(samples.length, Math.max(1, properties.getMinSamples()));
+            this.percentile = properties.getPercentile();
+            this.minDelayNanos = properties.getMinDelay().toNanos();
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= minSamples && (threshold < 0 || ++sinceUpdate >= samples.length / 10)) {
+                sinceUpdate = 0;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+                threshold = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            }
+        }
+
+        /**
+         * @return nanoseconds to wait before hedging, or -1 until enough latencies were seen
+         */
+        long threshold() {
+            return threshold;
+        }
+    }
+}
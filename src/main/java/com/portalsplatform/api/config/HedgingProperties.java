@@ -0,0 +1,35 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "mongo.hedging")
+@Data
+public class HedgingProperties {
+
+    // Duplicate slow rewards reads on another member and keep whichever answers first
+    private boolean enabled = false;
+
+    // Where the duplicate read goes; max staleness is shared with read routing
+    private String readPreference = "secondary";
+
+    // Latency percentile of each rewards query type after which the read is duplicated
+    private double percentile = 0.95;
+
+    // Never duplicate a read earlier than this
+    private Duration minDelay = Duration.ofMillis(10);
+
+    // Latencies kept per query type, and how many are needed before hedging starts
+    private int sampleWindow = 1000;
+    private int minSamples = 100;
+
+    // Most reads that may be duplicated, as a share of all hedgeable reads
+    private double maxHedgeRate = 0.05;
+
+    // Threads running the reads of hedgeable queries; a read that finds none free runs unhedged
+    private int threads = 32;
+}
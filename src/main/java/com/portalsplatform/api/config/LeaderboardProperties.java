@@ -0,0 +1,28 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "leaderboard")
+@Data
+public class LeaderboardProperties {
+
+    // Months (including the current one) ranked in memory; older months are read from Mongo
+    private int retainedMonths = 13;
+
+    // Recompute all rankings from the transactions collection when the application starts
+    private boolean rebuildOnStartup = true;
+
+    // How long the instance rewriting the leaderboard collection holds the rebuild lease; above the
+    // longest rebuild, or a second instance may rewrite it too
+    private Duration rebuildLease = Duration.ofMinutes(10);
+
+    // Increments waiting to be persisted; beyond this they are dropped and counted as failures
+    private int persistQueueCapacity = 10_000;
+
+    private int maxLimit = 100;
+}
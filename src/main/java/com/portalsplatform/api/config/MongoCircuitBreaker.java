@@ -0,0 +1,188 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.portalsplatform.api.exception.CircuitOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Circuit breaker around every repository call (see {@link MongoCircuitBreakerConfig}).
+ * <p>
+ * While closed, the outcome of the last {@code sliding-window} calls is kept; a call fails if it
+ * throws an {@linkplain #isUnavailable unavailability} error or takes longer than
+ * {@code slow-call-threshold}. Once {@code failure-rate-threshold} of at least {@code minimum-calls}
+ * calls failed, the circuit opens and calls are refused with {@link CircuitOpenException} without
+ * waiting on Mongo. After {@code open-duration} it lets {@code half-open-calls} trial calls through:
+ * all of them succeeding closes it, any failure opens it again.
+ * <p>
+ * Published as {@code rewards.circuit_breaker.state{state}} (1 for the current state) and
+ * {@code rewards.circuit_breaker.calls{result=success|failure|rejected}}.
+ */
+@Component
+@Slf4j
+public class MongoCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final CircuitBreakerProperties properties;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter rejected;
+
+    // Guarded by this
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long transitions;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public MongoCircuitBreaker(CircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.slowCallNanos = properties.getSlowCallThreshold().toNanos();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.window = new boolean[Math.max(1, properties.getSlidingWindow())];
+        this.successes = calls(meterRegistry, "success");
+        this.failures = calls(meterRegistry, "failure");
+        this.rejected = calls(meterRegistry, "rejected");
+        for (State s : State.values()) {
+            Gauge.builder("rewards.circuit_breaker.state", this, breaker -> breaker.state() == s ? 1 : 0)
+                    .description("1 for the current MongoDB circuit breaker state")
+                    .tag("state", s.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Advice for repository proxies that runs each call through the breaker.
+     */
+    public MethodInterceptor interceptor() {
+        return invocation -> {
+            if (!properties.isEnabled()) {
+                return invocation.proceed();
+            }
+            long permit = acquire();
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                record(permit, System.nanoTime() - start, null);
+                return result;
+            } catch (Throwable e) {
+                // A request running out of its own budget says nothing about Mongo; slowness still counts
+                record(permit, System.nanoTime() - start, RequestDeadline.isExceeded(e) ? null : e);
+                throw e;
+            }
+        };
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * True for errors that mean Mongo is unreachable, overloaded or timing out, as opposed to a
+     * problem with the request itself such as a duplicate key.
+     */
+    public static boolean isUnavailable(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof DataAccessResourceFailureException || e instanceof TransientDataAccessException
+                    || e instanceof MongoTimeoutException || e instanceof MongoSocketException
+                    || e instanceof MongoExecutionTimeoutException) {
+                return true;
+            }
+            if (e.getCause() == e) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the transition count the call was admitted under; results from an earlier state are ignored
+     */
+    synchronized long acquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                rejected.increment();
+                throw new CircuitOpenException();
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= properties.getHalfOpenCalls()) {
+                rejected.increment();
+                throw new CircuitOpenException();
+            }
+            halfOpenPermits++;
+        }
+        return transitions;
+    }
+
+    synchronized void record(long permit, long nanos, Throwable error) {
+        boolean failed = (error != null && isUnavailable(error)) || nanos > slowCallNanos;
+        (failed ? failures : successes).increment();
+        if (permit != transitions) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSuccesses >= properties.getHalfOpenCalls()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (windowCalls == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+        if (windowCalls >= properties.getMinimumCalls()
+                && windowFailures >= properties.getFailureRateThreshold() * windowCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        log.warn("MongoDB circuit breaker {} -> {}", state, next);
+        state = next;
+        transitions++;
+        openedAt = System.nanoTime();
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.CLOSED) {
+            windowNext = 0;
+            windowCalls = 0;
+            windowFailures = 0;
+        }
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("rewards.circuit_breaker.calls")
+                .description("Repository calls seen by the MongoDB circuit breaker")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
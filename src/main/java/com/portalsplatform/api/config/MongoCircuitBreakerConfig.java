@@ -0,0 +1,31 @@
+package com.portalsplatform.api.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class MongoCircuitBreakerConfig {
+
+    /**
+     * Advise every repository proxy with the {@link MongoCircuitBreaker}. The breaker is looked up
+     * on first call, since post-processors are created before ordinary beans.
+     */
+    @Bean
+    static BeanPostProcessor mongoCircuitBreakerPostProcessor(ObjectProvider<MongoCircuitBreaker> circuitBreaker) {
+        MethodInterceptor advice = invocation -> circuitBreaker.getObject().interceptor().invoke(invocation);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(advice)));
+                }
+                return bean;
+            }
+        };
+    }
+}
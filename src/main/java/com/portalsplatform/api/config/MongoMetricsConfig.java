@@ -0,0 +1,39 @@
+package com.portalsplatform.api.config;
+
+import com.portalsplatform.api.metrics.MongoCommandMetrics;
+import com.portalsplatform.api.metrics.RepositoryOrigin;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class MongoMetricsConfig {
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MongoCommandMetrics mongoCommandMetrics) {
+        return builder -> builder
+                .addCommandListener(mongoCommandMetrics)
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(mongoCommandMetrics));
+    }
+
+    /**
+     * Advise every repository proxy so Mongo commands can be tagged with the repository
+     * method that issued them.
+     */
+    @Bean
+    static BeanPostProcessor repositoryOriginPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    RepositoryOrigin.interceptor(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
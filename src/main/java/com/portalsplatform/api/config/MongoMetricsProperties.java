@@ -0,0 +1,26 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "mongo.metrics")
+@Data
+public class MongoMetricsProperties {
+
+    // Commands slower than this are logged with their sanitized filter
+    private Duration slowCommandThreshold = Duration.ofMillis(100);
+
+    // Fraction of reads kept in case they are slow, to log their filter and re-run them as an explain (0 disables)
+    private double explainSampleRate = 0.1;
+
+    // Larger reads are never kept, so sampling does not copy big $in lists or pipelines
+    private DataSize explainMaxCommandSize = DataSize.ofKilobytes(16);
+
+    // Number of recent slow commands kept for the actuator endpoint
+    private int slowCommandHistory = 50;
+}
@@ -0,0 +1,29 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "projection")
+@Data
+public class ProjectionProperties {
+
+    // Serve rewards from the in-memory projection; requires a replica set for change streams. Off by
+    // default: the projection trails Mongo, so a client may not see its own write right away. Every
+    // instance projects in memory, but only the holder of the rewards-projection lease writes the
+    // shared checkpoint and rewards_projection collection
+    private boolean enabled = false;
+
+    // How often projected totals and the change stream resume token are persisted
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+
+    // How long the checkpoint writer's lease lasts without renewal; it is renewed every checkpoint,
+    // so keep it well above checkpoint-interval
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    // Wait before reconnecting after the change stream fails
+    private Duration retryBackoff = Duration.ofSeconds(5);
+}
@@ -0,0 +1,193 @@
+package com.portalsplatform.api.config;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.MonthlySeriesResponse;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link RewardsResponse}, {@link MonthlySeriesResponse}, {@link Transaction} and lists of transactions as
+ * {@value #MEDIA_TYPE_VALUE}, following {@code src/main/proto/rewards.proto}.
+ * <p>
+ * The messages are encoded field by field with {@link CodedOutputStream} rather than through
+ * generated classes, so the build needs no protoc step. Write-only: request bodies stay JSON.
+ */
+public class ProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-protobuf";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public ProtobufHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RewardsResponse.class.isAssignableFrom(clazz) || MonthlySeriesResponse.class.isAssignableFrom(clazz)
+                || Transaction.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (List.class.isAssignableFrom(clazz)) {
+            return type instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] == Transaction.class
+                    && canWrite(mediaType);
+        }
+        return super.canWrite(type, clazz, mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Object body, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        encode(body, outputMessage.getBody());
+    }
+
+    /**
+     * Encode a supported body; a list is written as a {@code TransactionList}.
+     */
+    public static void encode(Object body, OutputStream stream) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(stream);
+        if (body instanceof RewardsResponse rewards) {
+            writeRewards(out, rewards);
+        } else if (body instanceof MonthlySeriesResponse series) {
+            writeSeries(out, series);
+        } else if (body instanceof Transaction transaction) {
+            writeTransaction(out, transaction);
+        } else if (body instanceof List<?> transactions) {
+            for (Object transaction : transactions) {
+                out.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(transactionSize((Transaction) transaction));
+                writeTransaction(out, (Transaction) transaction);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported protobuf body: " + body.getClass());
+        }
+        out.flush();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    private static void writeRewards(CodedOutputStream out, RewardsResponse rewards) throws IOException {
+        writeString(out, 1, rewards.customerId());
+        writeString(out, 2, rewards.customerName());
+        if (rewards.totalPoints() != null && rewards.totalPoints() != 0) {
+            out.writeInt32(3, rewards.totalPoints());
+        }
+        Map<String, Integer> monthlyPoints = rewards.monthlyPoints() != null ? rewards.monthlyPoints() : Map.of();
+        for (Map.Entry<String, Integer> month : monthlyPoints.entrySet()) {
+            // Map fields are repeated key/value entry messages
+            out.writeTag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(CodedOutputStream.computeStringSize(1, month.getKey())
+                    + CodedOutputStream.computeInt32Size(2, month.getValue()));
+            out.writeString(1, month.getKey());
+            out.writeInt32(2, month.getValue());
+        }
+        writeString(out, 5, rewards.period());
+    }
+
+    private static void writeSeries(CodedOutputStream out, MonthlySeriesResponse series) throws IOException {
+        writeString(out, 1, series.customerId());
+        writeString(out, 2, series.customerName());
+        if (series.totalPoints() != null && series.totalPoints() != 0) {
+            out.writeInt32(3, series.totalPoints());
+        }
+        writeString(out, 4, series.startMonth());
+        if (series.points() != null && series.points().length > 0) {
+            // Packed repeated int32
+            int size = 0;
+            for (int points : series.points()) {
+                size += CodedOutputStream.computeInt32SizeNoTag(points);
+            }
+            out.writeTag(5, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size);
+            for (int points : series.points()) {
+                out.writeInt32NoTag(points);
+            }
+        }
+        writeString(out, 6, series.period());
+    }
+
+    private static void writeTransaction(CodedOutputStream out, Transaction transaction) throws IOException {
+        writeString(out, 1, transaction.getId());
+        writeString(out, 2, transaction.getTransactionId());
+        writeString(out, 3, transaction.getCustomerId());
+        writeString(out, 4, transaction.getAmount() != null ? transaction.getAmount().toPlainString() : null);
+        if (transaction.getTransactionDate() != null) {
+            out.writeInt64(5, epochMillis(transaction.getTransactionDate()));
+        }
+        writeString(out, 6, transaction.getDescription());
+        if (transaction.getPointsEarned() != null && transaction.getPointsEarned() != 0) {
+            out.writeInt32(7, transaction.getPointsEarned());
+        }
+        if (transaction.getCreatedAt() != null) {
+            out.writeInt64(8, epochMillis(transaction.getCreatedAt()));
+        }
+    }
+
+    private static int transactionSize(Transaction transaction) {
+        int size = stringSize(1, transaction.getId())
+                + stringSize(2, transaction.getTransactionId())
+                + stringSize(3, transaction.getCustomerId())
+                + stringSize(4, transaction.getAmount() != null ? transaction.getAmount().toPlainString() : null)
+                + stringSize(6, transaction.getDescription());
+        if (transaction.getTransactionDate() != null) {
+            size += CodedOutputStream.computeInt64Size(5, epochMillis(transaction.getTransactionDate()));
+        }
+        if (transaction.getPointsEarned() != null && transaction.getPointsEarned() != 0) {
+            size += CodedOutputStream.computeInt32Size(7, transaction.getPointsEarned());
+        }
+        if (transaction.getCreatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(8, epochMillis(transaction.getCreatedAt()));
+        }
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, @Nullable String value) throws IOException {
+        // proto3 leaves default (empty) values off the wire
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static int stringSize(int field, @Nullable String value) {
+        return value != null && !value.isEmpty() ? CodedOutputStream.computeStringSize(field, value) : 0;
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
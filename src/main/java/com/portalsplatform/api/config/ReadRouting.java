@@ -0,0 +1,176 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Chooses where the Mongo operations inside a block run.
+ * <p>
+ * {@link #secondary} sends reads to the configured read preference. {@link #tracked} runs
+ * writes in a causally consistent session and returns a session token; a read presenting that
+ * token (explicitly or via the {@value #SESSION_TOKEN_HEADER} request header) runs in a session
+ * advanced to the write's operation time, so even a secondary only answers once it has the write.
+ * Everything outside these blocks keeps the primary.
+ * <p>
+ * The route is held in a thread-local read by {@link ReadRoutingMongoDatabaseFactory}.
+ */
+@Component
+@Slf4j
+public class ReadRouting {
+
+    public static final String SESSION_TOKEN_HEADER = "X-Session-Token";
+
+    // Tokens claiming a time further ahead than this are forged or from a skewed clock
+    private static final long MAX_CLOCK_SKEW_SECONDS = 60;
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    private final MongoClient mongoClient;
+    private final ReadPreference readPreference;
+
+    public ReadRouting(MongoClient mongoClient, ReadRoutingProperties properties) {
+        this.mongoClient = mongoClient;
+        this.readPreference = properties.isEnabled() ? readPreference(properties) : null;
+    }
+
+    static Route current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run reads on the configured read preference, honouring the current request's session token.
+     */
+    public <T> T secondary(Supplier<T> reads) {
+        return secondary(requestSessionToken(), reads);
+    }
+
+    public <T> T secondary(String sessionToken, Supplier<T> reads) {
+        if (readPreference == null) {
+            return reads.get();
+        }
+        if (sessionToken == null || sessionToken.isBlank()) {
+            return routed(new Route(readPreference, null), reads);
+        }
+        Document token = decode(sessionToken);
+        if (token == null) {
+            // Without a usable token only the primary is guaranteed to have the client's writes
+            return reads.get();
+        }
+        try (ClientSession session = mongoClient.startSession(
+                ClientSessionOptions.builder().causallyConsistent(true).build())) {
+            session.advanceOperationTime(token.get("operationTime", BsonTimestamp.class));
+            Document clusterTime = token.get("clusterTime", Document.class);
+            if (clusterTime != null) {
+                session.advanceClusterTime(clusterTime.toBsonDocument());
+            }
+            return routed(new Route(readPreference, session), reads);
+        }
+    }
+
+    /**
+     * Run reads on {@code readPreference} without a session, e.g. to repeat a slow read elsewhere.
+     */
+    public <T> T preferred(ReadPreference readPreference, Supplier<T> reads) {
+        return routed(new Route(readPreference, null), reads);
+    }
+
+    /**
+     * Run reads on the primary, also inside a {@link #secondary} block.
+     */
+    public <T> T primary(Supplier<T> reads) {
+        return routed(new Route(null, null), reads);
+    }
+
+    /**
+     * Run writes on the primary in a causally consistent session.
+     *
+     * @return the result and a token for later reads, or a null token if the deployment has no cluster time
+     */
+    public <T> Tracked<T> tracked(Supplier<T> writes) {
+        try (ClientSession session = mongoClient.startSession(
+                ClientSessionOptions.builder().causallyConsistent(true).build())) {
+            T value = routed(new Route(null, session), writes);
+            return new Tracked<>(value, encode(session));
+        }
+    }
+
+    private static <T> T routed(Route route, Supplier<T> work) {
+        Route previous = CURRENT.get();
+        CURRENT.set(route);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * The session token presented on the current request, or null outside a request.
+     */
+    public static String requestSessionToken() {
+        CallContext context = CallContext.current();
+        return context != null ? context.sessionToken() : null;
+    }
+
+    private static String encode(ClientSession session) {
+        BsonTimestamp operationTime = session.getOperationTime();
+        if (operationTime == null) {
+            return null;
+        }
+        Document token = new Document("operationTime", operationTime);
+        BsonDocument clusterTime = session.getClusterTime();
+        if (clusterTime != null) {
+            token.append("clusterTime", clusterTime);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Document decode(String sessionToken) {
+        try {
+            Document token = Document.parse(new String(Base64.getUrlDecoder().decode(sessionToken), StandardCharsets.UTF_8));
+            BsonTimestamp operationTime = token.get("operationTime", BsonTimestamp.class);
+            if (operationTime == null
+                    || operationTime.getTime() > Instant.now().getEpochSecond() + MAX_CLOCK_SKEW_SECONDS) {
+                log.debug("Ignoring session token with missing or future operation time");
+                return null;
+            }
+            return token;
+        } catch (RuntimeException e) {
+            log.debug("Ignoring malformed session token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ReadPreference readPreference(ReadRoutingProperties properties) {
+        if ("primary".equalsIgnoreCase(properties.getReadPreference())) {
+            return ReadPreference.primary();
+        }
+        return ReadPreference.valueOf(properties.getReadPreference(), List.of(),
+                properties.getMaxStaleness().toSeconds(), TimeUnit.SECONDS);
+    }
+
+    record Route(ReadPreference readPreference, ClientSession session) {
+    }
+
+    public record Tracked<T>(T value, String sessionToken) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.client.MongoClient;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+
+@Configuration
+public class ReadRoutingConfig {
+
+    /**
+     * Replaces the auto-configured factory so MongoTemplate and the repositories follow {@link ReadRouting}.
+     */
+    @Bean
+    MongoDatabaseFactory mongoDatabaseFactory(MongoClient mongoClient, MongoProperties mongoProperties,
+                                              MongoConnectionDetails connectionDetails) {
+        // Same database resolution as the auto-configured factory
+        String database = mongoProperties.getDatabase() != null
+                ? mongoProperties.getDatabase()
+                : connectionDetails.getConnectionString().getDatabase();
+        return new ReadRoutingMongoDatabaseFactory(new SimpleMongoClientDatabaseFactory(mongoClient, database));
+    }
+}
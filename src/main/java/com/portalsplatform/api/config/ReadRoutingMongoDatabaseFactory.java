@@ -0,0 +1,93 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link ReadRouting} route of the calling thread to every database handed to
+ * {@code MongoTemplate} and the repositories, and bounds its operations by the time left before
+ * the {@link RequestDeadline}. An attempt that lost a {@link HedgedReads} race gets no database.
+ * <p>
+ * Factories bound to a session by {@link #withSession} keep doing so; that session then takes the
+ * place of the route's, and a transaction keeps its own read preference.
+ */
+public class ReadRoutingMongoDatabaseFactory implements MongoDatabaseFactory {
+
+    private final MongoDatabaseFactory delegate;
+    private final ClientSession session;
+
+    public ReadRoutingMongoDatabaseFactory(MongoDatabaseFactory delegate) {
+        this(delegate, null);
+    }
+
+    private ReadRoutingMongoDatabaseFactory(MongoDatabaseFactory delegate, ClientSession session) {
+        this.delegate = delegate;
+        this.session = session;
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase() throws DataAccessException {
+        return routed(null);
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase(String dbName) throws DataAccessException {
+        return routed(dbName);
+    }
+
+    private MongoDatabase routed(String dbName) {
+        if (HedgedReads.abandoned()) {
+            throw new CancellationException("Hedged read already answered by another attempt");
+        }
+        ReadRouting.Route route = ReadRouting.current();
+        MongoDatabaseFactory source = session == null && route != null && route.session() != null
+                ? delegate.withSession(route.session())
+                : delegate;
+        MongoDatabase database = dbName != null ? source.getMongoDatabase(dbName) : source.getMongoDatabase();
+        if (route != null && route.readPreference() != null
+                && (session == null || !session.hasActiveTransaction())) {
+            database = database.withReadPreference(route.readPreference());
+        }
+        return withDeadline(database);
+    }
+
+    private static MongoDatabase withDeadline(MongoDatabase database) {
+        Long remaining = RequestDeadline.remainingNanos();
+        if (remaining == null) {
+            return database;
+        }
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("before a MongoDB call");
+        }
+        // The driver derives maxTimeMS and socket read timeouts from the operation timeout
+        return database.withTimeout(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public PersistenceExceptionTranslator getExceptionTranslator() {
+        return delegate.getExceptionTranslator();
+    }
+
+    @Override
+    public ClientSession getSession(ClientSessionOptions options) {
+        return delegate.getSession(options);
+    }
+
+    @Override
+    public MongoDatabaseFactory withSession(ClientSession session) {
+        return new ReadRoutingMongoDatabaseFactory(delegate.withSession(session), session);
+    }
+
+    @Override
+    public boolean isTransactionActive() {
+        return delegate.isTransactionActive();
+    }
+}
@@ -0,0 +1,21 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "mongo.read-routing")
+@Data
+public class ReadRoutingProperties {
+
+    // Route rewards and transaction-history reads away from the primary
+    private boolean enabled = true;
+
+    private String readPreference = "secondaryPreferred";
+
+    // Secondaries lagging further behind are not selected; MongoDB requires at least 90 seconds
+    private Duration maxStaleness = Duration.ofSeconds(90);
+}
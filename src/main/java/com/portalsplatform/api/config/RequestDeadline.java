@@ -0,0 +1,67 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoOperationTimeoutException;
+import com.mongodb.MongoSocketReadTimeoutException;
+import com.mongodb.MongoTimeoutException;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * Deadline of the current request: the absolute {@link System#nanoTime} taken by
+ * {@code RequestDeadlineFilter} on the request thread and held by its {@link CallContext}, which
+ * {@link Bulkheads} and {@link HedgedReads} hand to the threads that do the request's work.
+ * <p>
+ * {@link ReadRoutingMongoDatabaseFactory} hands out databases whose operation timeout is the time
+ * left, so the driver sends it as {@code maxTimeMS} and bounds socket reads by it, and refuses to
+ * start an operation once it has passed. Outside a request there is no deadline.
+ */
+public final class RequestDeadline {
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * @return the {@link System#nanoTime} at which the budget runs out
+     */
+    public static long expiresAt(Duration budget) {
+        return System.nanoTime() + budget.toNanos();
+    }
+
+    /**
+     * Nanoseconds left for the current request, negative once passed, or null without a deadline.
+     */
+    public static Long remainingNanos() {
+        CallContext context = CallContext.current();
+        Long expiresAt = context != null ? context.deadline() : null;
+        return expiresAt != null ? expiresAt - System.nanoTime() : null;
+    }
+
+    public static boolean expired() {
+        Long remaining = remainingNanos();
+        return remaining != null && remaining <= 0;
+    }
+
+    /**
+     * True if {@code error} is the current request running out of time: refused here, timed out by
+     * the driver against the operation timeout we set, or another Mongo timeout after the deadline.
+     */
+    public static boolean isExceeded(Throwable error) {
+        boolean operationTimeout = false;
+        boolean timeout = false;
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof DeadlineExceededException) {
+                return true;
+            }
+            operationTimeout |= e instanceof MongoOperationTimeoutException;
+            timeout |= e instanceof MongoTimeoutException || e instanceof MongoExecutionTimeoutException
+                    || e instanceof MongoSocketReadTimeoutException;
+            if (e.getCause() == e) {
+                break;
+            }
+        }
+        Long remaining = remainingNanos();
+        return remaining != null && (operationTimeout || (timeout && remaining <= 0));
+    }
+}
@@ -0,0 +1,30 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "request-deadline")
+@Data
+public class RequestDeadlineProperties {
+
+    // Give /api reads a time budget that bounds their Mongo calls
+    private boolean enabled = true;
+
+    // Client-supplied budget, e.g. "2500" (milliseconds) or "3s"
+    private String header = "X-Request-Timeout";
+
+    // Upper bound on client-supplied budgets
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    // Budget of reads without the header that match no route below
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+
+    // Budget per path pattern (Ant style), first match wins
+    private Map<String, Duration> routes = new LinkedHashMap<>();
+}
@@ -0,0 +1,42 @@
+package com.portalsplatform.api.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary response encodings for service-to-service callers, chosen through the Accept header:
+ * {@code application/cbor}, {@code application/x-jackson-smile} and
+ * {@value ProtobufHttpMessageConverter#MEDIA_TYPE_VALUE}. JSON stays first, so it remains the
+ * default for clients that accept anything.
+ * <p>
+ * CBOR and Smile mappers come from the application's Jackson builder, so they carry the same
+ * field names, date handling and inclusion rules as the JSON responses.
+ */
+@Configuration
+public class ResponseFormatConfig implements WebMvcConfigurer {
+
+    // Same type as Spring MVC's default CBOR and Smile converters, so these replace them in place
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufHttpMessageConverter());
+    }
+}
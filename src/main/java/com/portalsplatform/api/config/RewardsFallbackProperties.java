@@ -0,0 +1,25 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "rewards-fallback")
+@Data
+public class RewardsFallbackProperties {
+
+    // Serve the last good rewards response when MongoDB is unavailable
+    private boolean enabled = true;
+
+    // Last good responses kept in memory; least recently used entries are evicted beyond this
+    private int maxEntries = 20_000;
+
+    // Responses older than this are not served; the request fails with 503 instead
+    private Duration maxStaleness = Duration.ofHours(24);
+
+    // How often stale responses that were served are recomputed in the background
+    private Duration refreshInterval = Duration.ofSeconds(5);
+}
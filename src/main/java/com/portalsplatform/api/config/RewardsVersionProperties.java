@@ -0,0 +1,17 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "rewards-versions")
+@Data
+public class RewardsVersionProperties {
+
+    // Responses computed this soon after a write are sent without an ETag, since the projection
+    // may not have applied the write yet; secondary reads extend this to mongo.read-routing.max-staleness
+    private Duration settleTime = Duration.ofSeconds(5);
+}
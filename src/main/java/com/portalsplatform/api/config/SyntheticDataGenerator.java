@@ -0,0 +1,235 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.portalsplatform.api.model.Customer;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.service.RewardsVersions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk loads a deterministic synthetic dataset for scale and regression testing.
+ * <p>
+ * Run with the generate profile, for example:
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.profiles=generate \
+ *     -Dspring-boot.run.arguments="--generator.customers=100000 --generator.transactions=10000000 --generator.clean=true"
+ * </pre>
+ * Customers are split into contiguous ranges, one per writer thread, and each range draws from
+ * its own seeded random stream, so the data does not depend on thread scheduling. Writes are
+ * unordered insertMany batches of documents produced by the regular mapping converter. They bypass
+ * the mapping events, so every rewards version is bumped once the load ends, failed or not.
+ */
+@Configuration
+@Profile("generate")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator {
+
+    private final MongoTemplate mongoTemplate;
+    private final GeneratorProperties properties;
+    private final RewardsVersions rewardsVersions;
+
+    @Bean
+    CommandLineRunner generateDataset(ApplicationContext context) {
+        return args -> {
+            generate();
+            System.exit(SpringApplication.exit(context, () -> 0));
+        };
+    }
+
+    void generate() throws Exception {
+        int customers = properties.getCustomers();
+        long transactions = properties.getTransactions();
+        log.info("Generating {} customers and {} transactions (seed {}, {} writer threads)",
+                customers, transactions, properties.getSeed(), properties.getWriterThreads());
+
+        if (properties.isClean()) {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class)).deleteMany(new Document());
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class)).deleteMany(new Document());
+        }
+
+        ActivityPlan plan = new ActivityPlan(customers, transactions, properties.getZipfExponent());
+        ZipfSampler amounts = new ZipfSampler(properties.getMaxAmount(), properties.getAmountZipfExponent());
+        AtomicLong written = new AtomicLong();
+        long started = System.nanoTime();
+
+        int threads = Math.max(1, Math.min(properties.getWriterThreads(), customers));
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> partitions = new ArrayList<>();
+            for (int p = 0; p < threads; p++) {
+                int from = (int) ((long) customers * p / threads);
+                int to = (int) ((long) customers * (p + 1) / threads);
+                long seed = properties.getSeed() + p;
+                partitions.add(writers.submit(() -> {
+                    writePartition(from, to, new Random(seed), plan, amounts, written, started);
+                    return null;
+                }));
+            }
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+        } finally {
+            writers.shutdownNow();
+            rewardsVersions.bumpAll();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Generated {} transactions in {} s ({} docs/s)",
+                written.get(), String.format("%.1f", seconds), String.format("%.0f", written.get() / seconds));
+    }
+
+    private void writePartition(int from, int to, Random random, ActivityPlan plan, ZipfSampler amounts,
+                                AtomicLong written, long started) {
+        MongoCollection<Document> customerCollection =
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class));
+        MongoCollection<Document> transactionCollection =
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class));
+        InsertManyOptions unordered = new InsertManyOptions().ordered(false);
+        int batchSize = properties.getBatchSize();
+
+        LocalDateTime end = (properties.getAnchorDate() != null ? properties.getAnchorDate() : LocalDate.now())
+                .atStartOfDay();
+        long spanSeconds = ChronoUnit.SECONDS.between(end.minusYears(properties.getYears()), end);
+
+        List<Document> customerBatch = new ArrayList<>(batchSize);
+        List<Document> transactionBatch = new ArrayList<>(batchSize);
+        for (int index = from; index < to; index++) {
+            String customerId = String.format("GEN%08d", index);
+            customerBatch.add(toDocument(new Customer(customerId, "Customer", String.valueOf(index),
+                    customerId.toLowerCase() + "@generated.test")));
+            if (customerBatch.size() == batchSize) {
+                customerCollection.insertMany(customerBatch, unordered);
+                customerBatch.clear();
+            }
+
+            long count = plan.transactionsFor(index);
+            for (long t = 0; t < count; t++) {
+                BigDecimal amount = BigDecimal.valueOf(amounts.sample(random) * 100L + random.nextInt(100), 2);
+                LocalDateTime date = end.minusSeconds((long) (random.nextDouble() * spanSeconds));
+                transactionBatch.add(toDocument(new Transaction(
+                        customerId + "-" + t, customerId, amount, date, "Generated purchase")));
+                if (transactionBatch.size() == batchSize) {
+                    flush(transactionCollection, transactionBatch, unordered, written, started);
+                }
+            }
+        }
+        if (!customerBatch.isEmpty()) {
+            customerCollection.insertMany(customerBatch, unordered);
+        }
+        if (!transactionBatch.isEmpty()) {
+            flush(transactionCollection, transactionBatch, unordered, written, started);
+        }
+    }
+
+    private void flush(MongoCollection<Document> collection, List<Document> batch, InsertManyOptions options,
+                       AtomicLong written, long started) {
+        collection.insertMany(batch, options);
+        long total = written.addAndGet(batch.size());
+        long previous = total - batch.size();
+        if (total / 1_000_000 != previous / 1_000_000) {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            log.info("  ... {} transactions written ({} docs/s)", total, String.format("%.0f", total / seconds));
+        }
+        batch.clear();
+    }
+
+    private Document toDocument(Object entity) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        return document;
+    }
+
+    /**
+     * Splits the transaction total across customers in proportion to a Zipf weight on their index,
+     * so a few customers are very active and most are not. Rounding remainders go to the most
+     * active customers so the total is exact.
+     */
+    static final class ActivityPlan {
+
+        private final long transactions;
+        private final double exponent;
+        private final double harmonic;
+        private final long remainder;
+
+        ActivityPlan(int customers, long transactions, double exponent) {
+            this.transactions = transactions;
+            this.exponent = exponent;
+            double sum = 0;
+            for (int k = 1; k <= customers; k++) {
+                sum += Math.pow(k, -exponent);
+            }
+            this.harmonic = sum;
+            long assigned = 0;
+            for (int index = 0; index < customers; index++) {
+                assigned += base(index);
+            }
+            this.remainder = transactions - assigned;
+        }
+
+        long transactionsFor(int index) {
+            return base(index) + (index < remainder ? 1 : 0);
+        }
+
+        private long base(int index) {
+            return (long) Math.floor(transactions * Math.pow(index + 1, -exponent) / harmonic);
+        }
+    }
+
+    /**
+     * Inverse-CDF sampler over 1..n with P(k) proportional to k^-s.
+     */
+    static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += Math.pow(k, -exponent);
+                cumulative[k - 1] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low + 1;
+        }
+    }
+}
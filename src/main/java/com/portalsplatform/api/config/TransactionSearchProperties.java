@@ -0,0 +1,27 @@
+package com.portalsplatform.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "transaction-search")
+@Data
+public class TransactionSearchProperties {
+
+    private int defaultPageSize = 20;
+
+    // Larger requested pages are cut to this
+    private int maxPageSize = 100;
+
+    // Convert amounts written as strings before amount was mapped to Decimal128, in the background until done
+    private boolean migrateAmounts = true;
+
+    // Transactions converted per batch; each batch records its progress
+    private int migrationBatchSize = 1_000;
+
+    // Wait before retrying a failed batch
+    private Duration migrationRetryBackoff = Duration.ofMinutes(1);
+}
@@ -0,0 +1,76 @@
+package com.portalsplatform.api.controller;
+
+import com.portalsplatform.api.config.Bulkheads;
+import com.portalsplatform.api.config.RequestDeadline;
+import com.portalsplatform.api.model.dto.ProgramAnalyticsResponse;
+import com.portalsplatform.api.service.ProgramAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/rewards")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Analytics", description = "Program-wide rewards analytics")
+public class AnalyticsController {
+
+    private final ProgramAnalyticsService analyticsService;
+    private final Bulkheads bulkheads;
+
+    /**
+     * Get program-wide KPIs for a month
+     * GET /api/rewards/analytics/{month}
+     * Month format: "2024-01"
+     */
+    @Operation(summary = "Get monthly program analytics",
+               description = "Returns points issued, active customers and the points distribution for a month")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully calculated analytics"),
+        @ApiResponse(responseCode = "400", description = "Bad request - invalid month format"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Rewards bulkhead full or timed out"),
+        @ApiResponse(responseCode = "504", description = "Request deadline exceeded")
+    })
+    @GetMapping("/analytics/{month}")
+    public CompletableFuture<ResponseEntity<ProgramAnalyticsResponse>> getMonthlyAnalytics(
+            @Parameter(description = "Month in YYYY-MM format", example = "2024-09")
+            @PathVariable String month) {
+
+        return bulkheads.rewards(() -> {
+            log.debug("Request received: GET /api/rewards/analytics/{}", month);
+
+            try {
+                if (!month.matches("\\d{4}-\\d{2}")) {
+                    log.error("Invalid month format: {}", month);
+                    return ResponseEntity.badRequest().build();
+                }
+
+                return ResponseEntity.ok(analyticsService.monthlyAnalytics(YearMonth.parse(month)));
+            } catch (DateTimeParseException e) {
+                log.error("Invalid month: {}", month);
+                return ResponseEntity.badRequest().build();
+            } catch (Exception e) {
+                if (RequestDeadline.isExceeded(e)) {
+                    log.warn("Request deadline exceeded for analytics of {}", month);
+                    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+                }
+                log.error("Error calculating analytics for month: {}", month, e);
+                return ResponseEntity.internalServerError().build();
+            }
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package com.portalsplatform.api.controller;
 
+import com.portalsplatform.api.config.Bulkheads;
 import com.portalsplatform.api.model.Customer;
 import com.portalsplatform.api.repository.CustomerRepository;
+import com.portalsplatform.api.service.CustomerIndex;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -12,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/customers")
 @RequiredArgsConstructor
@@ -21,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 public class CustomerController {
 
     private final CustomerRepository customerRepository;
+    private final CustomerIndex customerIndex;
+    private final Bulkheads bulkheads;
 
     @Operation(summary = "Create a new customer",
                description = "Creates a new customer in the rewards program")
@@ -29,18 +35,22 @@ public class CustomerController {
         @ApiResponse(responseCode = "400", description = "Bad request - invalid customer data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
         @ApiResponse(responseCode = "409", description = "Customer with that ID already exists"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Write bulkhead full or timed out")
     })
     @PostMapping
-    public ResponseEntity<?> createCustomer(@RequestBody Customer customer) {
-        log.info("Creating customer: {}", customer.getCustomerId());
+    public CompletableFuture<ResponseEntity<?>> createCustomer(@RequestBody Customer customer) {
+        return bulkheads.write(() -> {
+            log.info("Creating customer: {}", customer.getCustomerId());
 
-        if (customerRepository.existsByCustomerId(customer.getCustomerId())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Customer with that ID already exists");
-        }
+            if (customerIndex.exists(customer.getCustomerId())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Customer with that ID already exists");
+            }
 
-        Customer savedCustomer = customerRepository.save(customer);
-        log.info("Customer created: {}", savedCustomer.getCustomerId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedCustomer);
+            Customer savedCustomer = customerRepository.save(customer);
+            customerIndex.added(savedCustomer.getCustomerId());
+            log.info("Customer created: {}", savedCustomer.getCustomerId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedCustomer);
+        });
     }
 }
@@ -0,0 +1,61 @@
+package com.portalsplatform.api.controller;
+
+import com.portalsplatform.api.model.dto.LeaderboardResponse;
+import com.portalsplatform.api.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/rewards")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Leaderboard", description = "Program-wide points rankings")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Get the top customers by points
+     * GET /api/rewards/leaderboard?month=2024-09&limit=10
+     */
+    @Operation(summary = "Get the points leaderboard",
+               description = "Returns the top customers by points earned, for all time or for a single month")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved leaderboard"),
+        @ApiResponse(responseCode = "400", description = "Bad request - invalid month or limit"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(
+            @Parameter(description = "Month in YYYY-MM format; omit for all time", example = "2024-09")
+            @RequestParam(required = false) String month,
+            @Parameter(description = "Number of customers to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.debug("Request received: GET /api/rewards/leaderboard?month={}&limit={}", month, limit);
+
+        try {
+            if (month != null && !month.matches("\\d{4}-\\d{2}")) {
+                log.error("Invalid month format: {}", month);
+                return ResponseEntity.badRequest().build();
+            }
+
+            return ResponseEntity.ok(leaderboardService.top(month, limit));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error retrieving leaderboard", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
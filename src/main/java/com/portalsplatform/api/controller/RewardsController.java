@@ -1,7 +1,17 @@
 package com.portalsplatform.api.controller;
 
+import com.portalsplatform.api.model.dto.MonthlySeriesResponse;
+import com.portalsplatform.api.model.dto.RewardsField;
 import com.portalsplatform.api.model.dto.RewardsResponse;
+import com.portalsplatform.api.config.Bulkheads;
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.MongoCircuitBreaker;
+import com.portalsplatform.api.config.RequestDeadline;
+import com.portalsplatform.api.service.ClosedMonthRewards;
+import com.portalsplatform.api.service.LastKnownRewards;
 import com.portalsplatform.api.service.RewardsService;
+import com.portalsplatform.api.service.RewardsVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,10 +19,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -22,6 +45,17 @@ import java.util.NoSuchElementException;
 @Tag(name = "Rewards", description = "Customer rewards calculation endpoints")
 public class RewardsController {
     private final RewardsService rewardsService;
+    private final RewardsVersions rewardsVersions;
+    private final ClosedMonthRewards closedMonthRewards;
+    private final ClosedMonthProperties closedMonthProperties;
+    private final Bulkheads bulkheads;
+
+    static final String STALE_HEADER = "X-Rewards-Stale";
+
+    private static final String SHAPE_DESCRIPTION = "Response shape: 'map' (month -> points) or 'series' "
+            + "(startMonth plus one points slot per month, zeros included)";
+    private static final String FIELDS_DESCRIPTION = "Comma-separated fields to return, e.g. 'customerId,totalPoints'; "
+            + "all fields when omitted";
 
     /**
      * Get total rewards for a customer
@@ -31,27 +65,53 @@ public class RewardsController {
                description = "Calculates and returns all-time rewards points for a specific customer")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully calculated rewards"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Bad request - unknown shape or field"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
         @ApiResponse(responseCode = "404", description = "Customer not found"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Rewards bulkhead full or timed out, or MongoDB unavailable with no recent response to fall back on"),
+        @ApiResponse(responseCode = "504", description = "Request deadline exceeded")
     })
     @GetMapping("/{customerId}/rewards")
-    public ResponseEntity<RewardsResponse> getTotalRewards(
+    public CompletableFuture<ResponseEntity<?>> getTotalRewards(
             @Parameter(description = "Customer ID", example = "CUST001")
-            @PathVariable String customerId) {
+            @PathVariable String customerId,
+            @Parameter(description = SHAPE_DESCRIPTION, example = "map")
+            @RequestParam(defaultValue = "map") String shape,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "customerId,totalPoints")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
 
-        log.info("Request received: GET /api/customers/{}/rewards", customerId);
+        return bulkheads.rewards(() -> {
+            log.debug("Request received: GET /api/customers/{}/rewards", customerId);
 
-        try {
-            RewardsResponse response = rewardsService.calculateTotalRewards(customerId);
-            return ResponseEntity.ok(response);
-        } catch (NoSuchElementException e) {
-            log.error("Customer not found: {}", customerId);
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            log.error("Error calculating rewards for customer: {}", customerId, e);
-            return ResponseEntity.internalServerError().build();
-        }
+            try {
+                Function<RewardsResponse, ?> shaper = shaper(shape, MonthlySeriesResponse::of);
+                Set<RewardsField> selected = fields != null ? RewardsField.parse(fields) : null;
+                return conditional(customerId, null, null, request,
+                        () -> shaper.apply(selected != null
+                                ? rewardsService.calculateTotalRewards(customerId, selected)
+                                : rewardsService.calculateTotalRewards(customerId)));
+            } catch (NoSuchElementException e) {
+                log.error("Customer not found: {}", customerId);
+                return ResponseEntity.notFound().build();
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid request: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            } catch (Exception e) {
+                if (RequestDeadline.isExceeded(e)) {
+                    log.warn("Request deadline exceeded for customer {}", customerId);
+                    return deadlineExceeded();
+                }
+                if (MongoCircuitBreaker.isUnavailable(e)) {
+                    log.warn("MongoDB unavailable for customer {}: {}", customerId, e.getMessage());
+                    return unavailable();
+                }
+                log.error("Error calculating rewards for customer: {}", customerId, e);
+                return ResponseEntity.internalServerError().build();
+            }
+        });
     }
 
     /**
@@ -63,39 +123,66 @@ public class RewardsController {
                description = "Calculates and returns rewards points for a specific month")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully calculated monthly rewards"),
-        @ApiResponse(responseCode = "400", description = "Bad request - invalid month format"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Bad request - invalid month format or field"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
         @ApiResponse(responseCode = "404", description = "Customer not found"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Rewards bulkhead full or timed out, or MongoDB unavailable with no recent response to fall back on"),
+        @ApiResponse(responseCode = "504", description = "Request deadline exceeded")
     })
     @GetMapping("/{customerId}/rewards/{month}")
-    public ResponseEntity<RewardsResponse> getMonthlyRewards(
+    public CompletableFuture<ResponseEntity<?>> getMonthlyRewards(
             @Parameter(description = "Customer ID", example = "CUST001")
             @PathVariable String customerId,
             @Parameter(description = "Month in YYYY-MM format", example = "2024-09")
-            @PathVariable String month) {
+            @PathVariable String month,
+            @Parameter(description = SHAPE_DESCRIPTION, example = "map")
+            @RequestParam(defaultValue = "map") String shape,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "customerId,totalPoints")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
 
-        log.info("Request received: GET /api/customers/{}/rewards/{}", customerId, month);
+        return bulkheads.rewards(() -> {
+            log.debug("Request received: GET /api/customers/{}/rewards/{}", customerId, month);
 
-        try {
-            // Basic format validation
-            if (!month.matches("\\d{4}-\\d{2}")) {
-                log.error("Invalid month format: {}", month);
+            try {
+                // Basic format validation
+                if (!month.matches("\\d{4}-\\d{2}")) {
+                    log.error("Invalid month format: {}", month);
+                    return ResponseEntity.badRequest().build();
+                }
+
+                YearMonth ym = YearMonth.parse(month);
+                Function<RewardsResponse, ?> shaper = shaper(shape, rewards -> MonthlySeriesResponse.of(rewards, ym, ym));
+                Set<RewardsField> selected = fields != null ? RewardsField.parse(fields) : null;
+                // Closed months only change through backdated transactions, so clients may keep them
+                CacheControl cacheControl = closedMonthRewards.isClosed(ym)
+                        ? CacheControl.maxAge(closedMonthProperties.getMaxAge()).cachePrivate().immutable()
+                        : null;
+                return conditional(customerId, null, cacheControl, request,
+                        () -> shaper.apply(selected != null
+                                ? rewardsService.calculateMonthlyRewards(customerId, month, selected)
+                                : rewardsService.calculateMonthlyRewards(customerId, month)));
+            } catch (NoSuchElementException e) {
+                log.error("Customer not found: {}", customerId);
+                return ResponseEntity.notFound().build();
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                log.error("Invalid request: {}", e.getMessage());
                 return ResponseEntity.badRequest().build();
+            } catch (Exception e) {
+                if (RequestDeadline.isExceeded(e)) {
+                    log.warn("Request deadline exceeded for customer {}", customerId);
+                    return deadlineExceeded();
+                }
+                if (MongoCircuitBreaker.isUnavailable(e)) {
+                    log.warn("MongoDB unavailable for customer {}: {}", customerId, e.getMessage());
+                    return unavailable();
+                }
+                log.error("Error calculating monthly rewards", e);
+                return ResponseEntity.internalServerError().build();
             }
-
-            RewardsResponse response = rewardsService.calculateMonthlyRewards(customerId, month);
-            return ResponseEntity.ok(response);
-        } catch (NoSuchElementException e) {
-            log.error("Customer not found: {}", customerId);
-            return ResponseEntity.notFound().build();
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid request: {}", e.getMessage());
-            return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            log.error("Error calculating monthly rewards", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        });
     }
 
     /**
@@ -106,33 +193,161 @@ public class RewardsController {
                description = "Calculates and returns rewards points for the last N months")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully calculated recent rewards"),
-        @ApiResponse(responseCode = "400", description = "Bad request - invalid months parameter"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Bad request - invalid months parameter or field"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
         @ApiResponse(responseCode = "404", description = "Customer not found"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Rewards bulkhead full or timed out, or MongoDB unavailable with no recent response to fall back on"),
+        @ApiResponse(responseCode = "504", description = "Request deadline exceeded")
     })
     @GetMapping("/{customerId}/rewards/recent")
-    public ResponseEntity<RewardsResponse> getRecentRewards(
+    public CompletableFuture<ResponseEntity<?>> getRecentRewards(
             @Parameter(description = "Customer ID", example = "CUST001")
             @PathVariable String customerId,
             @Parameter(description = "Number of months to look back (1-36)", example = "3")
-            @RequestParam(defaultValue = "3") int months) {
+            @RequestParam(defaultValue = "3") int months,
+            @Parameter(description = SHAPE_DESCRIPTION, example = "map")
+            @RequestParam(defaultValue = "map") String shape,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "customerId,totalPoints")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
 
-        log.info("Request received: GET /api/customers/{}/rewards/recent?months={}",
-                customerId, months);
+        return bulkheads.rewards(() -> {
+            log.debug("Request received: GET /api/customers/{}/rewards/recent?months={}",
+                    customerId, months);
 
+            try {
+                // The window moves with the calendar, so the current month is part of the ETag
+                YearMonth current = YearMonth.now();
+                Function<RewardsResponse, ?> shaper = shaper(shape,
+                        rewards -> MonthlySeriesResponse.of(rewards, current.minusMonths(months), current));
+                Set<RewardsField> selected = fields != null ? RewardsField.parse(fields) : null;
+                return conditional(customerId, current.toString(), null, request,
+                        () -> shaper.apply(selected != null
+                                ? rewardsService.calculateRewardsForLastMonths(customerId, months, selected)
+                                : rewardsService.calculateRewardsForLastMonths(customerId, months)));
+            } catch (NoSuchElementException e) {
+                log.error("Customer not found: {}", customerId);
+                return ResponseEntity.notFound().build();
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid request: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            } catch (Exception e) {
+                if (RequestDeadline.isExceeded(e)) {
+                    log.warn("Request deadline exceeded for customer {}", customerId);
+                    return deadlineExceeded();
+                }
+                if (MongoCircuitBreaker.isUnavailable(e)) {
+                    log.warn("MongoDB unavailable for customer {}: {}", customerId, e.getMessage());
+                    return unavailable();
+                }
+                log.error("Error calculating recent rewards", e);
+                return ResponseEntity.internalServerError().build();
+            }
+        });
+    }
+
+    /**
+     * Answer with 304 if the client's ETag matches the customer's current rewards version,
+     * otherwise compute the response and tag it with that version. The version is read first,
+     * so a write racing the computation leaves the ETag behind the body, never ahead of it.
+     * A response served stale by {@link LastKnownRewards} is never tagged; see {@link #stale}.
+     * <p>
+     * The tag is weak: the JSON, CBOR, Smile and Protobuf encodings of a version share it, since
+     * they carry the same rewards but are not byte-for-byte equal.
+     */
+    private <T> ResponseEntity<T> conditional(String customerId, String variant, CacheControl cacheControl,
+                                              WebRequest request, Supplier<T> response) {
+        RewardsVersions.Version version;
         try {
-            RewardsResponse response = rewardsService.calculateRewardsForLastMonths(customerId, months);
-            return ResponseEntity.ok(response);
-        } catch (NoSuchElementException e) {
-            log.error("Customer not found: {}", customerId);
-            return ResponseEntity.notFound().build();
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid months parameter: {}", months);
-            return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            log.error("Error calculating recent rewards", e);
-            return ResponseEntity.internalServerError().build();
+            version = rewardsVersions.current(customerId);
+        } catch (DataAccessException e) {
+            if (!MongoCircuitBreaker.isUnavailable(e)) {
+                throw e;
+            }
+            // Still worth computing: the rewards may be answered from the last good response
+            version = null;
+        }
+        if (version == null || !rewardsVersions.isSettled(version)) {
+            // Untagged while the version cannot be read, or while the read paths may still be missing the last write
+            T body = response.get();
+            Duration staleness = LastKnownRewards.requestStaleness();
+            if (staleness != null) {
+                return stale(staleness, body);
+            }
+            return cached(ResponseEntity.ok(), cacheControl).body(body);
+        }
+        CallContext context = CallContext.current();
+        if (context != null) {
+            context.setRewardsVersion(version.value());
         }
+        String etag = variant != null ? "W/\"" + version.value() + "-" + variant + "\"" : "W/\"" + version.value() + "\"";
+        if (matchesIfNoneMatch(request, etag)) {
+            return cached(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag), cacheControl).build();
+        }
+        T body = response.get();
+        Duration staleness = LastKnownRewards.requestStaleness();
+        if (staleness != null) {
+            return stale(staleness, body);
+        }
+        return cached(ResponseEntity.ok().eTag(etag), cacheControl).body(body);
+    }
+
+    /**
+     * Matched by hand rather than with {@link WebRequest#checkNotModified}, which puts the ETag on
+     * the response straight away and would leave it on a body that then turns out to be stale.
+     */
+    private static boolean matchesIfNoneMatch(WebRequest request, String etag) {
+        String[] headers = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headers == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        for (String header : headers) {
+            for (ETag candidate : ETag.parse(header)) {
+                if (candidate.isWildcard() || candidate.compare(current, false)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A last good response served while MongoDB is unavailable: no ETag, so it can never be
+     * revalidated into a 304 later, not to be reused by caches, and labelled with its age.
+     */
+    private static <T> ResponseEntity<T> stale(Duration staleness, T body) {
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.AGE, Long.toString(staleness.toSeconds()))
+                .header(STALE_HEADER, "true")
+                .body(body);
+    }
+
+    private static <T> ResponseEntity<T> deadlineExceeded() {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+    }
+
+    private static <T> ResponseEntity<T> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+    }
+
+    private static ResponseEntity.BodyBuilder cached(ResponseEntity.BodyBuilder builder, CacheControl cacheControl) {
+        // Several encodings share one weak ETag (see ResponseFormatConfig), so caches must key on Accept too
+        builder.varyBy(HttpHeaders.ACCEPT);
+        return cacheControl != null ? builder.cacheControl(cacheControl) : builder;
+    }
+
+    private static Function<RewardsResponse, ?> shaper(String shape, Function<RewardsResponse, MonthlySeriesResponse> series) {
+        return switch (shape) {
+            case "map" -> Function.identity();
+            case "series" -> series;
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        };
     }
 }
@@ -1,8 +1,13 @@
 package com.portalsplatform.api.controller;
 
+import com.portalsplatform.api.config.Bulkheads;
+import com.portalsplatform.api.config.ReadRouting;
+import com.portalsplatform.api.config.RequestDeadline;
 import com.portalsplatform.api.model.Transaction;
-import com.portalsplatform.api.repository.CustomerRepository;
+import com.portalsplatform.api.model.dto.TransactionSearchResponse;
 import com.portalsplatform.api.repository.TransactionRepository;
+import com.portalsplatform.api.service.CustomerIndex;
+import com.portalsplatform.api.service.TransactionSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,6 +20,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +29,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
@@ -34,7 +41,10 @@ import java.util.UUID;
 public class TransactionController {
 
     private final TransactionRepository transactionRepository;
-    private final CustomerRepository customerRepository;
+    private final CustomerIndex customerIndex;
+    private final ReadRouting readRouting;
+    private final Bulkheads bulkheads;
+    private final TransactionSearchService transactionSearchService;
 
     /**
      * Create a new transaction (for demo/testing)
@@ -47,43 +57,52 @@ public class TransactionController {
         @ApiResponse(responseCode = "400", description = "Bad request - invalid transaction data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
         @ApiResponse(responseCode = "404", description = "Customer not found"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Write bulkhead full or timed out")
     })
     @PostMapping
-    public ResponseEntity<?> createTransaction(@RequestBody TransactionRequest request) {
-        log.info("Creating transaction for customer: {} amount: ${}",
-                request.customerId(), request.amount());
-
-        // Validate customer exists
-        if (!customerRepository.existsByCustomerId(request.customerId())) {
-            log.error("Customer not found: {}", request.customerId());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body("Customer not found: " + request.customerId());
-        }
-
-        // Validate amount
-        if (request.amount() == null || request.amount().compareTo(BigDecimal.ZERO) <= 0) {
-            return ResponseEntity.badRequest()
-                    .body("Amount must be greater than zero");
-        }
-
-        // Create transaction
-        String transactionId = "TXN" + UUID.randomUUID().toString()
-                .substring(0, 8).toUpperCase();
-
-        Transaction transaction = new Transaction(
-                transactionId,
-                request.customerId(),
-                request.amount(),
-                LocalDateTime.now(),
-                request.description() != null ? request.description() : "Manual transaction"
-        );
-
-        Transaction saved = transactionRepository.save(transaction);
-        log.info("Transaction created: {} with {} points",
-                saved.getTransactionId(), saved.getPointsEarned());
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    public CompletableFuture<ResponseEntity<?>> createTransaction(@RequestBody TransactionRequest request) {
+        return bulkheads.write(() -> {
+            log.debug("Creating transaction for customer: {} amount: ${}",
+                    request.customerId(), request.amount());
+
+            // Validate customer exists
+            if (!customerIndex.exists(request.customerId())) {
+                log.error("Customer not found: {}", request.customerId());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Customer not found: " + request.customerId());
+            }
+
+            // Validate amount
+            if (request.amount() == null || request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+                return ResponseEntity.badRequest()
+                        .body("Amount must be greater than zero");
+            }
+
+            // Create transaction
+            String transactionId = "TXN" + UUID.randomUUID().toString()
+                    .substring(0, 8).toUpperCase();
+
+            Transaction transaction = new Transaction(
+                    transactionId,
+                    request.customerId(),
+                    request.amount(),
+                    LocalDateTime.now(),
+                    request.description() != null ? request.description() : "Manual transaction"
+            );
+
+            ReadRouting.Tracked<Transaction> tracked = readRouting.tracked(() -> transactionRepository.save(transaction));
+            Transaction saved = tracked.value();
+            log.debug("Transaction created: {} with {} points",
+                    saved.getTransactionId(), saved.getPointsEarned());
+
+            // Clients echo the token on later reads to see this write even from a secondary
+            ResponseEntity.BodyBuilder created = ResponseEntity.status(HttpStatus.CREATED);
+            if (tracked.sessionToken() != null) {
+                created.header(ReadRouting.SESSION_TOKEN_HEADER, tracked.sessionToken());
+            }
+            return created.body(saved);
+        });
     }
 
     /**
@@ -96,10 +115,11 @@ public class TransactionController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved transactions"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
         @ApiResponse(responseCode = "404", description = "Customer not found"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Lookup bulkhead full or timed out")
     })
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Transaction>> getCustomerTransactions(
+    public CompletableFuture<ResponseEntity<List<Transaction>>> getCustomerTransactions(
             @Parameter(description = "Customer ID", example = "CUST001")
             @PathVariable String customerId,
             @Parameter(description = "Page number (0-based)", example = "0")
@@ -107,13 +127,74 @@ public class TransactionController {
             @Parameter(description = "Page size (max 100)", example = "20")
             @RequestParam(defaultValue = "20") int size) {
 
-        log.info("Fetching transactions for customer: {} (page: {}, size: {})", 
-                customerId, page, size);
+        return bulkheads.lookup(() -> {
+            log.debug("Fetching transactions for customer: {} (page: {}, size: {})", 
+                    customerId, page, size);
+
+            return readRouting.secondary(() -> {
+                if (!customerIndex.exists(customerId)) {
+                    return ResponseEntity.notFound().build();
+                }
+                return findCustomerTransactions(customerId, page, size);
+            });
+        });
+    }
 
-        if (!customerRepository.existsByCustomerId(customerId)) {
-            return ResponseEntity.notFound().build();
-        }
+    /**
+     * Search all transactions, newest first, a page at a time
+     * GET /api/transactions/search?q=refund&minAmount=100&from=2024-01-01T00:00:00&size=20&cursor=...
+     */
+    @Operation(summary = "Search transactions",
+               description = "Finds transactions by description text, amount range and date range, newest first. "
+                       + "Pass nextCursor from a response as cursor to get the following page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched transactions"),
+        @ApiResponse(responseCode = "400", description = "Bad request - inverted range or invalid cursor"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid API key"),
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Lookup bulkhead full or timed out"),
+        @ApiResponse(responseCode = "504", description = "Request deadline exceeded")
+    })
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<?>> searchTransactions(
+            @Parameter(description = "Words to match in the description", example = "refund")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Minimum amount, inclusive", example = "50.00")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount, inclusive", example = "500.00")
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Earliest transaction date, inclusive", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest transaction date, inclusive", example = "2024-12-31T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "nextCursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(required = false) Integer size) {
+
+        return bulkheads.lookup(() -> {
+            log.debug("Searching transactions: q={} amount=[{}, {}] date=[{}, {}]", q, minAmount, maxAmount, from, to);
+
+            try {
+                TransactionSearchService.Filter filter =
+                        new TransactionSearchService.Filter(q, minAmount, maxAmount, from, to);
+                TransactionSearchResponse response =
+                        readRouting.secondary(() -> transactionSearchService.search(filter, cursor, size));
+                return ResponseEntity.ok(response);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            } catch (Exception e) {
+                if (RequestDeadline.isExceeded(e)) {
+                    log.warn("Request deadline exceeded for transaction search");
+                    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+                }
+                log.error("Error searching transactions", e);
+                return ResponseEntity.internalServerError().build();
+            }
+        });
+    }
 
+    private ResponseEntity<List<Transaction>> findCustomerTransactions(String customerId, int page, int size) {
         // Limit page size to prevent excessive data retrieval
         int limitedSize = Math.min(size, 100);
         Pageable pageable = PageRequest.of(page, limitedSize, 
@@ -124,7 +205,7 @@ public class TransactionController {
 
         // For simplicity, we'll return all transactions for now
         // In production, you'd implement paginated repository method
-        log.info("Found {} transactions for customer {}",
+        log.debug("Found {} transactions for customer {}",
                 transactions.size(), customerId);
 
         return ResponseEntity.ok(transactions);
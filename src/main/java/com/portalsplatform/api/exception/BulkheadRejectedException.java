@@ -0,0 +1,18 @@
+package com.portalsplatform.api.exception;
+
+import lombok.Getter;
+
+/**
+ * A call was not served by its bulkhead, either because the queue was full or because it did
+ * not finish within the bulkhead timeout. Answered with 503 and {@code Retry-After}.
+ */
+@Getter
+public class BulkheadRejectedException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public BulkheadRejectedException(String bulkhead, String reason) {
+        super("Bulkhead '" + bulkhead + "' " + reason);
+        this.bulkhead = bulkhead;
+    }
+}
@@ -0,0 +1,14 @@
+package com.portalsplatform.api.exception;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * A repository call was refused without reaching Mongo because the circuit breaker is open.
+ * A {@link DataAccessResourceFailureException}, so it is handled like Mongo being unreachable.
+ */
+public class CircuitOpenException extends DataAccessResourceFailureException {
+
+    public CircuitOpenException() {
+        super("MongoDB circuit breaker is open");
+    }
+}
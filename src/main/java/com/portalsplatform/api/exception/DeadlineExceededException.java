@@ -0,0 +1,13 @@
+package com.portalsplatform.api.exception;
+
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * The request's deadline passed before its work was done. Answered with 504.
+ */
+public class DeadlineExceededException extends QueryTimeoutException {
+
+    public DeadlineExceededException(String where) {
+        super("Request deadline exceeded " + where);
+    }
+}
@@ -0,0 +1,177 @@
+package com.portalsplatform.api.metrics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.portalsplatform.api.config.AccessLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structured access log for {@code /api} requests, kept off the request thread.
+ * <p>
+ * {@link #record} logs every error (status 400 and up) and every request slower than
+ * {@code access-log.slow-threshold}; other requests are sampled at the rate of the first matching
+ * {@code access-log.routes} pattern. Entries go into a bounded ring buffer; a single writer thread
+ * drains it and writes each entry as one JSON line to the {@value #LOGGER} logger. When the buffer
+ * is full the entry is dropped and counted rather than making the request wait.
+ * <p>
+ * Counted in {@code rewards.access_log.events{result=queued|sampled_out|dropped}}, with the buffer
+ * depth in {@code rewards.access_log.queued}.
+ */
+@Component
+public class AccessLog implements DisposableBean {
+
+    public static final String LOGGER = "access";
+
+    private static final Logger ACCESS = LoggerFactory.getLogger(LOGGER);
+    private static final int BATCH = 256;
+
+    private final AccessLogProperties properties;
+    private final long slowNanos;
+    private final BlockingQueue<Entry> queue;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Double> rateByRoute = new ConcurrentHashMap<>();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Counter queued;
+    private final Counter sampledOut;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AccessLog(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, true);
+    }
+
+    AccessLog(AccessLogProperties properties, MeterRegistry meterRegistry, boolean startWriter) {
+        this.properties = properties;
+        this.slowNanos = properties.getSlowThreshold().toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.queued = events(meterRegistry, "queued");
+        this.sampledOut = events(meterRegistry, "sampled_out");
+        this.dropped = events(meterRegistry, "dropped");
+        Gauge.builder("rewards.access_log.queued", queue, BlockingQueue::size)
+                .description("Access log entries waiting for the writer thread")
+                .register(meterRegistry);
+        this.writer = new Thread(this::drain, "access-log-writer");
+        this.writer.setDaemon(true);
+        if (startWriter) {
+            writer.start();
+        }
+    }
+
+    /**
+     * @param route the matched handler pattern, e.g. {@code /api/customers/{customerId}/rewards}, or null
+     * @return true if the entry was queued for writing
+     */
+    public boolean record(String method, String path, String route, int status, long durationNanos) {
+        String reason = status >= 400 ? "error" : durationNanos >= slowNanos ? "slow" : "sampled";
+        if (reason.equals("sampled")) {
+            double rate = route != null ? rateByRoute.computeIfAbsent(route, this::sampleRate) : sampleRate(path);
+            if (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) {
+                sampledOut.increment();
+                return false;
+            }
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), method, path, route, status, durationNanos, reason);
+        if (!queue.offer(entry)) {
+            dropped.increment();
+            return false;
+        }
+        queued.increment();
+        return true;
+    }
+
+    private double sampleRate(String path) {
+        for (Map.Entry<String, Double> route : properties.getRoutes().entrySet()) {
+            if (pathMatcher.match(route.getKey(), path)) {
+                return route.getValue();
+            }
+        }
+        return properties.getDefaultSampleRate();
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH - 1);
+            } catch (InterruptedException e) {
+                // Shutting down: write whatever is left
+                queue.drainTo(batch);
+                running = false;
+            }
+            for (Entry entry : batch) {
+                ACCESS.info(toJson(entry));
+            }
+            batch.clear();
+        }
+    }
+
+    String toJson(Entry entry) {
+        StringWriter out = new StringWriter(192);
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("@timestamp", Instant.ofEpochMilli(entry.timestampMillis()).toString());
+            json.writeStringField("method", entry.method());
+            json.writeStringField("path", entry.path());
+            if (entry.route() != null) {
+                json.writeStringField("route", entry.route());
+            }
+            json.writeNumberField("status", entry.status());
+            json.writeNumberField("duration_ms", entry.durationNanos() / 1_000_000.0);
+            json.writeStringField("reason", entry.reason());
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("rewards.access_log.events")
+                .description("Access log entries queued, skipped by sampling, or dropped on a full buffer")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    record Entry(long timestampMillis, String method, String path, String route, int status,
+                 long durationNanos, String reason) {
+    }
+}
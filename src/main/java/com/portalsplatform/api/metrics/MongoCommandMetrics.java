@@ -0,0 +1,311 @@
+package com.portalsplatform.api.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.portalsplatform.api.config.MongoMetricsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver level instrumentation for Mongo commands and connection checkout.
+ * <p>
+ * Records per-command latency ({@value #COMMAND_METRIC}) and documents returned
+ * ({@value #DOCUMENTS_METRIC}) tagged by command, collection and the originating
+ * repository method, plus connection pool wait time ({@value #POOL_WAIT_METRIC}).
+ * A sample of small reads is kept from the start of each command; those that turn out slower
+ * than the configured threshold are logged with a sanitized filter and the winning plan of an
+ * explain run off the request thread. Other slow commands are logged without the filter.
+ */
+@Component
+@Slf4j
+public class MongoCommandMetrics implements CommandListener, ConnectionPoolListener, DisposableBean {
+
+    public static final String COMMAND_METRIC = "mongodb.command.duration";
+    public static final String DOCUMENTS_METRIC = "mongodb.command.documents";
+    public static final String POOL_WAIT_METRIC = "mongodb.pool.wait";
+
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+    private static final String EXPLAIN_ORIGIN = "explain";
+    private static final int MAX_PLAN_LENGTH = 2_000;
+
+    private final MeterRegistry meterRegistry;
+    private final MongoMetricsProperties properties;
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Timer> commandTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> documentSummaries = new ConcurrentHashMap<>();
+    private final Timer poolWaitSuccess;
+    private final Timer poolWaitFailed;
+    private final Deque<SlowCommand> slowCommands = new ArrayDeque<>();
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), r -> {
+                Thread thread = new Thread(r, "mongo-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public MongoCommandMetrics(MeterRegistry meterRegistry,
+                               MongoMetricsProperties properties,
+                               ObjectProvider<MongoTemplate> mongoTemplate) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.mongoTemplate = mongoTemplate;
+        this.poolWaitSuccess = poolWait("success");
+        this.poolWaitFailed = poolWait("failed");
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        String commandName = event.getCommandName();
+        // The command document is only valid during this callback, so copy the sampled small reads now
+        BsonDocument explainable = EXPLAINABLE.contains(commandName)
+                && ThreadLocalRandom.current().nextDouble() < properties.getExplainSampleRate()
+                && sizeOf(command) <= properties.getExplainMaxCommandSize().toBytes()
+                ? command.clone() : null;
+        inFlight.put(event.getRequestId(), new InFlight(
+                collectionOf(commandName, command), RepositoryOrigin.current(), event.getDatabaseName(), explainable));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        InFlight started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        MeterKey key = new MeterKey(event.getCommandName(), started.collection(), started.origin(), "success");
+        commandTimer(key).record(nanos, TimeUnit.NANOSECONDS);
+        documentSummaries.computeIfAbsent(key, k -> DistributionSummary.builder(DOCUMENTS_METRIC)
+                        .description("Documents returned or affected per Mongo command")
+                        .tags(k.tags())
+                        .register(meterRegistry))
+                .record(documentsOf(event.getResponse()));
+        checkSlow(event.getCommandName(), started, nanos);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        InFlight started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        commandTimer(new MeterKey(event.getCommandName(), started.collection(), started.origin(), "error"))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        checkSlow(event.getCommandName(), started, nanos);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        poolWaitSuccess.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        poolWaitFailed.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return most recent slow commands, newest first
+     */
+    public List<SlowCommand> recentSlowCommands() {
+        synchronized (slowCommands) {
+            return new ArrayList<>(slowCommands);
+        }
+    }
+
+    private Timer commandTimer(MeterKey key) {
+        return commandTimers.computeIfAbsent(key, k -> Timer.builder(COMMAND_METRIC)
+                .description("Mongo command round trip time")
+                .tags(k.tags())
+                .register(meterRegistry));
+    }
+
+    private Timer poolWait(String outcome) {
+        return Timer.builder(POOL_WAIT_METRIC)
+                .description("Time spent waiting to check a connection out of the pool")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void checkSlow(String commandName, InFlight started, long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis < properties.getSlowCommandThreshold().toMillis() || EXPLAIN_ORIGIN.equals(started.origin())) {
+            return;
+        }
+        String filter = started.command() != null ? sanitize(filterOf(started.command())).toString() : "not sampled";
+        log.warn("Slow Mongo command {} on {} from {} took {} ms, filter: {}",
+                commandName, started.collection(), started.origin(), millis, filter);
+
+        SlowCommand slow = new SlowCommand(Instant.now(), commandName, started.collection(),
+                started.origin(), millis, filter, null);
+        if (started.command() != null) {
+            try {
+                explainExecutor.execute(() -> remember(explain(slow, started)));
+                return;
+            } catch (RejectedExecutionException e) {
+                log.debug("Explain queue full, skipping explain for slow {} on {}", commandName, started.collection());
+            }
+        }
+        remember(slow);
+    }
+
+    private SlowCommand explain(SlowCommand slow, InFlight started) {
+        BsonDocument command = started.command();
+        for (String field : List.of("$db", "lsid", "$clusterTime", "txnNumber", "$readPreference", "apiVersion")) {
+            command.remove(field);
+        }
+        try {
+            Document result = RepositoryOrigin.with(EXPLAIN_ORIGIN, () -> mongoTemplate.getObject()
+                    .getMongoDatabaseFactory()
+                    .getMongoDatabase(started.database())
+                    .runCommand(new BsonDocument("explain", command).append("verbosity", new BsonString("queryPlanner"))));
+            Object planner = result.get("queryPlanner");
+            String plan = planner instanceof Document queryPlanner && queryPlanner.get("winningPlan") instanceof Document winning
+                    ? winning.toJson() : result.toJson();
+            if (plan.length() > MAX_PLAN_LENGTH) {
+                plan = plan.substring(0, MAX_PLAN_LENGTH) + "...";
+            }
+            log.warn("Explain for slow {} on {} from {}: {}", slow.command(), slow.collection(), slow.origin(), plan);
+            return new SlowCommand(slow.timestamp(), slow.command(), slow.collection(), slow.origin(),
+                    slow.durationMillis(), slow.filter(), plan);
+        } catch (Exception e) {
+            log.debug("Explain failed for slow {} on {}: {}", slow.command(), slow.collection(), e.getMessage());
+            return slow;
+        }
+    }
+
+    private void remember(SlowCommand slow) {
+        synchronized (slowCommands) {
+            slowCommands.addFirst(slow);
+            while (slowCommands.size() > properties.getSlowCommandHistory()) {
+                slowCommands.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Encoded size of a command as the driver hands it over, without copying it; 0 if unknown.
+     */
+    static long sizeOf(BsonDocument command) {
+        if (command instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        try (BsonReader reader = command.asBsonReader()) {
+            // Driver commands are backed by their wire bytes, which start with the document length
+            return reader instanceof BsonBinaryReader binary ? binary.getBsonInput().readInt32() : 0;
+        }
+    }
+
+    static String collectionOf(String commandName, BsonDocument command) {
+        if ("getMore".equals(commandName)) {
+            BsonValue collection = command.get("collection");
+            return collection != null && collection.isString() ? collection.asString().getValue() : "none";
+        }
+        BsonValue target = command.get(commandName);
+        return target != null && target.isString() ? target.asString().getValue() : "none";
+    }
+
+    static int documentsOf(BsonDocument response) {
+        if (response == null) {
+            return 0;
+        }
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().get("firstBatch");
+            if (batch == null) {
+                batch = cursor.asDocument().get("nextBatch");
+            }
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().intValue() : 0;
+    }
+
+    private static BsonValue filterOf(BsonDocument command) {
+        if (command.containsKey("pipeline")) {
+            return command.get("pipeline");
+        }
+        if (command.containsKey("filter")) {
+            return command.get("filter");
+        }
+        return command.getOrDefault("query", new BsonDocument());
+    }
+
+    /**
+     * Replace every literal with "?" while keeping field names and operators, so slow query
+     * logs show query shape without customer data.
+     */
+    static BsonValue sanitize(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument sanitized = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                sanitized.append(entry.getKey(), sanitize(entry.getValue()));
+            }
+            return sanitized;
+        }
+        if (value.isArray()) {
+            BsonArray sanitized = new BsonArray();
+            for (BsonValue element : value.asArray()) {
+                if (element.isDocument() || element.isArray()) {
+                    sanitized.add(sanitize(element));
+                } else if (sanitized.isEmpty()) {
+                    // Collapse scalar lists such as $in to a single placeholder
+                    sanitized.add(new BsonString("?"));
+                }
+            }
+            return sanitized;
+        }
+        return new BsonString("?");
+    }
+
+    private record InFlight(String collection, String origin, String database, BsonDocument command) {
+    }
+
+    private record MeterKey(String command, String collection, String origin, String status) {
+
+        Tags tags() {
+            return Tags.of("command", command, "collection", collection, "origin", origin, "status", status);
+        }
+    }
+}
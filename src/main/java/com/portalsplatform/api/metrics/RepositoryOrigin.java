@@ -0,0 +1,68 @@
+package com.portalsplatform.api.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Tracks which repository method the current thread is executing, so driver level
+ * instrumentation can attribute Mongo commands to the call that issued them.
+ */
+public final class RepositoryOrigin {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    private static final Map<Method, String> NAMES = new ConcurrentHashMap<>();
+
+    private RepositoryOrigin() {
+    }
+
+    /**
+     * @return "Repository.method" of the innermost active repository call, or {@value #NONE}
+     */
+    public static String current() {
+        String origin = CURRENT.get();
+        return origin != null ? origin : NONE;
+    }
+
+    /**
+     * Run a block of work attributed to an explicit origin, e.g. internal maintenance queries.
+     */
+    public static <T> T with(String origin, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(origin);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Advice for repository proxies that records the invoked method for its duration.
+     */
+    public static MethodInterceptor interceptor(Class<?> repositoryInterface) {
+        String prefix = repositoryInterface.getSimpleName() + ".";
+        return invocation -> {
+            String previous = CURRENT.get();
+            CURRENT.set(NAMES.computeIfAbsent(invocation.getMethod(), m -> prefix + m.getName()));
+            try {
+                return invocation.proceed();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.portalsplatform.api.metrics;
+
+import java.time.Instant;
+
+/**
+ * A Mongo command that exceeded the slow command threshold.
+ *
+ * @param timestamp when the command completed
+ * @param command driver command name (find, aggregate, ...)
+ * @param collection target collection
+ * @param origin repository method that issued the command
+ * @param durationMillis server round trip time
+ * @param filter filter or pipeline with all literal values masked
+ * @param winningPlan explain winning plan if this command was sampled, otherwise null
+ */
+public record SlowCommand(
+        Instant timestamp,
+        String command,
+        String collection,
+        String origin,
+        long durationMillis,
+        String filter,
+        String winningPlan
+) {
+}
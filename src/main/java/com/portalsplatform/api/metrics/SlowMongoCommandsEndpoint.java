@@ -0,0 +1,24 @@
+package com.portalsplatform.api.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing recent slow Mongo commands: GET /actuator/mongoslowcommands
+ */
+@Component
+@Endpoint(id = "mongoslowcommands")
+@RequiredArgsConstructor
+public class SlowMongoCommandsEndpoint {
+
+    private final MongoCommandMetrics mongoCommandMetrics;
+
+    @ReadOperation
+    public List<SlowCommand> slowCommands() {
+        return mongoCommandMetrics.recentSlowCommands();
+    }
+}
@@ -0,0 +1,77 @@
+package com.portalsplatform.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Latency timers for the individual stages a request passes through
+ * (filters, service methods), published as {@value #METRIC_NAME}.
+ * <p>
+ * Tags are limited to a fixed stage name and a small outcome vocabulary so the
+ * series count stays bounded. Histogram and percentile publication is configured
+ * under management.metrics.distribution in application.yml.
+ */
+@Component
+public class StageMetrics {
+
+    public static final String METRIC_NAME = "rewards.stage.duration";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_NOT_FOUND = "not_found";
+    public static final String OUTCOME_BAD_REQUEST = "bad_request";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String stage, String outcome) {
+        sample.stop(timer(stage, outcome));
+    }
+
+    /**
+     * Time a call, deriving the outcome from how it completed.
+     */
+    public <T> T record(String stage, Supplier<T> call) {
+        Timer.Sample sample = start();
+        try {
+            T result = call.get();
+            stop(sample, stage, OUTCOME_SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            stop(sample, stage, outcomeOf(e));
+            throw e;
+        }
+    }
+
+    public static String outcomeOf(Throwable e) {
+        if (e instanceof NoSuchElementException) {
+            return OUTCOME_NOT_FOUND;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return OUTCOME_BAD_REQUEST;
+        }
+        return OUTCOME_ERROR;
+    }
+
+    private Timer timer(String stage, String outcome) {
+        return timers.computeIfAbsent(stage + '|' + outcome, key -> Timer.builder(METRIC_NAME)
+                .description("Time spent in a single request processing stage")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
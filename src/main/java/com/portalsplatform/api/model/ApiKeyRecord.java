@@ -0,0 +1,40 @@
+package com.portalsplatform.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "api_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyRecord {
+
+    @Id
+    private String id;  // MongoDB generates this
+
+    @Indexed(unique = true)
+    private String keyHash;  // Hex encoded SHA-256 of the key, never the key itself
+
+    private String tenant;
+
+    private String rateTier;
+
+    private boolean active;
+
+    private LocalDateTime createdAt;
+
+    // Constructor for provisioning new keys
+    public ApiKeyRecord(String keyHash, String tenant, String rateTier) {
+        this.keyHash = keyHash;
+        this.tenant = tenant;
+        this.rateTier = rateTier;
+        this.active = true;
+        this.createdAt = LocalDateTime.now();
+    }
+}
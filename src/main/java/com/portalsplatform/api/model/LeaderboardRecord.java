@@ -0,0 +1,34 @@
+package com.portalsplatform.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Persisted points total for one customer in one leaderboard period.
+ */
+@Document(collection = "leaderboard")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@CompoundIndex(name = "period_points_idx", def = "{'period': 1, 'points': -1}")
+public class LeaderboardRecord {
+
+    public static final String ALL_TIME = "all";
+
+    @Id
+    private String id;  // period + ":" + customerId
+
+    private String period;  // "all" or "yyyy-MM"
+
+    private String customerId;
+
+    private long points;
+
+    public static String idFor(String period, String customerId) {
+        return period + ":" + customerId;
+    }
+}
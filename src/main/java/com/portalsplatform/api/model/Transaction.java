@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,7 +23,9 @@ import java.time.LocalDateTime;
 @CompoundIndexes({
         @CompoundIndex(name = "customer_date_idx", def = "{'customerId': 1, 'transactionDate': -1}"),
         @CompoundIndex(name = "date_customer_idx", def = "{'transactionDate': -1, 'customerId': 1}"),
-        @CompoundIndex(name = "rewards_calc_idx", def = "{'customerId': 1, 'transactionDate': 1, 'amount': 1}")
+        @CompoundIndex(name = "rewards_calc_idx", def = "{'customerId': 1, 'transactionDate': 1, 'amount': 1}"),
+        // Search: newest first with a unique tie-break for keyset paging, amount filtered from the key
+        @CompoundIndex(name = "search_date_idx", def = "{'transactionDate': -1, '_id': -1, 'amount': 1}")
 })
 public class Transaction {
 
@@ -31,10 +36,12 @@ public class Transaction {
 
     private String customerId;  // Links to Customer.customerId
 
-    private BigDecimal amount;  // Using BigDecimal for money
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal amount;  // Using BigDecimal for money; Decimal128 so ranges compare numerically
 
     private LocalDateTime transactionDate;
 
+    @TextIndexed
     private String description;
 
     private Integer pointsEarned;  // Calculated points for this transaction
@@ -61,7 +68,7 @@ public class Transaction {
      *
      * Example: $120 = 2×20 + 1×50 = 90 points
      */
-    private Integer calculatePoints(BigDecimal amount) {
+    public static Integer calculatePoints(BigDecimal amount) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             return 0;
         }
@@ -0,0 +1,26 @@
+package com.portalsplatform.api.model.dto;
+
+import java.util.List;
+
+/**
+ * DTO for leaderboard API responses.
+ *
+ * @param period "All time" or the requested month (e.g., "2024-09")
+ * @param entries customers ordered by points, highest first
+ */
+public record LeaderboardResponse(
+        String period,
+        List<Entry> entries
+) {
+    public LeaderboardResponse {
+        entries = entries != null ? List.copyOf(entries) : List.of();
+    }
+
+    /**
+     * @param rank 1-based position
+     * @param customerId unique customer identifier
+     * @param points points earned in the period
+     */
+    public record Entry(int rank, String customerId, long points) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.portalsplatform.api.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Dense form of {@link RewardsResponse}: one slot per month from {@code startMonth}, zeros
+ * included, instead of a month-keyed map. Ordered by construction and smaller on the wire.
+ *
+ * @param customerId unique customer identifier
+ * @param customerName full name of customer
+ * @param totalPoints total rewards points across the series
+ * @param startMonth month of {@code points[0]} ("yyyy-MM"), or null for an empty series
+ * @param points points per consecutive month; null when {@code monthlyPoints} was not selected
+ * @param period description of time period (e.g., "Last 3 months")
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MonthlySeriesResponse(
+        String customerId,
+        String customerName,
+        Integer totalPoints,
+        String startMonth,
+        int[] points,
+        String period
+) {
+
+    private static final int[] NO_POINTS = new int[0];
+
+    /**
+     * Series spanning the first to the last month that has points.
+     */
+    public static MonthlySeriesResponse of(RewardsResponse response) {
+        if (response.monthlyPoints() == null) {
+            return unselected(response);
+        }
+        if (response.monthlyPoints().isEmpty()) {
+            return new MonthlySeriesResponse(response.customerId(), response.customerName(),
+                    response.totalPoints(), null, NO_POINTS, response.period());
+        }
+        YearMonth first = null;
+        YearMonth last = null;
+        for (String month : response.monthlyPoints().keySet()) {
+            YearMonth current = YearMonth.parse(month);
+            first = first == null || current.isBefore(first) ? current : first;
+            last = last == null || current.isAfter(last) ? current : last;
+        }
+        return of(response, first, last);
+    }
+
+    /**
+     * Series covering {@code start} to {@code end} inclusive; months outside the range are dropped.
+     */
+    public static MonthlySeriesResponse of(RewardsResponse response, YearMonth start, YearMonth end) {
+        if (response.monthlyPoints() == null) {
+            return unselected(response);
+        }
+        int[] points = new int[(int) start.until(end, ChronoUnit.MONTHS) + 1];
+        for (Map.Entry<String, Integer> month : response.monthlyPoints().entrySet()) {
+            long slot = start.until(YearMonth.parse(month.getKey()), ChronoUnit.MONTHS);
+            if (slot >= 0 && slot < points.length) {
+                points[(int) slot] = month.getValue();
+            }
+        }
+        return new MonthlySeriesResponse(response.customerId(), response.customerName(),
+                response.totalPoints(), start.toString(), points, response.period());
+    }
+
+    private static MonthlySeriesResponse unselected(RewardsResponse response) {
+        return new MonthlySeriesResponse(response.customerId(), response.customerName(),
+                response.totalPoints(), null, null, response.period());
+    }
+}
@@ -0,0 +1,34 @@
+package com.portalsplatform.api.model.dto;
+
+import java.util.List;
+
+/**
+ * DTO for program-wide monthly analytics.
+ *
+ * @param month the month analysed (e.g., "2024-09")
+ * @param totalPoints points issued across all customers in the month
+ * @param activeCustomers customers with at least one transaction in the month
+ * @param transactionCount transactions in the month
+ * @param averagePointsPerActiveCustomer totalPoints / activeCustomers
+ * @param distribution active customers grouped by points earned in the month
+ */
+public record ProgramAnalyticsResponse(
+        String month,
+        long totalPoints,
+        long activeCustomers,
+        long transactionCount,
+        double averagePointsPerActiveCustomer,
+        List<PointsBucket> distribution
+) {
+    public ProgramAnalyticsResponse {
+        distribution = distribution != null ? List.copyOf(distribution) : List.of();
+    }
+
+    /**
+     * @param minPoints inclusive lower bound
+     * @param maxPoints exclusive upper bound, null for the open-ended last bucket
+     * @param customers active customers whose monthly points fall in the bucket
+     */
+    public record PointsBucket(long minPoints, Long maxPoints, long customers) {
+    }
+}
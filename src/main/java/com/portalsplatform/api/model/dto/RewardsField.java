@@ -0,0 +1,69 @@
+package com.portalsplatform.api.model.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of a {@link RewardsResponse} a caller can ask for with {@code fields=}. Leaving out
+ * {@link #CUSTOMER_NAME} or {@link #MONTHLY_POINTS} lets the service skip the work behind them.
+ */
+public enum RewardsField {
+
+    CUSTOMER_ID("customerId"),
+    CUSTOMER_NAME("customerName"),
+    TOTAL_POINTS("totalPoints"),
+    MONTHLY_POINTS("monthlyPoints"),
+    PERIOD("period");
+
+    public static final Set<RewardsField> ALL = Collections.unmodifiableSet(EnumSet.allOf(RewardsField.class));
+
+    private final String jsonName;
+
+    RewardsField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    /**
+     * Parse a comma-separated list of JSON field names, e.g. "customerId,totalPoints".
+     */
+    public static Set<RewardsField> parse(String fields) {
+        EnumSet<RewardsField> selected = EnumSet.noneOf(RewardsField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromJsonName(trimmed));
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No fields selected");
+        }
+        return selected;
+    }
+
+    /**
+     * Copy of the response with unselected fields set to null, which leaves them out of the body.
+     */
+    public static RewardsResponse select(RewardsResponse response, Set<RewardsField> fields) {
+        if (fields.containsAll(ALL)) {
+            return response;
+        }
+        return new RewardsResponse(
+                fields.contains(CUSTOMER_ID) ? response.customerId() : null,
+                fields.contains(CUSTOMER_NAME) ? response.customerName() : null,
+                fields.contains(TOTAL_POINTS) ? response.totalPoints() : null,
+                fields.contains(MONTHLY_POINTS) ? response.monthlyPoints() : null,
+                fields.contains(PERIOD) ? response.period() : null
+        );
+    }
+
+    private static RewardsField fromJsonName(String name) {
+        for (RewardsField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
@@ -1,17 +1,24 @@
 package com.portalsplatform.api.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Collections;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * DTO for rewards API responses.
  * Using record for immutability and reduced boilerplate.
+ * Fields left out with {@code fields=} (see {@link RewardsField}) are null and omitted from the body.
  *
  * @param customerId unique customer identifier
  * @param customerName full name of customer
  * @param totalPoints total rewards points across all transactions
- * @param monthlyPoints map of month to points (e.g., "2024-01": 150)
+ * @param monthlyPoints map of month to points in month order (e.g., "2024-01": 150)
  * @param period description of time period (e.g., "Last 3 months")
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record RewardsResponse(
         String customerId,
         String customerName,
@@ -21,9 +28,14 @@ public record RewardsResponse(
 ) {
     // Compact constructor for validation and defensive copying
     public RewardsResponse {
-        // Make monthlyPoints immutable
-        monthlyPoints = monthlyPoints != null ?
-                Map.copyOf(monthlyPoints) : Map.of();
+        // Make monthlyPoints immutable and keep months in order ("yyyy-MM" sorts chronologically).
+        // Sorted maps are the freshly built ones from the service and projection, so they are wrapped, not copied
+        if (monthlyPoints instanceof SortedMap<String, Integer> sorted) {
+            monthlyPoints = Collections.unmodifiableSortedMap(sorted);
+        } else if (monthlyPoints != null) {
+            monthlyPoints = !monthlyPoints.isEmpty() ?
+                    Collections.unmodifiableSortedMap(new TreeMap<>(monthlyPoints)) : Map.of();
+        }
     }
 
     // Static factory method for common use case
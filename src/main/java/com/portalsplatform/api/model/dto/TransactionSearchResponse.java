@@ -0,0 +1,20 @@
+package com.portalsplatform.api.model.dto;
+
+import com.portalsplatform.api.model.Transaction;
+
+import java.util.List;
+
+/**
+ * DTO for transaction search responses.
+ *
+ * @param transactions matching transactions, newest first
+ * @param nextCursor pass as {@code cursor} to get the next page; null on the last page
+ */
+public record TransactionSearchResponse(
+        List<Transaction> transactions,
+        String nextCursor
+) {
+    public TransactionSearchResponse {
+        transactions = transactions != null ? List.copyOf(transactions) : List.of();
+    }
+}
@@ -0,0 +1,11 @@
+package com.portalsplatform.api.repository;
+
+import com.portalsplatform.api.model.ApiKeyRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ApiKeyRepository extends MongoRepository<ApiKeyRecord, String> {
+    // All keys that should currently authenticate
+    List<ApiKeyRecord> findByActiveTrue();
+}
@@ -12,6 +12,9 @@ public interface CustomerRepository extends MongoRepository<Customer, String> {
     // Check if customer exists
     boolean existsByCustomerId(String customerId);
 
+    // Existence as a count, answered from the unique customerId index without fetching the document
+    long countByCustomerId(String customerId);
+
     // Delete by business ID
     void deleteByCustomerId(String customerId);
 }
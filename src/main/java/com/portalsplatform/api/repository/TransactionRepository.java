@@ -1,6 +1,7 @@
 package com.portalsplatform.api.repository;
 
 import com.portalsplatform.api.model.Transaction;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -30,4 +31,20 @@ public interface TransactionRepository extends MongoRepository<Transaction, Stri
 
     // Count transactions for a customer
     long countByCustomerId(String customerId);
+
+    // Total points without loading transactions; null when the customer has none
+    @Aggregation(pipeline = {
+            "{$match: {customerId: ?0}}",
+            "{$group: {_id: null, points: {$sum: '$pointsEarned'}, transactions: {$sum: 1}}}"
+    })
+    PointsSum sumPoints(String customerId);
+
+    @Aggregation(pipeline = {
+            "{$match: {customerId: ?0, transactionDate: {$gte: ?1, $lte: ?2}}}",
+            "{$group: {_id: null, points: {$sum: '$pointsEarned'}, transactions: {$sum: 1}}}"
+    })
+    PointsSum sumPointsBetween(String customerId, LocalDateTime startDate, LocalDateTime endDate);
+
+    record PointsSum(long points, long transactions) {
+    }
 }
@@ -0,0 +1,128 @@
+package com.portalsplatform.api.security;
+
+import com.portalsplatform.api.config.ConcurrencyLimitProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, shared by named partitions.
+ * <p>
+ * Every completed request feeds its round-trip time into a short-term and a long-term moving
+ * average. While the short-term RTT stays within {@code rtt-tolerance} of the long-term baseline
+ * the limit grows by about its square root; once requests start queueing in a slow backend the
+ * limit is scaled by baseline / current, at most halving it per sample. A long-term average far
+ * above the short-term one is decayed, so the baseline recovers quickly after an overload. The
+ * limit does not grow while less than half of it is in use.
+ * <p>
+ * Each partition is guaranteed its share of the limit. A partition may borrow unused capacity while
+ * the total is below the limit; once it is reached, only partitions under their share are admitted.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+
+    private final Map<String, Partition> partitions = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final double minLimit;
+    private final double maxLimit;
+    private final double tolerance;
+    private final double longAlpha;
+    private final double smoothing;
+    private volatile double limit;
+
+    // Guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, Map<String, Double> shares) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getRttTolerance();
+        this.longAlpha = 2.0 / (properties.getLongWindow() + 1);
+        this.smoothing = properties.getSmoothing();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        shares.forEach((name, share) -> partitions.put(name, new Partition(share)));
+    }
+
+    /**
+     * Admit a request of {@code partition}, or return null if it should be rejected.
+     */
+    Permit tryAcquire(String partition) {
+        Partition p = partitions.get(partition);
+        int current = limit();
+        int total;
+        do {
+            total = inFlight.get();
+            if (total >= current && p.inFlight.get() >= p.limit(current)) {
+                return null;
+            }
+        } while (!inFlight.compareAndSet(total, total + 1));
+        p.inFlight.incrementAndGet();
+        return new Permit(p, System.nanoTime(), total + 1);
+    }
+
+    /**
+     * Release an admitted request and learn from its round-trip time.
+     */
+    void release(Permit permit) {
+        long rtt = System.nanoTime() - permit.startNanos();
+        permit.partition().inFlight.decrementAndGet();
+        inFlight.decrementAndGet();
+        onSample(rtt, permit.inFlight());
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_ALPHA;
+        longRtt += (rtt - longRtt) * longAlpha;
+        if (longRtt / shortRtt > 2) {
+            // Latency is back to normal after a prolonged overload; catch the baseline up
+            longRtt *= 0.95;
+        }
+        double estimate = limit;
+        if (inFlightAtStart < estimate / 2) {
+            // App limited: latency says nothing about how much more concurrency would be safe
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double next = estimate * gradient + Math.sqrt(estimate);
+        next = estimate * (1 - smoothing) + next * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int inFlight(String partition) {
+        return partitions.get(partition).inFlight.get();
+    }
+
+    record Permit(Partition partition, long startNanos, int inFlight) {
+    }
+
+    static final class Partition {
+
+        private final double share;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Partition(double share) {
+            this.share = share;
+        }
+
+        int limit(int totalLimit) {
+            return Math.max(1, (int) Math.ceil(totalLimit * share));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.portalsplatform.api.security;
 
+import com.portalsplatform.api.metrics.StageMetrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,38 +25,46 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
     @Value("${api.security.header-name:X-API-Key}")
     private String headerName;
 
-    @Value("${api.security.api-key:demo-api-key-12345}")
-    private String validApiKey;
+    private static final String STAGE = "filter.api_key";
+
+    private final ApiKeyRegistry apiKeyRegistry;
+    private final StageMetrics stageMetrics;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                   HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
 
+        Timer.Sample sample = stageMetrics.start();
         String requestPath = request.getRequestURI();
 
         // Skip authentication for health and docs endpoints
         if (isPublicEndpoint(requestPath)) {
+            stageMetrics.stop(sample, STAGE, "public");
             filterChain.doFilter(request, response);
             return;
         }
 
         String apiKey = request.getHeader(headerName);
+        ApiKeyPrincipal principal = apiKeyRegistry.authenticate(apiKey);
 
-        if (apiKey != null && apiKey.equals(validApiKey)) {
-            log.debug("Valid API key provided for path: {}", requestPath);
+        if (principal != null) {
+            log.debug("Valid API key {} (tenant {}) provided for path: {}",
+                    principal.keyId(), principal.tenant(), requestPath);
 
             // Create authentication token
             UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken("api-user", null, Collections.emptyList());
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
+            stageMetrics.stop(sample, STAGE, "authenticated");
             filterChain.doFilter(request, response);
         } else {
             log.warn("Invalid or missing API key for path: {}", requestPath);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\": \"Invalid or missing API key\"}");
+            stageMetrics.stop(sample, STAGE, "rejected");
         }
     }
 
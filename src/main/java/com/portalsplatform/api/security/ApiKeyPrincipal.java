@@ -0,0 +1,15 @@
+package com.portalsplatform.api.security;
+
+/**
+ * Authenticated caller resolved from an API key.
+ *
+ * @param keyId short, log-safe identifier (leading hex of the key digest)
+ * @param tenant partner the key was issued to
+ * @param rateTier rate limit tier assigned to the key
+ */
+public record ApiKeyPrincipal(
+        String keyId,
+        String tenant,
+        String rateTier
+) {
+}
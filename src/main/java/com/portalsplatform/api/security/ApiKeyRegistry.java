@@ -0,0 +1,203 @@
+package com.portalsplatform.api.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+
+/**
+ * In-memory index of API keys, stored only as SHA-256 digests.
+ * <p>
+ * A lookup hashes the presented key into a thread-local buffer, probes an open-addressing
+ * table on the leading digest bytes and confirms candidates with a constant-time comparison
+ * of the full digest. Tables are immutable: {@link #replace(Collection)} builds a new one and
+ * publishes it with a single volatile write, so reloads never block authentication.
+ */
+@Component
+@Slf4j
+public class ApiKeyRegistry {
+
+    static final int DIGEST_LENGTH = 32;
+    private static final int MAX_INLINE_KEY_LENGTH = 256;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(ApiKeyRegistry::newDigest);
+    private static final ThreadLocal<byte[]> DIGEST_BUFFER = ThreadLocal.withInitial(() -> new byte[DIGEST_LENGTH]);
+    private static final ThreadLocal<byte[]> KEY_BUFFER = ThreadLocal.withInitial(() -> new byte[MAX_INLINE_KEY_LENGTH]);
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Resolve the principal for a presented API key.
+     * @param apiKey raw key from the request header, may be null
+     * @return the matching principal, or null if the key is unknown
+     */
+    public ApiKeyPrincipal authenticate(String apiKey) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            return null;
+        }
+        byte[] digest = DIGEST_BUFFER.get();
+        digestInto(apiKey, digest);
+        return snapshot.find(digest);
+    }
+
+    /**
+     * Atomically swap in a new set of keys.
+     * @param entries the complete key set; duplicates keep the last entry
+     * @return number of distinct keys now registered
+     */
+    public int replace(Collection<Entry> entries) {
+        Snapshot next = Snapshot.of(entries);
+        snapshot = next;
+        log.info("API key registry loaded with {} keys, longest probe {}", next.size, next.longestProbe);
+        return next.size;
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Most table slots any registered key's lookup visits; what a lookup costs beyond the digest.
+     */
+    int longestProbe() {
+        return snapshot.longestProbe;
+    }
+
+    /**
+     * Build a registry entry from a raw key, e.g. the bootstrap key from configuration.
+     */
+    public static Entry entryForKey(String apiKey, String tenant, String rateTier) {
+        byte[] digest = new byte[DIGEST_LENGTH];
+        digestInto(apiKey, digest);
+        return new Entry(digest, new ApiKeyPrincipal(keyId(digest), tenant, rateTier));
+    }
+
+    /**
+     * Build a registry entry from a hex encoded SHA-256 digest, as stored in files and Mongo.
+     */
+    public static Entry entryForDigest(String sha256Hex, String tenant, String rateTier) {
+        byte[] digest = HEX.parseHex(sha256Hex.trim().toLowerCase());
+        if (digest.length != DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Expected a SHA-256 digest, got " + digest.length + " bytes");
+        }
+        return new Entry(digest, new ApiKeyPrincipal(keyId(digest), tenant, rateTier));
+    }
+
+    /**
+     * Hex encoded SHA-256 of a raw key, for provisioning new keys.
+     */
+    public static String sha256Hex(String apiKey) {
+        byte[] digest = new byte[DIGEST_LENGTH];
+        digestInto(apiKey, digest);
+        return HEX.formatHex(digest);
+    }
+
+    private static void digestInto(String apiKey, byte[] out) {
+        MessageDigest sha256 = SHA256.get();
+        int length = apiKey.length();
+        byte[] buffer = KEY_BUFFER.get();
+        boolean ascii = length <= buffer.length;
+        for (int i = 0; ascii && i < length; i++) {
+            char c = apiKey.charAt(i);
+            if (c >= 0x80) {
+                ascii = false;
+            } else {
+                buffer[i] = (byte) c;
+            }
+        }
+        if (ascii) {
+            sha256.update(buffer, 0, length);
+        } else {
+            sha256.update(apiKey.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            sha256.digest(out, 0, DIGEST_LENGTH);
+        } catch (DigestException e) {
+            throw new IllegalStateException("SHA-256 digest failed", e);
+        }
+    }
+
+    private static String keyId(byte[] digest) {
+        return HEX.formatHex(digest, 0, 4);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A registered key digest and the principal it resolves to.
+     */
+    public record Entry(byte[] digest, ApiKeyPrincipal principal) {
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new Entry[1], 0, 0);
+
+        final Entry[] table;
+        final int mask;
+        final int size;
+        final int longestProbe;
+
+        private Snapshot(Entry[] table, int size, int longestProbe) {
+            this.table = table;
+            this.mask = table.length - 1;
+            this.size = size;
+            this.longestProbe = longestProbe;
+        }
+
+        static Snapshot of(Collection<Entry> entries) {
+            // Keep the load factor at or below 0.5 so probe chains stay short
+            int capacity = Integer.highestOneBit(Math.max(1, entries.size()) * 2 - 1) << 1;
+            Entry[] table = new Entry[capacity];
+            int mask = capacity - 1;
+            int size = 0;
+            int longestProbe = 0;
+            for (Entry entry : entries) {
+                int slot = slot(entry.digest(), mask);
+                // Nothing is ever removed, so a lookup walks the same slots as the insert did
+                int probe = 1;
+                while (table[slot] != null && !MessageDigest.isEqual(table[slot].digest(), entry.digest())) {
+                    slot = (slot + 1) & mask;
+                    probe++;
+                }
+                if (table[slot] == null) {
+                    size++;
+                }
+                table[slot] = entry;
+                longestProbe = Math.max(longestProbe, probe);
+            }
+            return new Snapshot(table, size, longestProbe);
+        }
+
+        ApiKeyPrincipal find(byte[] digest) {
+            int slot = slot(digest, mask);
+            Entry candidate;
+            while ((candidate = table[slot]) != null) {
+                if (MessageDigest.isEqual(candidate.digest(), digest)) {
+                    return candidate.principal();
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private static int slot(byte[] digest, int mask) {
+            // Digest bytes are already uniformly distributed, so the leading int is a good hash
+            int hash = (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16
+                    | (digest[2] & 0xFF) << 8 | (digest[3] & 0xFF);
+            return hash & mask;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.portalsplatform.api.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portalsplatform.api.config.ApiKeyProperties;
+import com.portalsplatform.api.model.ApiKeyRecord;
+import com.portalsplatform.api.repository.ApiKeyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Populates the {@link ApiKeyRegistry} from configuration, an optional key file and the
+ * optional api_keys collection, and keeps it current without a restart.
+ * <p>
+ * A failed reload keeps the previous key set in place.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyRegistryLoader {
+
+    private final ApiKeyRegistry apiKeyRegistry;
+    private final ApiKeyProperties properties;
+    private final ApiKeyRepository apiKeyRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "api-key-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${api.security.api-key:demo-api-key-12345}")
+    private String bootstrapApiKey;
+
+    private long lastFileModified = -1;
+
+    @PostConstruct
+    void start() {
+        reload();
+        long intervalMillis = properties.getReloadInterval().toMillis();
+        if (intervalMillis > 0 && (hasFile() || properties.isMongoEnabled())) {
+            scheduler.scheduleWithFixedDelay(this::reloadIfChanged,
+                    intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Rebuild the registry from all configured sources.
+     * @return number of keys registered, or -1 if the reload failed
+     */
+    public synchronized int reload() {
+        try {
+            List<ApiKeyRegistry.Entry> entries = new ArrayList<>();
+            if (bootstrapApiKey != null && !bootstrapApiKey.isBlank()) {
+                entries.add(ApiKeyRegistry.entryForKey(bootstrapApiKey,
+                        properties.getDefaultTenant(), properties.getDefaultRateTier()));
+            }
+            if (hasFile()) {
+                entries.addAll(loadFile(Path.of(properties.getFile())));
+            }
+            if (properties.isMongoEnabled()) {
+                entries.addAll(loadMongo());
+            }
+            return apiKeyRegistry.replace(entries);
+        } catch (Exception e) {
+            log.error("API key reload failed, keeping {} existing keys", apiKeyRegistry.size(), e);
+            return -1;
+        }
+    }
+
+    private void reloadIfChanged() {
+        // Mongo has no cheap change marker, so it is always re-read; the file only when touched
+        if (properties.isMongoEnabled() || (hasFile() && fileModified())) {
+            reload();
+        }
+    }
+
+    private boolean hasFile() {
+        return properties.getFile() != null && !properties.getFile().isBlank();
+    }
+
+    private boolean fileModified() {
+        try {
+            return Files.getLastModifiedTime(Path.of(properties.getFile())).toMillis() != lastFileModified;
+        } catch (IOException e) {
+            log.warn("Cannot stat API key file {}: {}", properties.getFile(), e.getMessage());
+            return false;
+        }
+    }
+
+    private List<ApiKeyRegistry.Entry> loadFile(Path path) throws IOException {
+        lastFileModified = Files.getLastModifiedTime(path).toMillis();
+        JsonNode root = objectMapper.readTree(path.toFile());
+        List<ApiKeyRegistry.Entry> entries = new ArrayList<>(root.size());
+        for (JsonNode node : root) {
+            entries.add(ApiKeyRegistry.entryForDigest(
+                    node.path("sha256").asText(),
+                    node.path("tenant").asText(properties.getDefaultTenant()),
+                    node.path("rateTier").asText(properties.getDefaultRateTier())));
+        }
+        log.debug("Read {} API keys from {}", entries.size(), path);
+        return entries;
+    }
+
+    private List<ApiKeyRegistry.Entry> loadMongo() {
+        List<ApiKeyRecord> records = apiKeyRepository.findByActiveTrue();
+        List<ApiKeyRegistry.Entry> entries = new ArrayList<>(records.size());
+        for (ApiKeyRecord record : records) {
+            entries.add(ApiKeyRegistry.entryForDigest(record.getKeyHash(), record.getTenant(), record.getRateTier()));
+        }
+        log.debug("Read {} API keys from Mongo", entries.size());
+        return entries;
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,145 @@
+package com.portalsplatform.api.security;
+
+import com.portalsplatform.api.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Sheds {@code /api} requests beyond an {@link AdaptiveConcurrencyLimiter} limit with 503 and
+ * {@code Retry-After}, so a slow Mongo cannot tie up every Tomcat thread in queued repository calls.
+ * <p>
+ * Reads (GET/HEAD) and writes are separate partitions: when the limit is reached, each still gets
+ * its {@code concurrency-limit.read-share} of it. The limit is published as
+ * {@code rewards.concurrency_limit.limit}, with in-flight gauges and accepted/rejected counters per
+ * partition.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String READ = "read";
+    static final String WRITE = "write";
+
+    private final ConcurrencyLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<String, Counter> accepted;
+    private final Map<String, Counter> rejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties,
+                Map.of(READ, properties.getReadShare(), WRITE, 1 - properties.getReadShare()));
+        this.accepted = Map.of(READ, requests(meterRegistry, READ, "accepted"),
+                WRITE, requests(meterRegistry, WRITE, "accepted"));
+        this.rejected = Map.of(READ, requests(meterRegistry, READ, "rejected"),
+                WRITE, requests(meterRegistry, WRITE, "rejected"));
+        Gauge.builder("rewards.concurrency_limit.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit for /api requests")
+                .register(meterRegistry);
+        for (String partition : new String[]{READ, WRITE}) {
+            Gauge.builder("rewards.concurrency_limit.in_flight", limiter, l -> l.inFlight(partition))
+                    .description("Admitted /api requests still running")
+                    .tag("partition", partition)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String partition = isRead(request) ? READ : WRITE;
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(partition);
+        if (permit == null) {
+            rejected.get(partition).increment();
+            log.warn("Concurrency limit {} reached, rejecting {} {}", limiter.limit(), request.getMethod(),
+                    request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Server busy. Retry later.\"}");
+            return;
+        }
+        accepted.get(partition).increment();
+
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The permit is held until the async response completes, not just the dispatch
+                request.getAsyncContext().addListener(new ReleasingListener(permit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(permit);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String partition, String result) {
+        return Counter.builder("rewards.concurrency_limit.requests")
+                .description("/api requests admitted or shed by the concurrency limit")
+                .tag("partition", partition)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private final class ReleasingListener implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter.Permit permit;
+
+        private ReleasingListener(AdaptiveConcurrencyLimiter.Permit permit) {
+            this.permit = permit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Also called after a timeout or error
+            limiter.release(permit);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.networknt.schema.SchemaLocation;
 import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 import com.portalsplatform.api.config.SchemaValidationProperties;
+import com.portalsplatform.api.metrics.StageMetrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,12 +25,16 @@ import java.util.stream.Collectors;
 @Component
 public class JsonSchemaValidationFilter extends OncePerRequestFilter {
 
+    private static final String STAGE = "filter.schema_validation";
+
     private final Map<String, JsonSchema> schemas;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final SchemaValidationProperties validationProperties;
+    private final StageMetrics stageMetrics;
 
-    public JsonSchemaValidationFilter(SchemaValidationProperties validationProperties) {
+    public JsonSchemaValidationFilter(SchemaValidationProperties validationProperties, StageMetrics stageMetrics) {
         this.validationProperties = validationProperties;
+        this.stageMetrics = stageMetrics;
         JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V202012);
         this.schemas = validationProperties.getRules().stream()
                 .collect(Collectors.toMap(
@@ -41,6 +47,8 @@ public class JsonSchemaValidationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        Timer.Sample sample = stageMetrics.start();
+        String outcome = "skipped";
         String path = request.getRequestURI();
         String method = request.getMethod();
 
@@ -55,6 +63,7 @@ public class JsonSchemaValidationFilter extends OncePerRequestFilter {
                         if (!errors.isEmpty()) {
                             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
                             response.getWriter().write(errors.toString());
+                            stageMetrics.stop(sample, STAGE, "invalid");
                             return;
                         }
                     }
@@ -66,12 +75,15 @@ public class JsonSchemaValidationFilter extends OncePerRequestFilter {
                 } catch (Exception e) {
                     response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
                     response.getWriter().write("Invalid JSON format");
+                    stageMetrics.stop(sample, STAGE, "malformed");
                     return;
                 }
+                outcome = "valid";
                 break; // Exit after finding the first matching rule
             }
         }
 
+        stageMetrics.stop(sample, STAGE, outcome);
         filterChain.doFilter(request, response);
     }
 }
@@ -1,10 +1,13 @@
 package com.portalsplatform.api.security;
 
+import com.portalsplatform.api.metrics.StageMetrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,11 +23,17 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class RateLimitingFilter extends OncePerRequestFilter {
 
+    private static final String STAGE = "filter.rate_limit";
+
     private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
-    private final int MAX_REQUESTS_PER_MINUTE = 100;
+    private final int maxRequestsPerMinute;
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final StageMetrics stageMetrics;
 
-    public RateLimitingFilter() {
+    public RateLimitingFilter(StageMetrics stageMetrics,
+                              @Value("${api.security.rate-limit.max-requests-per-minute:100}") int maxRequestsPerMinute) {
+        this.stageMetrics = stageMetrics;
+        this.maxRequestsPerMinute = maxRequestsPerMinute;
         // Reset counts every minute
         scheduler.scheduleAtFixedRate(() -> {
             requestCounts.clear();
@@ -37,17 +46,21 @@ public class RateLimitingFilter extends OncePerRequestFilter {
                                   HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
 
+        Timer.Sample sample = stageMetrics.start();
         String clientId = getClientIdentifier(request);
         AtomicInteger requests = requestCounts.computeIfAbsent(clientId, k -> new AtomicInteger(0));
 
-        if (requests.incrementAndGet() > MAX_REQUESTS_PER_MINUTE) {
+        if (requests.incrementAndGet() > maxRequestsPerMinute) {
             log.warn("Rate limit exceeded for client: {}", clientId);
             response.setStatus(429); // Too Many Requests
             response.setContentType("application/json");
-            response.getWriter().write("{\"error\": \"Rate limit exceeded. Max 100 requests per minute.\"}");
+            response.getWriter().write("{\"error\": \"Rate limit exceeded. Max " + maxRequestsPerMinute
+                    + " requests per minute.\"}");
+            stageMetrics.stop(sample, STAGE, "rejected");
             return;
         }
 
+        stageMetrics.stop(sample, STAGE, "allowed");
         filterChain.doFilter(request, response);
     }
 
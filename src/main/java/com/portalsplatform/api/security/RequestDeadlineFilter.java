@@ -0,0 +1,166 @@
+package com.portalsplatform.api.security;
+
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.RequestDeadline;
+import com.portalsplatform.api.config.RequestDeadlineProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts the {@link RequestDeadline} of {@code /api} reads on arrival: the client's
+ * {@code request-deadline.header} (capped at {@code max-timeout}), else the first matching
+ * {@code routes} entry, else {@code default-timeout}. Writes get no deadline, since a write cut off
+ * on the client side may still be applied.
+ * <p>
+ * Requests are counted in {@code rewards.deadline.requests{source=header|route|default,result=completed|exceeded}},
+ * where exceeded means the request was answered with 504.
+ */
+@Component
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "header";
+    static final String ROUTE = "route";
+    static final String DEFAULT = "default";
+
+    private final RequestDeadlineProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Counter> completed = new HashMap<>();
+    private final Map<String, Counter> exceeded = new HashMap<>();
+
+    public RequestDeadlineFilter(RequestDeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (String source : new String[]{HEADER, ROUTE, DEFAULT}) {
+            completed.put(source, requests(meterRegistry, source, "completed"));
+            exceeded.put(source, requests(meterRegistry, source, "exceeded"));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/")
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String source;
+        Duration budget;
+        String requested = request.getHeader(properties.getHeader());
+        if (requested != null) {
+            budget = parse(requested);
+            if (budget == null) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\": \"Invalid " + properties.getHeader() + " header\"}");
+                return;
+            }
+            if (budget.compareTo(properties.getMaxTimeout()) > 0) {
+                budget = properties.getMaxTimeout();
+            }
+            source = HEADER;
+        } else {
+            budget = routeTimeout(request.getRequestURI());
+            source = budget != null ? ROUTE : DEFAULT;
+            if (budget == null) {
+                budget = properties.getDefaultTimeout();
+            }
+        }
+        CallContext.start(request, RequestDeadline.expiresAt(budget));
+
+        filterChain.doFilter(request, response);
+        if (request.isAsyncStarted()) {
+            // The outcome is only known once the async response completes
+            request.getAsyncContext().addListener(new CountingListener(source, response));
+        } else {
+            count(source, response);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    private Duration routeTimeout(String path) {
+        for (Map.Entry<String, Duration> route : properties.getRoutes().entrySet()) {
+            if (pathMatcher.match(route.getKey(), path)) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the budget, or null unless a positive number of milliseconds or a duration such as "3s"
+     */
+    static Duration parse(String value) {
+        try {
+            Duration budget = DurationStyle.detectAndParse(value.trim(), ChronoUnit.MILLIS);
+            return budget.isNegative() || budget.isZero() ? null : budget;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void count(String source, HttpServletResponse response) {
+        (response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value() ? exceeded : completed).get(source).increment();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String source, String result) {
+        return Counter.builder("rewards.deadline.requests")
+                .description("/api reads by where their deadline came from and whether they met it")
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private final class CountingListener implements AsyncListener {
+
+        private final String source;
+        private final HttpServletResponse response;
+
+        private CountingListener(String source, HttpServletResponse response) {
+            this.source = source;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            count(source, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.portalsplatform.api.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +19,9 @@ public class SecurityConfig {
     private final ApiKeyAuthFilter apiKeyAuthFilter;
     private final RateLimitingFilter rateLimitingFilter;
     private final JsonSchemaValidationFilter jsonSchemaValidationFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final RequestDeadlineFilter requestDeadlineFilter;
+    private final AccessLogFilter accessLogFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -25,6 +29,8 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Controllers answer from bulkhead threads; the request was authorized before it went async
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/swagger-ui/**").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
@@ -32,8 +38,13 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
+            // The deadline runs from arrival, before any filter can hold the request up
+            .addFilterBefore(requestDeadlineFilter, RateLimitingFilter.class)
+            // Outermost, so requests shed by the later filters are logged too
+            .addFilterBefore(accessLogFilter, RequestDeadlineFilter.class)
             .addFilterAfter(apiKeyAuthFilter, RateLimitingFilter.class)
-            .addFilterAfter(jsonSchemaValidationFilter, ApiKeyAuthFilter.class)
+            .addFilterAfter(concurrencyLimitFilter, ApiKeyAuthFilter.class)
+            .addFilterAfter(jsonSchemaValidationFilter, ConcurrencyLimitFilter.class)
             .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.ReadRouting;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Memo of a customer's points in closed months, bounded to the {@code closed-months.max-entries}
+ * most recently used (customerId, month) entries.
+ * <p>
+ * A month is closed once {@code closed-months.grace-period} has passed since it ended; its
+ * points only change if a backdated transaction lands in it. Each entry records the
+ * {@link RewardsVersions#monthGeneration generation} of its month it was computed at, which only a
+ * transaction written into that month moves on, through any instance, and is only used while the
+ * generation stays the same. {@link ClosedMonthTransactionListener} also drops entries on local
+ * writes, which only frees them sooner. Points are computed on the primary, so neither the
+ * projection nor a lagging secondary can get a stale total memoized.
+ */
+@Component
+public class ClosedMonthRewards {
+
+    private final Map<Key, Memo> points;
+    private final Duration gracePeriod;
+    private final ReadRouting readRouting;
+    private final RewardsVersions rewardsVersions;
+
+    public ClosedMonthRewards(ClosedMonthProperties properties, ReadRouting readRouting,
+                              RewardsVersions rewardsVersions, MeterRegistry meterRegistry) {
+        this.gracePeriod = properties.getGracePeriod();
+        this.readRouting = readRouting;
+        this.rewardsVersions = rewardsVersions;
+        int capacity = Math.max(1, properties.getMaxEntries());
+        this.points = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Memo> eldest) {
+                return size() > capacity;
+            }
+        });
+        Gauge.builder("rewards.closed_months.entries", points, Map::size)
+                .description("Memoized closed-month point totals")
+                .register(meterRegistry);
+    }
+
+    public boolean isClosed(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay().plus(gracePeriod).isBefore(LocalDateTime.now());
+    }
+
+    /**
+     * Points of a closed month, memoized at the month's current generation. Without one (it could
+     * not be read or a failed bump is pending) they are computed afresh.
+     */
+    public int points(String customerId, YearMonth month, IntSupplier compute) {
+        Long generation = generation(customerId, month);
+        if (generation == null) {
+            return readRouting.primary(compute::getAsInt);
+        }
+        Key key = new Key(customerId, month);
+        Memo memo = points.get(key);
+        if (memo != null && memo.generation() == generation) {
+            return memo.points();
+        }
+        // The generation was read before computing, so a racing write leaves the entry behind, never ahead
+        int computed = readRouting.primary(compute::getAsInt);
+        points.merge(key, new Memo(generation, computed),
+                (current, candidate) -> current.generation() > candidate.generation() ? current : candidate);
+        return computed;
+    }
+
+    private Long generation(String customerId, YearMonth month) {
+        try {
+            return rewardsVersions.monthGeneration(customerId, month);
+        } catch (RuntimeException e) {
+            // Computing afresh is always correct; it fails on its own if Mongo is out of reach
+            return null;
+        }
+    }
+
+    /**
+     * Forget one month of a customer, e.g. after a backdated transaction.
+     */
+    public void invalidate(String customerId, YearMonth month) {
+        points.remove(new Key(customerId, month));
+    }
+
+    public void invalidate(String customerId) {
+        synchronized (points) {
+            points.keySet().removeIf(key -> key.customerId().equals(customerId));
+        }
+    }
+
+    public void clear() {
+        points.clear();
+    }
+
+    int size() {
+        return points.size();
+    }
+
+    private record Key(String customerId, YearMonth month) {
+    }
+
+    private record Memo(long generation, int points) {
+    }
+}
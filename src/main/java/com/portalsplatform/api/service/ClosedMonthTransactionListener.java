@@ -0,0 +1,138 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.model.Projections;
+import com.portalsplatform.api.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Moves on the {@link RewardsVersions#monthGeneration generation} of a closed month a saved or
+ * deleted transaction falls into, and invalidates memoized closed months, per customer and
+ * program-wide, on this instance. The months of a delete are looked up just before it on the
+ * same thread.
+ * <p>
+ * The write has already been made when these events fire, so a bump that fails never fails it:
+ * it falls back to a global bump, as in {@link RewardsVersionListener}, and is counted in
+ * {@value RewardsVersionListener#FAILURES_METRIC}.
+ */
+@Component
+@Slf4j
+public class ClosedMonthTransactionListener extends AbstractMongoEventListener<Transaction> {
+
+    // Months of a delete that could not be looked up: every generation is bumped instead
+    private static final Set<MonthKey> UNKNOWN = Set.of();
+
+    private final ClosedMonthRewards closedMonthRewards;
+    private final ProgramAnalyticsService programAnalyticsService;
+    private final RewardsVersions rewardsVersions;
+    private final MongoTemplate mongoTemplate;
+    private final Counter failures;
+    private final ThreadLocal<Set<MonthKey>> deleting = new ThreadLocal<>();
+
+    public ClosedMonthTransactionListener(ClosedMonthRewards closedMonthRewards,
+                                          ProgramAnalyticsService programAnalyticsService,
+                                          RewardsVersions rewardsVersions, MongoTemplate mongoTemplate,
+                                          MeterRegistry meterRegistry) {
+        this.closedMonthRewards = closedMonthRewards;
+        this.programAnalyticsService = programAnalyticsService;
+        this.rewardsVersions = rewardsVersions;
+        this.mongoTemplate = mongoTemplate;
+        this.failures = Counter.builder(RewardsVersionListener.FAILURES_METRIC)
+                .description("Rewards version bumps that failed after a write and fell back to a global bump")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Transaction> event) {
+        Transaction transaction = event.getSource();
+        YearMonth month = YearMonth.from(transaction.getTransactionDate());
+        if (closedMonthRewards.isClosed(month)) {
+            closedMonthRewards.invalidate(transaction.getCustomerId(), month);
+            bump(new MonthKey(transaction.getCustomerId(), month));
+        }
+        if (month.isBefore(YearMonth.now())) {
+            programAnalyticsService.invalidate(month);
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Transaction> event) {
+        Set<MonthKey> closed = new LinkedHashSet<>();
+        try {
+            for (Document transaction : mongoTemplate.getCollection(event.getCollectionName())
+                    .find(event.getSource())
+                    .projection(Projections.include("customerId", "transactionDate"))) {
+                Date date = transaction.getDate("transactionDate");
+                String customerId = transaction.getString("customerId");
+                if (date != null && customerId != null) {
+                    YearMonth month = YearMonth.from(date.toInstant().atZone(ZoneId.systemDefault()));
+                    if (closedMonthRewards.isClosed(month)) {
+                        closed.add(new MonthKey(customerId, month));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Could not look up the months of a transaction delete, bumping every generation after it: {}",
+                    e.getMessage());
+            closed = UNKNOWN;
+        }
+        deleting.set(closed);
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Transaction> event) {
+        // The month of a deleted transaction is not in the delete query, so drop the whole customer
+        Document query = event.getSource();
+        programAnalyticsService.clear();
+        if (query.get("customerId") instanceof String customerId) {
+            closedMonthRewards.invalidate(customerId);
+        } else {
+            closedMonthRewards.clear();
+        }
+        Set<MonthKey> closed = deleting.get();
+        deleting.remove();
+        if (closed == UNKNOWN) {
+            bumpAll();
+        } else if (closed != null) {
+            closed.forEach(this::bump);
+        }
+    }
+
+    private void bump(MonthKey key) {
+        try {
+            rewardsVersions.bumpMonth(key.customerId(), key.month());
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Could not bump the generation of {} {}, bumping every version instead: {}",
+                    key.customerId(), key.month(), e.getMessage());
+            bumpAll();
+        }
+    }
+
+    private void bumpAll() {
+        try {
+            rewardsVersions.bumpAll();
+        } catch (RuntimeException e) {
+            log.error("Could not bump rewards versions after a transaction write; retrying before the next is served", e);
+            rewardsVersions.bumpAllLater();
+        }
+    }
+
+    private record MonthKey(String customerId, YearMonth month) {
+    }
+}
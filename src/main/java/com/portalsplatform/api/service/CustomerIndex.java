@@ -0,0 +1,244 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.portalsplatform.api.config.CustomerIndexProperties;
+import com.portalsplatform.api.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Customer id membership index for the request path.
+ * <p>
+ * A {@link ScalableBloomFilter} of every customer id answers "definitely absent" without a
+ * Mongo round trip; possible matches are confirmed once against Mongo and then remembered in a
+ * small LRU cache. The filter is loaded at startup and kept current from local creates and,
+ * on a replica set, a change stream on {@code customers}, so customers created by other
+ * instances or loaders are never reported missing. Deletes, local or seen on the change stream,
+ * evict confirmed ids so a deleted customer is looked up in Mongo again. Until the first load
+ * completes every lookup goes to Mongo. Without change streams (a standalone server) nothing
+ * could keep the filter current, so it is never loaded and every lookup goes to Mongo.
+ */
+@Component
+@Slf4j
+public class CustomerIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final CustomerRepository customerRepository;
+    private final CustomerIndexProperties properties;
+    private final Map<String, Boolean> confirmed;
+    private final ExecutorService watcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "customer-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter definiteNegatives;
+    private final Counter cacheHits;
+    private final Counter confirmedPositives;
+    private final Counter falsePositives;
+
+    private volatile ScalableBloomFilter filter;
+    // Filter being loaded; local creates go to it too so none are lost to the swap
+    private volatile ScalableBloomFilter loading;
+    private volatile boolean running;
+
+    public CustomerIndex(MongoTemplate mongoTemplate, CustomerRepository customerRepository,
+                         CustomerIndexProperties properties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.customerRepository = customerRepository;
+        this.properties = properties;
+        int cacheSize = properties.getConfirmedCacheSize();
+        this.confirmed = Collections.synchronizedMap(new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        this.definiteNegatives = lookupCounter(meterRegistry, "definite_negative");
+        this.cacheHits = lookupCounter(meterRegistry, "cache_hit");
+        this.confirmedPositives = lookupCounter(meterRegistry, "confirmed_positive");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        Gauge.builder("customers.index.memory", this, index -> index.filter != null ? index.filter.memoryBytes() : 0)
+                .baseUnit("bytes")
+                .description("Memory held by the customer id Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("customers.index.false_positive_rate", this,
+                        index -> index.filter != null ? index.filter.estimatedFalsePositiveRate() : 0)
+                .description("Expected false positive rate of the customer id Bloom filter at its current fill")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("customers.index.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Same answer as {@link CustomerRepository#existsByCustomerId}, usually without asking Mongo.
+     */
+    public boolean exists(String customerId) {
+        ScalableBloomFilter current = filter;
+        if (current == null || customerId == null) {
+            return customerRepository.existsByCustomerId(customerId);
+        }
+        if (!current.mightContain(customerId)) {
+            definiteNegatives.increment();
+            return false;
+        }
+        if (confirmed.containsKey(customerId)) {
+            cacheHits.increment();
+            return true;
+        }
+        if (customerRepository.existsByCustomerId(customerId)) {
+            confirmedPositives.increment();
+            confirmed.put(customerId, Boolean.TRUE);
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Record a customer created by this instance.
+     */
+    public void added(String customerId) {
+        ScalableBloomFilter next = loading;
+        if (next != null) {
+            next.add(customerId);
+        }
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.add(customerId);
+        }
+        confirmed.put(customerId, Boolean.TRUE);
+    }
+
+    /**
+     * Record a deleted customer. The filter cannot forget it, so the next lookup asks Mongo again.
+     */
+    public void removed(String customerId) {
+        confirmed.remove(customerId);
+    }
+
+    /**
+     * Record deleted customers whose ids are unknown: every lookup asks Mongo again once.
+     */
+    public void removedAll() {
+        confirmed.clear();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled() && !running) {
+            running = true;
+            watcher.submit(this::run);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        watcher.shutdownNow();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (!isReplicaSet()) {
+                    // A filter nothing keeps current would answer 404 for customers created elsewhere
+                    log.info("MongoDB has no change streams; customer index disabled, every lookup asks Mongo");
+                    return;
+                }
+                // Open the stream before loading so inserts made during the load are not missed;
+                // adding an id twice is harmless
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = customers()
+                        .watch(List.of(Aggregates.match(Filters.in("operationType", "insert", "delete"))))
+                        .cursor()) {
+                    load();
+                    while (running) {
+                        ChangeStreamDocument<Document> event = cursor.tryNext();
+                        if (event != null && event.getOperationType() == OperationType.DELETE) {
+                            // Delete events carry only the _id; deletes are rare enough to forget all
+                            removedAll();
+                        } else if (event != null && event.getFullDocument() != null) {
+                            String customerId = event.getFullDocument().getString("customerId");
+                            if (customerId != null) {
+                                filter.add(customerId);
+                            }
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                // Inserts may have been missed while disconnected: fall back to Mongo until reloaded
+                filter = null;
+                log.error("Customer index failed, reloading in {}", properties.getRetryBackoff(), e);
+                try {
+                    Thread.sleep(properties.getRetryBackoff().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        long expected = Math.max(properties.getInitialCapacity(), customers().estimatedDocumentCount() * 5 / 4);
+        ScalableBloomFilter loaded = new ScalableBloomFilter(expected, properties.getFalsePositiveRate());
+        loading = loaded;
+        for (Document customer : customers().find().projection(Projections.include("customerId")).batchSize(10_000)) {
+            String customerId = customer.getString("customerId");
+            if (customerId != null) {
+                loaded.add(customerId);
+            }
+        }
+        loaded(loaded);
+        log.info("Customer index loaded: {} ids, {} KiB, expected false positive rate {}, {} ms",
+                loaded.size(), loaded.memoryBytes() / 1024,
+                String.format("%.4f", loaded.estimatedFalsePositiveRate()), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Start answering from {@code loaded}, which holds every customer id.
+     */
+    void loaded(ScalableBloomFilter loaded) {
+        filter = loaded;
+        loading = null;
+    }
+
+    private boolean isReplicaSet() {
+        Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+        return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+    }
+
+    private MongoCollection<Document> customers() {
+        return mongoTemplate.getDb().getCollection("customers");
+    }
+}
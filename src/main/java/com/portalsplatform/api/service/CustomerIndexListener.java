@@ -0,0 +1,29 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.model.Customer;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells the {@link CustomerIndex} about customers deleted through Spring Data on this instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerIndexListener extends AbstractMongoEventListener<Customer> {
+
+    private final CustomerIndex customerIndex;
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Customer> event) {
+        // Deletes by business id carry it in the query; anything else (e.g. by _id) forgets everything
+        Document query = event.getSource();
+        if (query.get("customerId") instanceof String customerId) {
+            customerIndex.removed(customerId);
+        } else {
+            customerIndex.removedAll();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.CustomerCacheProperties;
+import com.portalsplatform.api.model.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of customer display names for rewards responses.
+ * <p>
+ * Only the two name parts are kept, interned so the many customers sharing a first or last
+ * name share one copy. Entries live in LRU segments selected by key hash, so concurrent
+ * readers of different customers rarely contend on the same lock. Saves and deletes through
+ * Spring Data evict entries via {@link CustomerNameCacheListener}; changes made outside this
+ * instance are not seen until the entry is evicted.
+ */
+@Component
+public class CustomerNameCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Counter hits;
+    private final Counter misses;
+
+    public CustomerNameCache(CustomerCacheProperties properties, MeterRegistry meterRegistry) {
+        int perSegment = Math.max(1, properties.getMaxEntries() / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.hits = Counter.builder("customers.name_cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("customers.name_cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("customers.name_cache.size", this, CustomerNameCache::size)
+                .description("Customer display names held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param loader looks the customer up on a miss; empty results are not cached
+     * @return "firstName lastName", or empty if the customer does not exist
+     */
+    public Optional<String> displayName(String customerId, Function<String, Optional<Customer>> loader) {
+        Segment segment = segmentFor(customerId);
+        Name name;
+        synchronized (segment) {
+            name = segment.get(customerId);
+        }
+        if (name != null) {
+            hits.increment();
+            return Optional.of(name.displayName());
+        }
+        misses.increment();
+        Optional<Customer> customer = loader.apply(customerId);
+        if (customer.isEmpty()) {
+            return Optional.empty();
+        }
+        name = Name.of(customer.get());
+        synchronized (segment) {
+            segment.put(customerId, name);
+        }
+        return Optional.of(name.displayName());
+    }
+
+    public void evict(String customerId) {
+        if (customerId == null) {
+            return;
+        }
+        Segment segment = segmentFor(customerId);
+        synchronized (segment) {
+            segment.remove(customerId);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String customerId) {
+        int hash = customerId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Name(String firstName, String lastName) {
+
+        static Name of(Customer customer) {
+            return new Name(intern(customer.getFirstName()), intern(customer.getLastName()));
+        }
+
+        private static String intern(String part) {
+            return part != null ? part.intern() : null;
+        }
+
+        // Same format RewardsServiceImpl has always produced, including "null" for a missing part
+        String displayName() {
+            return firstName + " " + lastName;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Name> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Name> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.model.Customer;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached display names when customers are saved or deleted through Spring Data.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerNameCacheListener extends AbstractMongoEventListener<Customer> {
+
+    private final CustomerNameCache customerNameCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Customer> event) {
+        customerNameCache.evict(event.getSource().getCustomerId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Customer> event) {
+        // Deletes by business id carry it in the query; anything else (e.g. by _id) clears everything
+        Document query = event.getSource();
+        if (query.get("customerId") instanceof String customerId) {
+            customerNameCache.evict(customerId);
+        } else {
+            customerNameCache.clear();
+        }
+    }
+}
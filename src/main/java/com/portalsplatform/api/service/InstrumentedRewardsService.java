@@ -0,0 +1,89 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.HedgedReads;
+import com.portalsplatform.api.config.ReadRouting;
+import com.portalsplatform.api.metrics.StageMetrics;
+import com.portalsplatform.api.model.dto.RewardsField;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Times each {@link RewardsService} call before handing it to {@link RewardsServiceImpl}, with
+ * its Mongo reads routed through {@link ReadRouting#secondary} and, if enabled, hedged by
+ * {@link HedgedReads} against the latencies of the same operation.
+ * <p>
+ * Identical concurrent calls are coalesced by {@link RequestCoalescer}. The session token and the
+ * request's {@link RewardsVersions} version are part of the key, so a caller waiting on its own
+ * write, or about to tag the result with an ETag, never shares a computation started before it.
+ * <p>
+ * Results are remembered by {@link LastKnownRewards}, which answers with the last good response
+ * for the same call while MongoDB is unavailable.
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+public class InstrumentedRewardsService implements RewardsService {
+
+    private final RewardsServiceImpl delegate;
+    private final StageMetrics stageMetrics;
+    private final HedgedReads hedgedReads;
+    private final RequestCoalescer requestCoalescer;
+    private final LastKnownRewards lastKnownRewards;
+
+    @Override
+    public RewardsResponse calculateTotalRewards(String customerId) {
+        return calculateTotalRewards(customerId, RewardsField.ALL);
+    }
+
+    @Override
+    public RewardsResponse calculateTotalRewards(String customerId, Set<RewardsField> fields) {
+        return stageMetrics.record("service.total_rewards",
+                () -> coalesced("total", customerId, null, fields,
+                        () -> delegate.calculateTotalRewards(customerId, fields)));
+    }
+
+    @Override
+    public RewardsResponse calculateMonthlyRewards(String customerId, String yearMonth) {
+        return calculateMonthlyRewards(customerId, yearMonth, RewardsField.ALL);
+    }
+
+    @Override
+    public RewardsResponse calculateMonthlyRewards(String customerId, String yearMonth, Set<RewardsField> fields) {
+        return stageMetrics.record("service.monthly_rewards",
+                () -> coalesced("monthly", customerId, yearMonth, fields,
+                        () -> delegate.calculateMonthlyRewards(customerId, yearMonth, fields)));
+    }
+
+    @Override
+    public RewardsResponse calculateRewardsForLastMonths(String customerId, int months) {
+        return calculateRewardsForLastMonths(customerId, months, RewardsField.ALL);
+    }
+
+    @Override
+    public RewardsResponse calculateRewardsForLastMonths(String customerId, int months, Set<RewardsField> fields) {
+        return stageMetrics.record("service.recent_rewards",
+                () -> coalesced("recent", customerId, months, fields,
+                        () -> delegate.calculateRewardsForLastMonths(customerId, months, fields)));
+    }
+
+    private RewardsResponse coalesced(String operation, String customerId, Object argument,
+                                      Set<RewardsField> fields, Supplier<RewardsResponse> work) {
+        String sessionToken = ReadRouting.requestSessionToken();
+        Call call = new Call(operation, customerId, argument, fields);
+        Flight flight = new Flight(call, sessionToken, RewardsVersions.requestVersion());
+        return lastKnownRewards.call(call, () -> requestCoalescer.execute(flight,
+                () -> hedgedReads.read(operation, sessionToken, work)));
+    }
+
+    // What a response answers; a stale one may be served for any request making the same call
+    private record Call(String operation, String customerId, Object argument, Set<RewardsField> fields) {
+    }
+
+    private record Flight(Call call, String sessionToken, Long version) {
+    }
+}
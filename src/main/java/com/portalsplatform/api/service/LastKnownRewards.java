@@ -0,0 +1,194 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.MongoCircuitBreaker;
+import com.portalsplatform.api.config.RewardsFallbackProperties;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Last good rewards response per call, served stale while MongoDB is unavailable.
+ * <p>
+ * Every successful call replaces the stored response for its key. When a call fails with an
+ * {@linkplain MongoCircuitBreaker#isUnavailable unavailability} error, including the breaker
+ * being open, the stored response is returned instead if it is younger than
+ * {@code max-staleness}; its age is recorded in the request's {@link CallContext} so the controller
+ * can label the response, and the call is queued to be recomputed in the background until
+ * MongoDB answers again. Any other error, or a miss, is rethrown.
+ * <p>
+ * Entries live in one LRU map bounded by {@code max-entries}, and are lost on restart.
+ */
+@Component
+@Slf4j
+public class LastKnownRewards implements DisposableBean {
+
+    private final RewardsFallbackProperties properties;
+    private final Clock clock;
+    private final Map<Object, Entry> entries;
+    private final Map<Object, Supplier<RewardsResponse>> pendingRefreshes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "rewards-fallback-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter unavailable;
+    private final Timer staleness;
+
+    @Autowired
+    public LastKnownRewards(RewardsFallbackProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    LastKnownRewards(RewardsFallbackProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        int capacity = Math.max(1, properties.getMaxEntries());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.fresh = calls(meterRegistry, "fresh");
+        this.stale = calls(meterRegistry, "stale");
+        this.unavailable = calls(meterRegistry, "unavailable");
+        this.staleness = Timer.builder("rewards.fallback.staleness")
+                .description("Age of stale rewards responses served while MongoDB was unavailable")
+                .register(meterRegistry);
+        Gauge.builder("rewards.fallback.entries", this, LastKnownRewards::size)
+                .description("Last good rewards responses held in memory")
+                .register(meterRegistry);
+        Gauge.builder("rewards.fallback.pending_refreshes", pendingRefreshes, Map::size)
+                .description("Stale rewards responses waiting to be recomputed")
+                .register(meterRegistry);
+        long intervalMillis = properties.getRefreshInterval().toMillis();
+        if (properties.isEnabled() && intervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::refreshPending, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Run {@code work} and remember its result under {@code key}, or fall back to the last
+     * remembered result if MongoDB is unavailable.
+     */
+    public RewardsResponse call(Object key, Supplier<RewardsResponse> work) {
+        if (!properties.isEnabled()) {
+            return work.get();
+        }
+        RewardsResponse response;
+        try {
+            response = work.get();
+        } catch (RuntimeException e) {
+            if (!MongoCircuitBreaker.isUnavailable(e)) {
+                throw e;
+            }
+            Entry entry = get(key);
+            Duration age = entry != null ? Duration.between(entry.computedAt(), clock.instant()) : null;
+            if (age == null || age.compareTo(properties.getMaxStaleness()) > 0) {
+                unavailable.increment();
+                throw e;
+            }
+            stale.increment();
+            staleness.record(age);
+            pendingRefreshes.putIfAbsent(key, work);
+            CallContext context = CallContext.current();
+            if (context != null) {
+                context.setStaleness(age);
+            }
+            log.debug("Serving {} old rewards for {} while MongoDB is unavailable: {}", age, key, e.getMessage());
+            return entry.response();
+        }
+        fresh.increment();
+        put(key, response);
+        return response;
+    }
+
+    /**
+     * Age of the stale response served to the current request, or null if it was computed fresh.
+     */
+    public static Duration requestStaleness() {
+        CallContext context = CallContext.current();
+        return context != null ? context.staleness() : null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Recompute the calls that were answered stale. Stops at the first one MongoDB is still
+     * unavailable for and leaves the rest for the next round; calls failing for any other
+     * reason, such as the customer having been deleted, are dropped along with their entry.
+     */
+    void refreshPending() {
+        for (Object key : new ArrayList<>(pendingRefreshes.keySet())) {
+            Supplier<RewardsResponse> work = pendingRefreshes.get(key);
+            if (work == null) {
+                continue;
+            }
+            try {
+                put(key, work.get());
+                pendingRefreshes.remove(key, work);
+            } catch (RuntimeException e) {
+                if (MongoCircuitBreaker.isUnavailable(e)) {
+                    return;
+                }
+                log.debug("Dropping stale rewards for {}: {}", key, e.getMessage());
+                pendingRefreshes.remove(key, work);
+                remove(key);
+            }
+        }
+    }
+
+    int pendingRefreshes() {
+        return pendingRefreshes.size();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized Entry get(Object key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(Object key, RewardsResponse response) {
+        entries.put(key, new Entry(response, clock.instant()));
+    }
+
+    private synchronized void remove(Object key) {
+        entries.remove(key);
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("rewards.fallback.calls")
+                .description("Rewards calls answered fresh, from the last good response, or not at all")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(RewardsResponse response, Instant computedAt) {
+    }
+}
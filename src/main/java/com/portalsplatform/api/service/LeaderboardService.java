@@ -0,0 +1,384 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.portalsplatform.api.config.LeaderboardProperties;
+import com.portalsplatform.api.model.LeaderboardRecord;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.LeaderboardResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Top-N points rankings for all time and per month.
+ * <p>
+ * Rankings for all time and the most recent months are kept in memory and updated on every
+ * transaction save; the same increments are persisted to the leaderboard collection, which
+ * also serves months that have aged out of memory. Persisting is best-effort and off the save
+ * path: increments queue for a single writer thread, and those that fail or find the queue full
+ * are counted in {@code rewards.leaderboard.persist_failures} and repaired by the next rebuild.
+ * <p>
+ * On startup every instance rebuilds its in-memory rankings from the transactions collection. Saves
+ * keep recording while it aggregates and are applied again on top of its result, so only a save
+ * the aggregation already saw is counted twice. One instance, holding the {@value #REBUILD_LEASE}
+ * lease, also rewrites the persisted copy: into a side collection, renamed over the live one once
+ * complete, so readers never see it partly built. Increments other instances persist while it
+ * aggregates may be lost or counted twice until the next rebuild.
+ */
+@Service
+@Slf4j
+public class LeaderboardService {
+
+    public static final String REBUILD_LEASE = "leaderboard-rebuild";
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaderboardProperties properties;
+    private final Leases leases;
+    private final Map<String, RankedBoard> boards = new ConcurrentHashMap<>();
+    // Held for writing only to start capturing saves and to swap in a rebuild, never while it aggregates
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    // Saves recorded while a rebuild aggregates, or null outside one
+    private Queue<Increment> duringRebuild;
+    private final ThreadPoolExecutor persister;
+    private final Timer persist;
+    private final Counter persistFailures;
+
+    public LeaderboardService(MongoTemplate mongoTemplate, LeaderboardProperties properties, Leases leases,
+                              MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.leases = leases;
+        this.persister = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(properties.getPersistQueueCapacity()), r -> {
+                    Thread thread = new Thread(r, "leaderboard-persist");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.persist = Timer.builder("rewards.leaderboard.persist")
+                .description("Time spent writing a transaction's leaderboard increments, off the save path")
+                .register(meterRegistry);
+        this.persistFailures = Counter.builder("rewards.leaderboard.persist_failures")
+                .description("Leaderboard increments that could not be persisted or queued")
+                .register(meterRegistry);
+        Gauge.builder("rewards.leaderboard.persist_queue", persister, executor -> executor.getQueue().size())
+                .description("Leaderboard increments waiting to be persisted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apply a newly saved transaction to the all-time and monthly rankings. Never fails the save.
+     */
+    public void record(Transaction transaction) {
+        int points = transaction.getPointsEarned() != null ? transaction.getPointsEarned() : 0;
+        if (points <= 0 || transaction.getTransactionDate() == null) {
+            return;
+        }
+        Increment increment = new Increment(transaction.getCustomerId(),
+                transaction.getTransactionDate().format(MONTH_FORMATTER), points);
+
+        rebuildLock.readLock().lock();
+        try {
+            apply(boards, increment);
+            if (duringRebuild != null) {
+                duringRebuild.add(increment);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+        persistLater(List.of(increment));
+    }
+
+    /**
+     * @param month "yyyy-MM", or null for the all-time ranking
+     * @param limit number of entries, capped at leaderboard.max-limit
+     */
+    public LeaderboardResponse top(String month, int limit) {
+        if (limit < 1 || limit > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getMaxLimit());
+        }
+        String period = month != null ? parseMonth(month) : LeaderboardRecord.ALL_TIME;
+
+        List<LeaderboardResponse.Entry> entries = new ArrayList<>(limit);
+        if (period.equals(LeaderboardRecord.ALL_TIME) || isRetained(period)) {
+            RankedBoard board = boards.get(period);
+            if (board != null) {
+                for (RankedBoard.Ranked ranked : board.top(limit)) {
+                    entries.add(new LeaderboardResponse.Entry(entries.size() + 1, ranked.customerId(), ranked.points()));
+                }
+            }
+        } else {
+            Query query = Query.query(Criteria.where("period").is(period))
+                    .with(Sort.by(Sort.Order.desc("points"), Sort.Order.asc("customerId")))
+                    .limit(limit);
+            for (LeaderboardRecord record : mongoTemplate.find(query, LeaderboardRecord.class)) {
+                entries.add(new LeaderboardResponse.Entry(entries.size() + 1, record.getCustomerId(), record.getPoints()));
+            }
+        }
+        return new LeaderboardResponse(month != null ? period : "All time", entries);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recompute every ranking from the transactions collection, and the persisted copy too if
+     * this instance wins the {@value #REBUILD_LEASE} lease.
+     */
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        rebuildLock.writeLock().lock();
+        try {
+            duringRebuild = new ConcurrentLinkedQueue<>();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+
+        Map<String, RankedBoard> rebuilt = new ConcurrentHashMap<>();
+        String side = null;
+        Queue<Increment> captured;
+        try {
+            side = acquireLease() ? "leaderboard_rebuild_" + UUID.randomUUID().toString().substring(0, 8) : null;
+            aggregate(rebuilt, side);
+        } catch (RuntimeException e) {
+            if (side != null) {
+                dropQuietly(side);
+                leases.release(REBUILD_LEASE);
+            }
+            throw e;
+        } finally {
+            rebuildLock.writeLock().lock();
+            try {
+                captured = duringRebuild;
+                duringRebuild = null;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+
+        rebuildLock.writeLock().lock();
+        try {
+            captured.forEach(increment -> apply(rebuilt, increment));
+            boards.clear();
+            boards.putAll(rebuilt);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        if (side != null) {
+            swapIn(side, List.copyOf(captured));
+        }
+
+        RankedBoard allTime = rebuilt.get(LeaderboardRecord.ALL_TIME);
+        log.info("Leaderboard rebuilt{}: {} customers ranked, {} months in memory, {} ms",
+                side != null ? " and persisted" : "", allTime != null ? allTime.size() : 0,
+                rebuilt.size() - (allTime != null ? 1 : 0), System.currentTimeMillis() - started);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        persister.shutdown();
+        persister.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private boolean acquireLease() {
+        try {
+            return leases.tryAcquire(REBUILD_LEASE, properties.getRebuildLease());
+        } catch (RuntimeException e) {
+            log.warn("Could not take the leaderboard rebuild lease, rebuilding in memory only: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Group transactions into {@code rebuilt}, and into the {@code side} collection if not null.
+     */
+    private void aggregate(Map<String, RankedBoard> rebuilt, String side) {
+        String timezone = ZoneId.systemDefault().getId();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("pointsEarned").gt(0)),
+                Aggregation.project("customerId", "pointsEarned")
+                        .and(DateOperators.DateToString.dateOf("transactionDate")
+                                .toString("%Y-%m")
+                                .withTimezone(DateOperators.Timezone.valueOf(timezone)))
+                        .as("month"),
+                Aggregation.group("customerId", "month").sum("pointsEarned").as("points")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        BulkOperations bulk = side != null ? mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, side) : null;
+        int pending = 0;
+        try (Stream<Document> groups = mongoTemplate.aggregateStream(aggregation, "transactions", Document.class)) {
+            for (Document group : (Iterable<Document>) groups::iterator) {
+                Document id = group.get("_id", Document.class);
+                String customerId = id.getString("customerId");
+                String month = id.getString("month");
+                long points = ((Number) group.get("points")).longValue();
+
+                rebuilt.computeIfAbsent(LeaderboardRecord.ALL_TIME, p -> new RankedBoard()).add(customerId, points);
+                if (isRetained(month)) {
+                    rebuilt.computeIfAbsent(month, p -> new RankedBoard()).add(customerId, points);
+                }
+                if (bulk == null) {
+                    continue;
+                }
+                bulk.upsert(Query.query(Criteria.where("_id").is(LeaderboardRecord.idFor(LeaderboardRecord.ALL_TIME, customerId))),
+                        new Update().setOnInsert("period", LeaderboardRecord.ALL_TIME)
+                                .setOnInsert("customerId", customerId)
+                                .inc("points", points));
+                bulk.upsert(Query.query(Criteria.where("_id").is(LeaderboardRecord.idFor(month, customerId))),
+                        new Update().setOnInsert("period", month)
+                                .setOnInsert("customerId", customerId)
+                                .set("points", points));
+                if (++pending == 1_000) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, side);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+
+    /**
+     * Rename {@code side} over the live collection, then persist the saves recorded meanwhile again,
+     * since their first writes went to the collection it replaced. Runs on the persist thread, so
+     * every increment queued before the swap lands before it and every one after lands after it.
+     */
+    private void swapIn(String side, List<Increment> captured) {
+        Runnable swap = () -> {
+            try {
+                mongoTemplate.indexOps(side).createIndex(new Index()
+                        .on("period", Sort.Direction.ASC).on("points", Sort.Direction.DESC).named("period_points_idx"));
+                String live = mongoTemplate.getCollectionName(LeaderboardRecord.class);
+                mongoTemplate.getCollection(side).renameCollection(
+                        new MongoNamespace(mongoTemplate.getDb().getName(), live),
+                        new RenameCollectionOptions().dropTarget(true));
+                persistNow(captured);
+            } catch (RuntimeException e) {
+                persistFailures.increment();
+                log.error("Could not swap in the rebuilt leaderboard, keeping the current one", e);
+                dropQuietly(side);
+            } finally {
+                leases.release(REBUILD_LEASE);
+            }
+        };
+        try {
+            persister.execute(swap);
+        } catch (RejectedExecutionException e) {
+            swap.run();
+        }
+    }
+
+    private void dropQuietly(String collection) {
+        try {
+            mongoTemplate.dropCollection(collection);
+        } catch (RuntimeException e) {
+            log.warn("Could not drop {}: {}", collection, e.getMessage());
+        }
+    }
+
+    private void persistLater(List<Increment> increments) {
+        try {
+            persister.execute(() -> persistNow(increments));
+        } catch (RejectedExecutionException e) {
+            persistFailures.increment(increments.size());
+        }
+    }
+
+    private void persistNow(List<Increment> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LeaderboardRecord.class);
+            for (Increment increment : increments) {
+                for (String period : List.of(LeaderboardRecord.ALL_TIME, increment.month())) {
+                    bulk.upsert(Query.query(Criteria.where("_id").is(LeaderboardRecord.idFor(period, increment.customerId()))),
+                            new Update().setOnInsert("period", period)
+                                    .setOnInsert("customerId", increment.customerId())
+                                    .inc("points", increment.points()));
+                }
+            }
+            persist.record(bulk::execute);
+        } catch (RuntimeException e) {
+            persistFailures.increment(increments.size());
+            log.warn("Could not persist {} leaderboard increments: {}", increments.size(), e.getMessage());
+        }
+    }
+
+    private void apply(Map<String, RankedBoard> target, Increment increment) {
+        target.computeIfAbsent(LeaderboardRecord.ALL_TIME, p -> new RankedBoard())
+                .add(increment.customerId(), increment.points());
+        if (isRetained(increment.month())) {
+            RankedBoard board = target.get(increment.month());
+            if (board == null) {
+                board = target.computeIfAbsent(increment.month(), p -> new RankedBoard());
+                evictExpiredMonths(target);
+            }
+            board.add(increment.customerId(), increment.points());
+        }
+    }
+
+    private void evictExpiredMonths(Map<String, RankedBoard> target) {
+        target.keySet().removeIf(period -> !period.equals(LeaderboardRecord.ALL_TIME) && !isRetained(period));
+    }
+
+    private boolean isRetained(String month) {
+        String oldest = YearMonth.now().minusMonths(properties.getRetainedMonths() - 1L).format(MONTH_FORMATTER);
+        // yyyy-MM strings sort chronologically
+        return month.compareTo(oldest) >= 0;
+    }
+
+    private static String parseMonth(String month) {
+        try {
+            return YearMonth.parse(month, MONTH_FORMATTER).format(MONTH_FORMATTER);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid month format. Use yyyy-MM format: " + month);
+        }
+    }
+
+    private record Increment(String customerId, String month, long points) {
+    }
+}
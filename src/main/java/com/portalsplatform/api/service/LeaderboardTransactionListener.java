@@ -0,0 +1,23 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds every saved transaction into the leaderboard. Transactions are never updated
+ * through the API, so each save is treated as a new transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardTransactionListener extends AbstractMongoEventListener<Transaction> {
+
+    private final LeaderboardService leaderboardService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Transaction> event) {
+        leaderboardService.record(event.getSource());
+    }
+}
@@ -0,0 +1,68 @@
+package com.portalsplatform.api.service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Named leases in {@value #COLLECTION}, electing one instance for work that must have a single
+ * writer across the deployment.
+ * <p>
+ * A lease is a document keyed by its name that records its owner and when it expires. It is taken
+ * when free or expired and renewed by calling {@link #tryAcquire} again before it expires; a
+ * competing insert fails on the {@code _id} index, so at most one instance holds it at a time.
+ * Expiry is measured on the instances' clocks, so the ttl must be well above their skew.
+ */
+@Component
+public class Leases {
+
+    public static final String COLLECTION = "leases";
+
+    private final MongoTemplate mongoTemplate;
+    // pid@host, plus a random suffix so a restarted process never inherits its predecessor's leases
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    public Leases(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Take or renew {@code name} for {@code ttl}.
+     *
+     * @return false if another instance holds it
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        Date now = new Date();
+        Query query = Query.query(Criteria.where("_id").is(name)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update().set("owner", owner)
+                .set("expiresAt", new Date(now.getTime() + ttl.toMillis()));
+        try {
+            mongoTemplate.upsert(query, update, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Held by another instance: the upsert found no match and its insert collided
+            return false;
+        }
+    }
+
+    /**
+     * Give up {@code name} if this instance holds it.
+     */
+    public void release(String name) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(name).and("owner").is(owner)), COLLECTION);
+    }
+
+    public String owner() {
+        return owner;
+    }
+}
@@ -0,0 +1,222 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.AnalyticsProperties;
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.ProgramAnalyticsResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.BucketOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Program-wide KPIs for a month: points issued, active customers and the distribution of
+ * points per customer.
+ * <p>
+ * The transactions collection is split into customerId ranges whose boundaries come from a
+ * random sample, so each range holds roughly the same number of transactions. Each range is
+ * aggregated on its own pool thread, under the request's deadline, and the per-bucket partial
+ * results are summed. Closed
+ * months are cached, but backdated transactions and bulk loads can still change them: saves and
+ * deletes through Spring Data on this instance invalidate the month (see
+ * {@link ClosedMonthTransactionListener}), and writes that bypass it, from other instances or the
+ * data generator, show up once {@code analytics.closed-month-ttl} has passed.
+ */
+@Service
+@Slf4j
+public class ProgramAnalyticsService {
+
+    private final MongoTemplate mongoTemplate;
+    private final AnalyticsProperties properties;
+    private final ForkJoinPool pool;
+    private final Map<YearMonth, Cached> closedMonths = new ConcurrentHashMap<>();
+    // Bumped by every invalidation so a computation racing one is not stored
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProgramAnalyticsService(MongoTemplate mongoTemplate, AnalyticsProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getPartitions()));
+    }
+
+    public ProgramAnalyticsResponse monthlyAnalytics(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            return compute(month, properties.getPartitions());
+        }
+        Cached cached = closedMonths.get(month);
+        if (cached != null && System.nanoTime() - cached.computedAt() < properties.getClosedMonthTtl().toNanos()) {
+            return cached.response();
+        }
+        // Computed outside the map, so a slow month never holds up requests for other months
+        long generation = invalidations.get();
+        Cached computed = new Cached(compute(month, properties.getPartitions()), System.nanoTime());
+        closedMonths.put(month, computed);
+        if (invalidations.get() != generation) {
+            // An invalidation ran meanwhile; the figures may predate its transaction
+            closedMonths.remove(month, computed);
+        }
+        return computed.response();
+    }
+
+    /**
+     * Forget a closed month, e.g. after a backdated transaction.
+     */
+    public void invalidate(YearMonth month) {
+        invalidations.incrementAndGet();
+        closedMonths.remove(month);
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        closedMonths.clear();
+    }
+
+    /**
+     * Aggregate one month across the given number of customerId ranges, bypassing the cache.
+     */
+    public ProgramAnalyticsResponse compute(YearMonth month, int partitions) {
+        long started = System.nanoTime();
+        List<String> boundaries = partitionBoundaries(Math.max(1, partitions));
+
+        // Partitions run under the request's context, so each aggregation gets its deadline as maxTimeMS
+        CallContext context = CallContext.current();
+        List<CompletableFuture<Partial>> futures = new ArrayList<>(boundaries.size() + 1);
+        for (int i = 0; i <= boundaries.size(); i++) {
+            String from = i == 0 ? null : boundaries.get(i - 1);
+            String to = i == boundaries.size() ? null : boundaries.get(i);
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> CallContext.with(context, () -> aggregateRange(month, from, to)), pool));
+        }
+
+        Partial total = new Partial(properties.getDistributionBoundaries().length);
+        for (CompletableFuture<Partial> future : futures) {
+            total.add(future.join());
+        }
+
+        log.debug("Analytics for {} computed over {} partitions in {} ms",
+                month, futures.size(), (System.nanoTime() - started) / 1_000_000);
+        return total.toResponse(month, properties.getDistributionBoundaries());
+    }
+
+    /**
+     * Sorted, distinct customerIds splitting the sampled transactions into equal-sized ranges.
+     */
+    List<String> partitionBoundaries(int partitions) {
+        if (partitions == 1) {
+            return List.of();
+        }
+        Aggregation sample = Aggregation.newAggregation(
+                Aggregation.sample((long) partitions * properties.getSamplesPerPartition()),
+                Aggregation.project("customerId"));
+        List<String> sampled = new ArrayList<>();
+        for (Document document : mongoTemplate.aggregate(sample, "transactions", Document.class)) {
+            String customerId = document.getString("customerId");
+            if (customerId != null) {
+                sampled.add(customerId);
+            }
+        }
+        sampled.sort(null);
+
+        List<String> boundaries = new ArrayList<>(partitions - 1);
+        for (int i = 1; i < partitions && !sampled.isEmpty(); i++) {
+            String boundary = sampled.get(i * sampled.size() / partitions);
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+        return boundaries;
+    }
+
+    private Partial aggregateRange(YearMonth month, String from, String to) {
+        long[] bounds = properties.getDistributionBoundaries();
+        Criteria criteria = Criteria.where("transactionDate")
+                .gte(month.atDay(1).atStartOfDay())
+                .lt(month.plusMonths(1).atDay(1).atStartOfDay());
+        if (from != null || to != null) {
+            Criteria range = Criteria.where("customerId");
+            if (from != null) {
+                range = range.gte(from);
+            }
+            if (to != null) {
+                range = range.lt(to);
+            }
+            criteria = new Criteria().andOperator(criteria, range);
+        }
+
+        BucketOperation buckets = Aggregation.bucket("points")
+                .withBoundaries(Arrays.stream(bounds).boxed().toArray())
+                .withDefaultBucket(bounds[bounds.length - 1])
+                .andOutputCount().as("customers")
+                .andOutput("points").sum().as("points")
+                .andOutput("transactions").sum().as("transactions");
+        List<AggregationOperation> operations = List.of(
+                Aggregation.match(criteria),
+                Aggregation.group("customerId").sum("pointsEarned").as("points").count().as("transactions"),
+                buckets);
+
+        Partial partial = new Partial(bounds.length);
+        for (Document bucket : mongoTemplate.aggregate(
+                Aggregation.newAggregation(Transaction.class, operations), Document.class)) {
+            int index = Arrays.binarySearch(bounds, ((Number) bucket.get("_id")).longValue());
+            partial.customers[index] += ((Number) bucket.get("customers")).longValue();
+            partial.points += ((Number) bucket.get("points")).longValue();
+            partial.transactions += ((Number) bucket.get("transactions")).longValue();
+        }
+        return partial;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record Cached(ProgramAnalyticsResponse response, long computedAt) {
+    }
+
+    /**
+     * Mergeable per-range totals.
+     */
+    private static final class Partial {
+        final long[] customers;
+        long points;
+        long transactions;
+
+        Partial(int buckets) {
+            this.customers = new long[buckets];
+        }
+
+        void add(Partial other) {
+            for (int i = 0; i < customers.length; i++) {
+                customers[i] += other.customers[i];
+            }
+            points += other.points;
+            transactions += other.transactions;
+        }
+
+        ProgramAnalyticsResponse toResponse(YearMonth month, long[] bounds) {
+            long active = Arrays.stream(customers).sum();
+            List<ProgramAnalyticsResponse.PointsBucket> distribution = new ArrayList<>(bounds.length);
+            for (int i = 0; i < bounds.length; i++) {
+                Long max = i + 1 < bounds.length ? bounds[i + 1] : null;
+                distribution.add(new ProgramAnalyticsResponse.PointsBucket(bounds[i], max, customers[i]));
+            }
+            return new ProgramAnalyticsResponse(month.toString(), points, active, transactions,
+                    active == 0 ? 0 : (double) points / active, distribution);
+        }
+    }
+}
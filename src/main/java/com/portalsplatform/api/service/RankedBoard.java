@@ -0,0 +1,52 @@
+package com.portalsplatform.api.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Customers ranked by points for a single leaderboard period.
+ * <p>
+ * Writers are serialized on the board; readers walk the skip list without locking, so a
+ * top-N read costs N steps regardless of how many customers are ranked. A reader racing an
+ * update may briefly miss the customer being moved.
+ */
+final class RankedBoard {
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingLong(Ranked::points).reversed()
+            .thenComparing(Ranked::customerId);
+
+    private final Map<String, Long> points = new HashMap<>();
+    private final ConcurrentSkipListSet<Ranked> ranking = new ConcurrentSkipListSet<>(ORDER);
+
+    synchronized void add(String customerId, long delta) {
+        Long previous = points.get(customerId);
+        long updated = (previous != null ? previous : 0) + delta;
+        if (previous != null) {
+            ranking.remove(new Ranked(customerId, previous));
+        }
+        points.put(customerId, updated);
+        ranking.add(new Ranked(customerId, updated));
+    }
+
+    List<Ranked> top(int limit) {
+        List<Ranked> top = new ArrayList<>(Math.min(limit, 128));
+        Iterator<Ranked> iterator = ranking.iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            top.add(iterator.next());
+        }
+        return top;
+    }
+
+    synchronized int size() {
+        return points.size();
+    }
+
+    record Ranked(String customerId, long points) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoOperationTimeoutException;
+import com.portalsplatform.api.config.RequestDeadline;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution: concurrent calls with an equal key share one in-flight computation.
+ * <p>
+ * The first caller runs the work on its own thread; callers arriving while it runs wait for the
+ * same result or exception, but no longer than their own request deadline. A caller whose deadline
+ * passes first runs the work itself, so it fails or succeeds on its own terms instead of hanging on
+ * a slow leader; so does a caller whose leader failed on the leader's own deadline. The key is removed as soon as the work finishes, so nothing is cached and a call
+ * arriving afterwards starts a fresh computation. Calls are counted in {@value #METRIC_NAME} tagged
+ * {@code result=executed|coalesced}; coalesced calls that gave up waiting are also counted as
+ * {@code result=independent}.
+ */
+@Component
+public class RequestCoalescer {
+
+    public static final String METRIC_NAME = "rewards.coalescing.calls";
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter independent;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.executed = Counter.builder(METRIC_NAME)
+                .description("Calls that ran or joined a single-flight computation")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder(METRIC_NAME)
+                .description("Calls that ran or joined a single-flight computation")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        this.independent = Counter.builder(METRIC_NAME)
+                .description("Calls that ran or joined a single-flight computation")
+                .tag("result", "independent")
+                .register(meterRegistry);
+        Gauge.builder("rewards.coalescing.in_flight", inFlight, Map::size)
+                .description("Distinct computations currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code work}, or wait for an identical call already running under an equal {@code key}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> work) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return (T) await(running);
+            } catch (TimeoutException e) {
+                // The leader outlived this request's deadline; the work itself now refuses or races it
+                independent.increment();
+                return work.get();
+            } catch (RuntimeException e) {
+                if (!outOfTime(e)) {
+                    throw e;
+                }
+                // The leader ran out of its own time, which says nothing about this request's
+                independent.increment();
+                return work.get();
+            }
+        }
+        executed.increment();
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        // Deregister before completing so late arrivals start over instead of reading a finished flight
+        inFlight.remove(key, mine);
+        mine.complete(result);
+        return result;
+    }
+
+    /**
+     * True if {@code error} is a deadline failure: refused before a call, or a Mongo operation that
+     * ran into the {@code maxTimeMS} or operation timeout its request set.
+     */
+    private static boolean outOfTime(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof DeadlineExceededException || e instanceof MongoOperationTimeoutException
+                    || e instanceof MongoExecutionTimeoutException) {
+                return true;
+            }
+            if (e.getCause() == e) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> running) throws TimeoutException {
+        Long remaining = RequestDeadline.remainingNanos();
+        try {
+            return remaining != null ? running.get(Math.max(0, remaining), TimeUnit.NANOSECONDS) : running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException | CompletionException e) {
+            // Rethrow the leader's exception as-is so callers map it the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
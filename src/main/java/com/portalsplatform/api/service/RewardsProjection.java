@@ -0,0 +1,521 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ChangeStreamPreAndPostImagesOptions;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.portalsplatform.api.config.ProjectionProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-customer monthly points held in memory and kept current from a change stream on
+ * {@code transactions}, so it also sees writes from other instances and external loaders.
+ * <p>
+ * The initial load is a snapshot-read aggregation and the change stream starts just after
+ * the snapshot time, so no insert is missed or counted twice. Projected totals and the last
+ * applied resume token are checkpointed together in one Mongo transaction; a restart reloads
+ * the checkpoint and resumes the stream instead of re-aggregating every transaction.
+ * <p>
+ * Inserts, updates and deletes are applied as deltas: change stream pre- and post-images, which
+ * are switched on for {@code transactions} at start, give the points a change removed and added.
+ * Transactions are counted per month alongside the points, so a month whose last transaction is
+ * deleted disappears as it would from an aggregation. Only events without images (pre-images
+ * unavailable, or expired before the event was read) and drops trigger a full rebuild. While
+ * loading or rebuilding the projection reports not ready and callers read Mongo directly.
+ * <p>
+ * Every instance keeps its own projection in memory, but the checkpoint and
+ * {@value #PROJECTION_COLLECTION} have a single writer: the instance holding the {@value #LEASE}
+ * {@link Leases lease}, renewed at every checkpoint. Others restore from its checkpoint and then only
+ * read the stream. An instance that takes the lease over rewrites the whole collection first, since
+ * the persisted totals are at its predecessor's position in the stream, not its own. The lease ttl
+ * must stay well above the checkpoint interval, or a stalled holder may write after losing it.
+ */
+@Component
+@Slf4j
+public class RewardsProjection {
+
+    static final String PROJECTION_COLLECTION = "rewards_projection";
+    static final String CHECKPOINT_COLLECTION = "projection_checkpoints";
+    static final String LEASE = "rewards-projection";
+    private static final String CHECKPOINT_ID = "rewards";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final MongoClient mongoClient;
+    private final MongoTemplate mongoTemplate;
+    private final ProjectionProperties properties;
+    private final Leases leases;
+    private final ExecutorService watcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "rewards-projection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, NavigableMap<String, Integer>> customers = new ConcurrentHashMap<>();
+    // Only touched by the watcher thread
+    private final Map<String, Map<String, Integer>> transactionCounts = new HashMap<>();
+    private final Set<String> dirty = new HashSet<>();
+    private boolean preImages;
+    private BsonDocument resumeToken;
+    private BsonTimestamp startAtOperationTime;
+    private boolean checkpointed;
+    private BsonDocument checkpointedToken;
+    // Whether this instance held the lease when it last tried to take it
+    private boolean writer;
+    // The checkpoint cannot be resumed from; only the lease holder deletes it, so the rest remember
+    private boolean rebuildNext;
+
+    private volatile boolean ready;
+    private volatile boolean running;
+
+    public RewardsProjection(MongoClient mongoClient, MongoTemplate mongoTemplate, ProjectionProperties properties,
+                             Leases leases) {
+        this.mongoClient = mongoClient;
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.leases = leases;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return points by "yyyy-MM" month in ascending order; empty if the customer has no transactions
+     */
+    public NavigableMap<String, Integer> monthlyPoints(String customerId) {
+        NavigableMap<String, Integer> months = customers.get(customerId);
+        return months != null ? months : Collections.emptyNavigableMap();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled() && !running) {
+            running = true;
+            watcher.submit(this::run);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        watcher.shutdownNow();
+        try {
+            leases.release(LEASE);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the rewards projection lease, it expires in {}: {}",
+                    properties.getLeaseTtl(), e.getMessage());
+        }
+    }
+
+    private void run() {
+        if (!supportsChangeStreams()) {
+            log.warn("MongoDB is not a replica set or sharded cluster, rewards are read from Mongo directly");
+            running = false;
+            return;
+        }
+        preImages = enablePreImages();
+        while (running) {
+            try {
+                if (rebuildNext || !restore()) {
+                    rebuild();
+                }
+                ready = true;
+                tail();
+            } catch (MongoServerException e) {
+                if (e.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    log.warn("Resume token is no longer in the oplog, rebuilding rewards projection");
+                    deleteCheckpoint();
+                } else {
+                    failed(e);
+                }
+            } catch (Exception e) {
+                failed(e);
+            }
+            ready = false;
+        }
+    }
+
+    private boolean supportsChangeStreams() {
+        try {
+            Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (Exception e) {
+            // Not reachable yet; let the retry loop deal with it
+            return true;
+        }
+    }
+
+    /**
+     * Record pre- and post-images of transaction changes (MongoDB 6.0+), so updates and deletes
+     * can be applied without a rebuild.
+     */
+    private boolean enablePreImages() {
+        try {
+            if (mongoTemplate.collectionExists("transactions")) {
+                mongoTemplate.getDb().runCommand(new Document("collMod", "transactions")
+                        .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+            } else {
+                mongoTemplate.getDb().createCollection("transactions", new CreateCollectionOptions()
+                        .changeStreamPreAndPostImagesOptions(new ChangeStreamPreAndPostImagesOptions(true)));
+            }
+            return true;
+        } catch (MongoException e) {
+            log.warn("Change stream pre-images unavailable on transactions, updates and deletes rebuild the "
+                    + "rewards projection: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void failed(Exception e) {
+        if (!running) {
+            return;
+        }
+        log.error("Rewards projection failed, retrying in {}", properties.getRetryBackoff(), e);
+        try {
+            Thread.sleep(properties.getRetryBackoff().toMillis());
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Load the last checkpoint, if any. Both collections are read under one snapshot so the
+     * totals match the resume token even if another instance is checkpointing. The lease is taken
+     * first, so if this instance gets it the persisted totals stay its own.
+     */
+    private boolean restore() {
+        long started = System.currentTimeMillis();
+        writer = holdLease();
+        try (ClientSession session = mongoClient.startSession(ClientSessionOptions.builder().snapshot(true).build())) {
+            Document checkpoint = checkpoints().find(session, Filters.eq("_id", CHECKPOINT_ID)).first();
+            if (checkpoint == null) {
+                return false;
+            }
+            customers.clear();
+            transactionCounts.clear();
+            dirty.clear();
+            for (Document document : projections().find(session)) {
+                Document months = document.get("months", Document.class);
+                Document counts = document.get("counts", Document.class);
+                if (counts == null) {
+                    // Checkpointed before transactions were counted
+                    return false;
+                }
+                NavigableMap<String, Integer> points = new TreeMap<>();
+                months.forEach((month, value) -> points.put(month, ((Number) value).intValue()));
+                customers.put(document.getString("_id"), Collections.unmodifiableNavigableMap(points));
+                Map<String, Integer> transactions = new HashMap<>();
+                counts.forEach((month, value) -> transactions.put(month, ((Number) value).intValue()));
+                transactionCounts.put(document.getString("_id"), transactions);
+            }
+            Document token = checkpoint.get("resumeToken", Document.class);
+            resumeToken = token != null ? token.toBsonDocument() : null;
+            startAtOperationTime = checkpoint.get("operationTime", BsonTimestamp.class);
+        }
+        checkpointed = true;
+        checkpointedToken = resumeToken;
+        log.info("Rewards projection restored from checkpoint: {} customers in {} ms",
+                customers.size(), System.currentTimeMillis() - started);
+        return true;
+    }
+
+    /**
+     * Aggregate every transaction under one snapshot and persist the result as a fresh checkpoint.
+     */
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        String timezone = ZoneId.systemDefault().getId();
+        List<Document> pipeline = List.of(new Document("$group", new Document()
+                .append("_id", new Document("customerId", "$customerId")
+                        .append("month", new Document("$dateToString", new Document("format", "%Y-%m")
+                                .append("date", "$transactionDate")
+                                .append("timezone", timezone))))
+                .append("points", new Document("$sum", "$pointsEarned"))
+                .append("transactions", new Document("$sum", 1))));
+
+        Map<String, NavigableMap<String, Integer>> rebuilt = new TreeMap<>();
+        Map<String, Map<String, Integer>> rebuiltCounts = new HashMap<>();
+        BsonTimestamp snapshotTime;
+        try (ClientSession session = mongoClient.startSession(ClientSessionOptions.builder().snapshot(true).build())) {
+            for (Document group : transactions().aggregate(session, pipeline).allowDiskUse(true)) {
+                Document id = group.get("_id", Document.class);
+                rebuilt.computeIfAbsent(id.getString("customerId"), c -> new TreeMap<>())
+                        .put(id.getString("month"), ((Number) group.get("points")).intValue());
+                rebuiltCounts.computeIfAbsent(id.getString("customerId"), c -> new HashMap<>())
+                        .put(id.getString("month"), ((Number) group.get("transactions")).intValue());
+            }
+            snapshotTime = session.getSnapshotTimestamp();
+        }
+
+        customers.clear();
+        transactionCounts.clear();
+        dirty.clear();
+        rebuilt.forEach((customerId, months) -> customers.put(customerId, Collections.unmodifiableNavigableMap(months)));
+        transactionCounts.putAll(rebuiltCounts);
+
+        resumeToken = null;
+        // startAtOperationTime is inclusive; everything at the snapshot time is already counted
+        startAtOperationTime = snapshotTime != null
+                ? new BsonTimestamp(snapshotTime.getTime(), snapshotTime.getInc() + 1)
+                : null;
+        rebuildNext = false;
+        writer = holdLease();
+        if (writer) {
+            checkpointAll();
+        }
+        log.info("Rewards projection rebuilt{}: {} customers in {} ms", writer ? " and checkpointed" : "",
+                customers.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Replace the persisted projection with this instance's and checkpoint its stream position.
+     */
+    private void checkpointAll() {
+        // No checkpoint exists until the end, so a crash part way through simply rebuilds again
+        checkpointed = false;
+        checkpoints().deleteOne(Filters.eq("_id", CHECKPOINT_ID));
+        projections().deleteMany(new Document());
+        List<WriteModel<Document>> writes = projectionWrites(customers.keySet());
+        for (int from = 0; from < writes.size(); from += 10_000) {
+            projections().bulkWrite(writes.subList(from, Math.min(from + 10_000, writes.size())));
+        }
+        dirty.clear();
+        checkpoint();
+    }
+
+    private boolean holdLease() {
+        try {
+            return leases.tryAcquire(LEASE, properties.getLeaseTtl());
+        } catch (RuntimeException e) {
+            log.warn("Could not renew the rewards projection lease, not checkpointing: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void tail() {
+        ChangeStreamIterable<Document> stream = transactions().watch();
+        if (preImages) {
+            stream = stream.fullDocument(FullDocument.WHEN_AVAILABLE)
+                    .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE);
+        }
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        } else if (startAtOperationTime != null) {
+            stream = stream.startAtOperationTime(startAtOperationTime);
+        }
+
+        long checkpointMillis = properties.getCheckpointInterval().toMillis();
+        long lastCheckpoint = System.currentTimeMillis();
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event != null && !apply(event)) {
+                    return;
+                }
+                // Advances with the post-batch resume token even when no events arrive
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null) {
+                    resumeToken = token;
+                }
+                if (System.currentTimeMillis() - lastCheckpoint >= checkpointMillis) {
+                    checkpointIfWriter();
+                    lastCheckpoint = System.currentTimeMillis();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false when the event cannot be applied incrementally and a rebuild is needed
+     */
+    private boolean apply(ChangeStreamDocument<Document> event) {
+        Document before = event.getFullDocumentBeforeChange();
+        Document after = event.getFullDocument();
+        switch (event.getOperationType()) {
+            case INSERT -> {
+                add(after, 1);
+                return true;
+            }
+            case UPDATE, REPLACE -> {
+                if (before != null && after != null) {
+                    add(before, -1);
+                    add(after, 1);
+                    return true;
+                }
+            }
+            case DELETE -> {
+                if (before != null) {
+                    add(before, -1);
+                    return true;
+                }
+            }
+            default -> {
+            }
+        }
+        log.info("Change stream {} event on transactions cannot be applied as a delta, rebuilding rewards projection",
+                event.getOperationTypeString());
+        deleteCheckpoint();
+        return false;
+    }
+
+    /**
+     * Add a transaction's points to its customer and month, or take them away with {@code sign} -1.
+     */
+    private void add(Document transaction, int sign) {
+        Number points = (Number) transaction.get("pointsEarned");
+        Date date = transaction.getDate("transactionDate");
+        String customerId = transaction.getString("customerId");
+        if (points == null || date == null || customerId == null) {
+            return;
+        }
+        String month = date.toInstant().atZone(ZoneId.systemDefault()).format(MONTH_FORMATTER);
+        Map<String, Integer> counts = transactionCounts.computeIfAbsent(customerId, id -> new HashMap<>());
+        int remaining = counts.merge(month, sign, Integer::sum);
+        if (remaining <= 0) {
+            counts.remove(month);
+            if (counts.isEmpty()) {
+                transactionCounts.remove(customerId);
+            }
+        }
+        customers.compute(customerId, (id, current) -> {
+            NavigableMap<String, Integer> updated = current != null ? new TreeMap<>(current) : new TreeMap<>();
+            if (remaining <= 0) {
+                updated.remove(month);
+            } else {
+                updated.merge(month, sign * points.intValue(), Integer::sum);
+            }
+            return updated.isEmpty() ? null : Collections.unmodifiableNavigableMap(updated);
+        });
+        dirty.add(customerId);
+    }
+
+    /**
+     * Checkpoint if this instance holds the lease. Otherwise drop what it would have written; the
+     * holder persists the same changes from its own stream.
+     */
+    private void checkpointIfWriter() {
+        boolean wasWriter = writer;
+        writer = holdLease();
+        if (!writer) {
+            dirty.clear();
+            checkpointed = false;
+        } else if (!wasWriter) {
+            // Taken over: the persisted totals are at the previous holder's position, not ours
+            checkpointAll();
+        } else {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Persist dirty customers and the resume token atomically.
+     */
+    private void checkpoint() {
+        if (dirty.isEmpty() && checkpointed && Objects.equals(resumeToken, checkpointedToken)) {
+            return;
+        }
+        List<WriteModel<Document>> writes = projectionWrites(dirty);
+        Document checkpoint = new Document("_id", CHECKPOINT_ID)
+                .append("resumeToken", resumeToken)
+                .append("operationTime", resumeToken == null ? startAtOperationTime : null)
+                .append("updatedAt", new Date());
+
+        try (ClientSession session = mongoClient.startSession()) {
+            session.withTransaction(() -> {
+                if (!writes.isEmpty()) {
+                    projections().bulkWrite(session, writes);
+                }
+                checkpoints().replaceOne(session, Filters.eq("_id", CHECKPOINT_ID), checkpoint,
+                        new ReplaceOptions().upsert(true));
+                return null;
+            });
+        }
+        dirty.clear();
+        checkpointed = true;
+        checkpointedToken = resumeToken;
+    }
+
+    private List<WriteModel<Document>> projectionWrites(Collection<String> customerIds) {
+        List<WriteModel<Document>> writes = new ArrayList<>(customerIds.size());
+        for (String customerId : customerIds) {
+            Map<String, Integer> transactions = transactionCounts.get(customerId);
+            if (transactions == null) {
+                writes.add(new DeleteOneModel<>(Filters.eq("_id", customerId)));
+                continue;
+            }
+            Document months = new Document();
+            monthlyPoints(customerId).forEach(months::append);
+            writes.add(new ReplaceOneModel<>(Filters.eq("_id", customerId),
+                    new Document("_id", customerId).append("months", months)
+                            .append("counts", new Document(new TreeMap<String, Object>(transactions))),
+                    new ReplaceOptions().upsert(true)));
+        }
+        return writes;
+    }
+
+    /**
+     * Stop resuming from the checkpoint: the next start rebuilds, and other instances too if this
+     * one holds the lease.
+     */
+    private void deleteCheckpoint() {
+        checkpointed = false;
+        rebuildNext = true;
+        if (writer) {
+            checkpoints().deleteOne(Filters.eq("_id", CHECKPOINT_ID));
+        }
+    }
+
+    private MongoCollection<Document> transactions() {
+        return mongoTemplate.getDb().getCollection("transactions");
+    }
+
+    private MongoCollection<Document> projections() {
+        return mongoTemplate.getDb().getCollection(PROJECTION_COLLECTION);
+    }
+
+    private MongoCollection<Document> checkpoints() {
+        return mongoTemplate.getDb().getCollection(CHECKPOINT_COLLECTION);
+    }
+}
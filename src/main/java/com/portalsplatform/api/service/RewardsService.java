@@ -1,7 +1,10 @@
 package com.portalsplatform.api.service;
 
+import com.portalsplatform.api.model.dto.RewardsField;
 import com.portalsplatform.api.model.dto.RewardsResponse;
 
+import java.util.Set;
+
 public interface RewardsService {
     /**
      * Calculate total rewards for a customer across all time
@@ -10,6 +13,14 @@ public interface RewardsService {
      */
     RewardsResponse calculateTotalRewards(String customerId);
 
+    /**
+     * Calculate total rewards, computing only the selected fields
+     * @param customerId the customer identifier
+     * @param fields fields to fill in; the others are left null
+     * @return rewards response with only the selected fields
+     */
+    RewardsResponse calculateTotalRewards(String customerId, Set<RewardsField> fields);
+
     /**
      * Calculate rewards for a specific month
      * @param customerId the customer identifier
@@ -18,6 +29,15 @@ public interface RewardsService {
      */
     RewardsResponse calculateMonthlyRewards(String customerId, String yearMonth);
 
+    /**
+     * Calculate rewards for a specific month, computing only the selected fields
+     * @param customerId the customer identifier
+     * @param yearMonth format: "2024-01"
+     * @param fields fields to fill in; the others are left null
+     * @return rewards response with only the selected fields
+     */
+    RewardsResponse calculateMonthlyRewards(String customerId, String yearMonth, Set<RewardsField> fields);
+
     /**
      * Calculate rewards for last N months
      * @param customerId the customer identifier
@@ -25,6 +45,15 @@ public interface RewardsService {
      * @return rewards response with monthly breakdown
      */
     RewardsResponse calculateRewardsForLastMonths(String customerId, int months);
+
+    /**
+     * Calculate rewards for last N months, computing only the selected fields
+     * @param customerId the customer identifier
+     * @param months number of months to look back
+     * @param fields fields to fill in; the others are left null
+     * @return rewards response with only the selected fields
+     */
+    RewardsResponse calculateRewardsForLastMonths(String customerId, int months, Set<RewardsField> fields);
 }
 
 
@@ -1,7 +1,8 @@
 package com.portalsplatform.api.service;
 
-import com.portalsplatform.api.model.Customer;
+import com.portalsplatform.api.config.ReadRouting;
 import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.RewardsField;
 import com.portalsplatform.api.model.dto.RewardsResponse;
 import com.portalsplatform.api.repository.CustomerRepository;
 import com.portalsplatform.api.repository.TransactionRepository;
@@ -22,25 +23,45 @@ public class RewardsServiceImpl implements RewardsService {
 
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
+    private final RewardsProjection rewardsProjection;
+    private final CustomerNameCache customerNameCache;
+    private final ClosedMonthRewards closedMonthRewards;
     private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
 
     @Override
     public RewardsResponse calculateTotalRewards(String customerId) {
+        return calculateTotalRewards(customerId, RewardsField.ALL);
+    }
+
+    @Override
+    public RewardsResponse calculateTotalRewards(String customerId, Set<RewardsField> fields) {
         log.debug("Calculating total rewards for customer: {}", customerId);
 
         // Verify customer exists
-        Customer customer = customerRepository.findByCustomerId(customerId)
-                .orElseThrow(() -> new NoSuchElementException("Customer not found: " + customerId));
+        String customerName = customerName(customerId, fields);
+
+        if (!fields.contains(RewardsField.MONTHLY_POINTS)) {
+            return RewardsField.select(
+                    totalOnly(customerId, customerName, null, null, "All time", "No transactions found"), fields);
+        }
+        return RewardsField.select(totalRewards(customerId, customerName), fields);
+    }
+
+    private RewardsResponse totalRewards(String customerId, String customerName) {
+        if (useProjection()) {
+            return fromProjection(customerId, customerName, rewardsProjection.monthlyPoints(customerId),
+                    "All time", "No transactions found");
+        }
 
         // Get all transactions
         List<Transaction> transactions = transactionRepository
                 .findByCustomerIdOrderByTransactionDateDesc(customerId);
 
         if (transactions.isEmpty()) {
-            log.info("No transactions found for customer: {}", customerId);
+            log.debug("No transactions found for customer: {}", customerId);
             return new RewardsResponse(
                     customerId,
-                    customer.getFirstName() + " " + customer.getLastName(),
+                    customerName,
                     0,
                     Map.of(),
                     "No transactions found"
@@ -60,12 +81,12 @@ public class RewardsServiceImpl implements RewardsService {
                         Collectors.summingInt(Transaction::getPointsEarned)
                 ));
 
-        log.info("Customer {} has {} total points across {} months",
+        log.debug("Customer {} has {} total points across {} months",
                 customerId, totalPoints, monthlyPoints.size());
 
         return new RewardsResponse(
                 customerId,
-                customer.getFirstName() + " " + customer.getLastName(),
+                customerName,
                 totalPoints,
                 monthlyPoints,
                 "All time"
@@ -74,10 +95,14 @@ public class RewardsServiceImpl implements RewardsService {
 
     @Override
     public RewardsResponse calculateMonthlyRewards(String customerId, String yearMonth) {
+        return calculateMonthlyRewards(customerId, yearMonth, RewardsField.ALL);
+    }
+
+    @Override
+    public RewardsResponse calculateMonthlyRewards(String customerId, String yearMonth, Set<RewardsField> fields) {
         log.debug("Calculating rewards for customer: {} for month: {}", customerId, yearMonth);
 
-        Customer customer = customerRepository.findByCustomerId(customerId)
-                .orElseThrow(() -> new NoSuchElementException("Customer not found: " + customerId));
+        String customerName = customerName(customerId, fields);
 
         // Parse year-month
         YearMonth ym;
@@ -87,54 +112,73 @@ public class RewardsServiceImpl implements RewardsService {
             throw new IllegalArgumentException("Invalid month format. Use yyyy-MM format: " + yearMonth);
         }
 
-        LocalDateTime startDate = ym.atDay(1).atStartOfDay();
-        LocalDateTime endDate = ym.atEndOfMonth().atTime(23, 59, 59);
-
-        // Get transactions for the month
-        List<Transaction> transactions = transactionRepository
-                .findByCustomerIdAndTransactionDateBetween(customerId, startDate, endDate);
-
-        int monthPoints = transactions.stream()
-                .mapToInt(Transaction::getPointsEarned)
-                .sum();
+        int monthPoints;
+        if (closedMonthRewards.isClosed(ym)) {
+            monthPoints = closedMonthRewards.points(customerId, ym, () -> scanMonth(customerId, ym));
+        } else if (useProjection()) {
+            monthPoints = rewardsProjection.monthlyPoints(customerId).getOrDefault(yearMonth, 0);
+        } else {
+            monthPoints = scanMonth(customerId, ym);
+        }
 
         Map<String, Integer> monthlyBreakdown = Map.of(yearMonth, monthPoints);
 
-        log.info("Customer {} earned {} points in {}", customerId, monthPoints, yearMonth);
+        log.debug("Customer {} earned {} points in {}", customerId, monthPoints, yearMonth);
 
-        return new RewardsResponse(
+        return RewardsField.select(new RewardsResponse(
                 customerId,
-                customer.getFirstName() + " " + customer.getLastName(),
+                customerName,
                 monthPoints,
                 monthlyBreakdown,
                 "Month: " + yearMonth
-        );
+        ), fields);
     }
 
     @Override
     public RewardsResponse calculateRewardsForLastMonths(String customerId, int months) {
+        return calculateRewardsForLastMonths(customerId, months, RewardsField.ALL);
+    }
+
+    @Override
+    public RewardsResponse calculateRewardsForLastMonths(String customerId, int months, Set<RewardsField> fields) {
         log.debug("Calculating rewards for customer: {} for last {} months", customerId, months);
 
         if (months < 1 || months > 36) {
             throw new IllegalArgumentException("Months must be between 1 and 36");
         }
 
-        Customer customer = customerRepository.findByCustomerId(customerId)
-                .orElseThrow(() -> new NoSuchElementException("Customer not found: " + customerId));
+        String customerName = customerName(customerId, fields);
 
+        if (!fields.contains(RewardsField.MONTHLY_POINTS)) {
+            LocalDateTime endDate = LocalDateTime.now();
+            LocalDateTime startDate = endDate.minusMonths(months).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+            return RewardsField.select(totalOnly(customerId, customerName, startDate, endDate,
+                    String.format("Last %d months", months),
+                    String.format("No transactions in last %d months", months)), fields);
+        }
+        return RewardsField.select(recentRewards(customerId, customerName, months), fields);
+    }
+
+    private RewardsResponse recentRewards(String customerId, String customerName, int months) {
         // Calculate date range
         LocalDateTime endDate = LocalDateTime.now();
         LocalDateTime startDate = endDate.minusMonths(months).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
 
+        if (useProjection()) {
+            return fromProjection(customerId, customerName, projectedBetween(customerId, startDate, endDate),
+                    String.format("Last %d months", months),
+                    String.format("No transactions in last %d months", months));
+        }
+
         // Get transactions
         List<Transaction> transactions = transactionRepository
                 .findByCustomerIdAndTransactionDateBetween(customerId, startDate, endDate);
 
         if (transactions.isEmpty()) {
-            log.info("No transactions found for customer {} in last {} months", customerId, months);
+            log.debug("No transactions found for customer {} in last {} months", customerId, months);
             return new RewardsResponse(
                     customerId,
-                    customer.getFirstName() + " " + customer.getLastName(),
+                    customerName,
                     0,
                     Map.of(),
                     String.format("No transactions in last %d months", months)
@@ -153,15 +197,112 @@ public class RewardsServiceImpl implements RewardsService {
                         Collectors.summingInt(Transaction::getPointsEarned)
                 ));
 
-        log.info("Customer {} earned {} points in last {} months", customerId, totalPoints, months);
+        log.debug("Customer {} earned {} points in last {} months", customerId, totalPoints, months);
 
         return new RewardsResponse(
                 customerId,
-                customer.getFirstName() + " " + customer.getLastName(),
+                customerName,
                 totalPoints,
                 monthlyPoints,
                 String.format("Last %d months", months)
         );
     }
-}
 
+    /**
+     * Whether to answer from the projection. It trails Mongo, so a request carrying a session token,
+     * which must see the client's own writes, reads Mongo in that session instead.
+     */
+    private boolean useProjection() {
+        String sessionToken = ReadRouting.requestSessionToken();
+        return rewardsProjection.isReady() && (sessionToken == null || sessionToken.isBlank());
+    }
+
+    /**
+     * Resolve the display name if it was asked for; otherwise only check that the customer exists.
+     */
+    private String customerName(String customerId, Set<RewardsField> fields) {
+        if (fields.contains(RewardsField.CUSTOMER_NAME)) {
+            return customerNameCache.displayName(customerId, customerRepository::findByCustomerId)
+                    .orElseThrow(() -> new NoSuchElementException("Customer not found: " + customerId));
+        }
+        // Index-only count on the unique customerId index; the document is never fetched
+        if (customerRepository.countByCustomerId(customerId) == 0) {
+            throw new NoSuchElementException("Customer not found: " + customerId);
+        }
+        return null;
+    }
+
+    /**
+     * Total points without a monthly breakdown: summed in place from the projection, or by a
+     * single $sum aggregation instead of loading the transactions.
+     *
+     * @param startDate start of the period, or null for all time
+     */
+    private RewardsResponse totalOnly(String customerId, String customerName,
+                                      LocalDateTime startDate, LocalDateTime endDate,
+                                      String period, String emptyPeriod) {
+        long totalPoints = 0;
+        boolean empty;
+        if (useProjection()) {
+            SortedMap<String, Integer> monthlyPoints = startDate == null
+                    ? rewardsProjection.monthlyPoints(customerId)
+                    : projectedBetween(customerId, startDate, endDate);
+            for (int points : monthlyPoints.values()) {
+                totalPoints += points;
+            }
+            empty = monthlyPoints.isEmpty();
+        } else {
+            TransactionRepository.PointsSum sum = startDate == null
+                    ? transactionRepository.sumPoints(customerId)
+                    : transactionRepository.sumPointsBetween(customerId, startDate, endDate);
+            empty = sum == null || sum.transactions() == 0;
+            totalPoints = sum != null ? sum.points() : 0;
+        }
+        return new RewardsResponse(customerId, customerName, Math.toIntExact(totalPoints), null,
+                empty ? emptyPeriod : period);
+    }
+
+    /**
+     * Points by month from {@code startDate} to {@code endDate}: whole months from the projection,
+     * and the month of {@code endDate} from Mongo, since the projection cannot tell which of its
+     * transactions are dated after {@code endDate}.
+     */
+    private SortedMap<String, Integer> projectedBetween(String customerId, LocalDateTime startDate,
+                                                       LocalDateTime endDate) {
+        YearMonth last = YearMonth.from(endDate);
+        SortedMap<String, Integer> monthlyPoints = new TreeMap<>(rewardsProjection.monthlyPoints(customerId)
+                .subMap(startDate.format(MONTH_FORMATTER), true, last.format(MONTH_FORMATTER), false));
+        TransactionRepository.PointsSum sum = transactionRepository.sumPointsBetween(customerId,
+                last.atDay(1).atStartOfDay(), endDate);
+        if (sum != null && sum.transactions() > 0) {
+            monthlyPoints.put(last.format(MONTH_FORMATTER), Math.toIntExact(sum.points()));
+        }
+        return monthlyPoints;
+    }
+
+    private int scanMonth(String customerId, YearMonth ym) {
+        LocalDateTime startDate = ym.atDay(1).atStartOfDay();
+        LocalDateTime endDate = ym.atEndOfMonth().atTime(23, 59, 59);
+
+        // Get transactions for the month
+        List<Transaction> transactions = transactionRepository
+                .findByCustomerIdAndTransactionDateBetween(customerId, startDate, endDate);
+
+        return transactions.stream()
+                .mapToInt(Transaction::getPointsEarned)
+                .sum();
+    }
+
+    private RewardsResponse fromProjection(String customerId, String customerName,
+                                           SortedMap<String, Integer> monthlyPoints,
+                                           String period, String emptyPeriod) {
+        if (monthlyPoints.isEmpty()) {
+            return new RewardsResponse(customerId, customerName, 0, Map.of(), emptyPeriod);
+        }
+        int totalPoints = 0;
+        for (int points : monthlyPoints.values()) {
+            totalPoints += points;
+        }
+        return new RewardsResponse(customerId, customerName, totalPoints, monthlyPoints, period);
+    }
+}
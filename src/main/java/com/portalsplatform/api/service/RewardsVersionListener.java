@@ -0,0 +1,115 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.model.Customer;
+import com.portalsplatform.api.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bumps {@link RewardsVersions} after transactions and customers are saved or deleted through
+ * Spring Data. Customer writes count too, since the display name is part of the response.
+ * A delete that does not name a customer, such as {@code deleteById}, bumps the customers its
+ * documents belonged to, looked up just before the delete on the same thread.
+ * <p>
+ * The write has already been made when these events fire, so a bump that fails never fails it:
+ * it falls back to a global bump, retried by {@link RewardsVersions} if that fails too, and is
+ * counted in {@value #FAILURES_METRIC}.
+ */
+@Component
+@Slf4j
+public class RewardsVersionListener extends AbstractMongoEventListener<Object> {
+
+    public static final String FAILURES_METRIC = "rewards.versions.bump_failures";
+
+    // Customers of a delete that could not be looked up: every version is bumped instead
+    private static final List<String> UNKNOWN = List.of();
+
+    private final RewardsVersions rewardsVersions;
+    private final Counter failures;
+    private final ThreadLocal<List<String>> deleting = new ThreadLocal<>();
+
+    public RewardsVersionListener(RewardsVersions rewardsVersions, MeterRegistry meterRegistry) {
+        this.rewardsVersions = rewardsVersions;
+        this.failures = Counter.builder(FAILURES_METRIC)
+                .description("Rewards version bumps that failed after a write and fell back to a global bump")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        if (event.getSource() instanceof Transaction transaction) {
+            bump(transaction.getCustomerId());
+        } else if (event.getSource() instanceof Customer customer) {
+            bump(customer.getCustomerId());
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Object> event) {
+        if (isVersioned(event.getType()) && !(event.getSource().get("customerId") instanceof String)) {
+            List<String> customers;
+            try {
+                customers = rewardsVersions.customersMatching(event.getSource(), event.getCollectionName());
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Could not look up the customers of a {} delete, bumping every version after it: {}",
+                        event.getCollectionName(), e.getMessage());
+                customers = UNKNOWN;
+            }
+            deleting.set(customers);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        if (!isVersioned(event.getType())) {
+            return;
+        }
+        Document query = event.getSource();
+        if (query.get("customerId") instanceof String customerId) {
+            bump(customerId);
+            return;
+        }
+        List<String> customers = deleting.get();
+        deleting.remove();
+        if (customers == UNKNOWN) {
+            bumpAll(null);
+        } else if (customers != null) {
+            customers.forEach(this::bump);
+        }
+    }
+
+    private void bump(String customerId) {
+        try {
+            rewardsVersions.bump(customerId);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Could not bump the rewards version of {}, bumping every version instead: {}",
+                    customerId, e.getMessage());
+            bumpAll(customerId);
+        }
+    }
+
+    private void bumpAll(String customerId) {
+        try {
+            rewardsVersions.bumpAll();
+        } catch (RuntimeException e) {
+            log.error("Could not bump rewards versions after a write{}; retrying before the next version is served",
+                    customerId != null ? " for " + customerId : "", e);
+            rewardsVersions.bumpAllLater();
+        }
+    }
+
+    private static boolean isVersioned(Class<?> type) {
+        return Transaction.class.equals(type) || Customer.class.equals(type);
+    }
+}
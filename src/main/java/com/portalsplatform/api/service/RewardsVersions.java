@@ -0,0 +1,177 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.ReadRoutingProperties;
+import com.portalsplatform.api.config.RewardsVersionProperties;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-customer version of everything a rewards response is built from, kept in
+ * {@value #COLLECTION} keyed by customer id.
+ * <p>
+ * The version only ever increases and is bumped after every transaction or customer write
+ * (see {@link RewardsVersionListener}). Writes that bypass Spring Data, such as the synthetic data
+ * generator, the amount migration or other tools, bump the global document {@value #GLOBAL_ID}
+ * instead, which moves every customer's version on; a customer's version is the sum of the two.
+ * A bump that fails is retried as a global one, and while that is pending too this instance sends
+ * no versions. Rewards are read from the projection or a secondary, which
+ * can trail the primary, so a version is only {@link #isSettled settled} once its last write is
+ * older than the longest that lag may be; until then responses carry no version. A customer with
+ * no document yet has not been written since versioning started and is at version 0, so reads
+ * never write.
+ * <p>
+ * A request that labels its response with a version records it in its {@link CallContext},
+ * so {@link InstrumentedRewardsService} only coalesces it with computations started at that version.
+ * <p>
+ * The same collection holds a generation per closed (customer, month), keyed
+ * {@code customerId/yyyy-MM} and bumped only for transactions written into that month (see
+ * {@link ClosedMonthTransactionListener}), so {@link ClosedMonthRewards} keeps a month's total
+ * across the customer's other writes. The global document moves every generation on too.
+ */
+@Component
+public class RewardsVersions {
+
+    public static final String COLLECTION = "rewards_versions";
+    public static final String GLOBAL_ID = "*";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration settleTime;
+    // Writes whose bump failed; one global bump made after they happened covers them all
+    private final AtomicLong unversionedWrites = new AtomicLong();
+
+    public RewardsVersions(MongoTemplate mongoTemplate, RewardsVersionProperties properties,
+                           ReadRoutingProperties readRoutingProperties) {
+        this.mongoTemplate = mongoTemplate;
+        boolean secondaryReads = readRoutingProperties.isEnabled()
+                && !"primary".equalsIgnoreCase(readRoutingProperties.getReadPreference());
+        Duration maxStaleness = readRoutingProperties.getMaxStaleness();
+        this.settleTime = secondaryReads && maxStaleness.compareTo(properties.getSettleTime()) > 0
+                ? maxStaleness
+                : properties.getSettleTime();
+    }
+
+    /**
+     * Current version, 0 if the customer has not been written yet. One lookup on {@code _id},
+     * which also reads the global version.
+     */
+    public Version current(String customerId) {
+        long unversioned = unversionedWrites.get();
+        if (unversioned > 0) {
+            retryBumpAll(unversioned);
+        }
+        Query query = Query.query(Criteria.where("_id").in(customerId, GLOBAL_ID));
+        query.fields().include("version").include("updatedAt");
+        long value = 0;
+        Instant updatedAt = null;
+        for (Document version : mongoTemplate.find(query, Document.class, COLLECTION)) {
+            value += version.get("version", Number.class).longValue();
+            Date date = version.getDate("updatedAt");
+            if (date != null && (updatedAt == null || date.toInstant().isAfter(updatedAt))) {
+                updatedAt = date.toInstant();
+            }
+        }
+        return new Version(value, updatedAt);
+    }
+
+    /**
+     * Generation of a customer's closed month, 0 until a transaction is written into it. Null while
+     * a failed bump is pending, since the generation may be missing a write.
+     */
+    public Long monthGeneration(String customerId, YearMonth month) {
+        long unversioned = unversionedWrites.get();
+        if (unversioned > 0) {
+            retryBumpAll(unversioned);
+            if (unversionedWrites.get() > 0) {
+                return null;
+            }
+        }
+        Query query = Query.query(Criteria.where("_id").in(monthId(customerId, month), GLOBAL_ID));
+        query.fields().include("version");
+        long value = 0;
+        for (Document version : mongoTemplate.find(query, Document.class, COLLECTION)) {
+            value += version.get("version", Number.class).longValue();
+        }
+        return value;
+    }
+
+    public void bumpMonth(String customerId, YearMonth month) {
+        bump(monthId(customerId, month));
+    }
+
+    /**
+     * Whether every read path has caught up with the write that produced this version. Never,
+     * while a failed bump is pending: the version may be missing a write.
+     */
+    public boolean isSettled(Version version) {
+        return unversionedWrites.get() == 0
+                && (version.updatedAt() == null || version.updatedAt().plus(settleTime).isBefore(Instant.now()));
+    }
+
+    public void bump(String customerId) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(customerId)),
+                new Update().inc("version", 1L).currentDate("updatedAt"), COLLECTION);
+    }
+
+    /**
+     * Move every customer's version on, after writes whose customers are not known.
+     */
+    public void bumpAll() {
+        bump(GLOBAL_ID);
+    }
+
+    /**
+     * Record that a write could not be versioned; {@link #bumpAll} is retried until it succeeds.
+     */
+    void bumpAllLater() {
+        unversionedWrites.incrementAndGet();
+    }
+
+    private void retryBumpAll(long unversioned) {
+        try {
+            bumpAll();
+            unversionedWrites.addAndGet(-unversioned);
+        } catch (RuntimeException e) {
+            // Still pending; this instance keeps responses untagged meanwhile
+        }
+    }
+
+    /**
+     * Customers with documents matching a delete that does not name one, looked up before the
+     * delete so only they are bumped after it.
+     */
+    public List<String> customersMatching(Document query, String collection) {
+        return mongoTemplate.getCollection(collection).distinct("customerId", query, String.class)
+                .into(new ArrayList<>());
+    }
+
+    private static String monthId(String customerId, YearMonth month) {
+        return customerId + "/" + month;
+    }
+
+    /**
+     * The version the current request read before computing its response, or null.
+     */
+    public static Long requestVersion() {
+        CallContext context = CallContext.current();
+        return context != null ? context.rewardsVersion() : null;
+    }
+
+    /**
+     * @param updatedAt time of the last write, or null if the version was assigned without one
+     */
+    public record Version(long value, Instant updatedAt) {
+    }
+}
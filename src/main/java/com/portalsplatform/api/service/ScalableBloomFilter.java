@@ -0,0 +1,182 @@
+package com.portalsplatform.api.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Scalable Bloom filter over strings (Almeida et al.): when the newest layer reaches its
+ * capacity a layer twice as large with half the error rate is added, so the overall false
+ * positive rate stays below the target however many elements are added.
+ * <p>
+ * Adds and lookups are lock-free; only adding a layer synchronizes. Elements cannot be
+ * removed, so deletions must be handled by the caller (a stale positive only costs a lookup).
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final double falsePositiveRate;
+    private volatile Layer[] layers;
+
+    /**
+     * @param expectedElements capacity of the first layer; sizing it to the expected count avoids extra layers
+     * @param falsePositiveRate upper bound on the probability that an absent element is reported present
+     */
+    public ScalableBloomFilter(long expectedElements, double falsePositiveRate) {
+        if (expectedElements < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected elements must be positive and the rate in (0, 1)");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.layers = new Layer[]{new Layer(expectedElements, falsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    public boolean mightContain(String element) {
+        long h1 = hash(element, 0x9E3779B97F4A7C15L);
+        long h2 = hash(element, 0xC2B2AE3D27D4EB4FL);
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if the element was (probably) already present
+     */
+    public boolean add(String element) {
+        long h1 = hash(element, 0x9E3779B97F4A7C15L);
+        long h2 = hash(element, 0xC2B2AE3D27D4EB4FL);
+        Layer[] current = layers;
+        for (Layer layer : current) {
+            if (layer.mightContain(h1, h2)) {
+                return false;
+            }
+        }
+        Layer last = current[current.length - 1];
+        if (last.count.get() >= last.capacity) {
+            last = grow(current);
+        }
+        last.add(h1, h2);
+        last.count.incrementAndGet();
+        return true;
+    }
+
+    private synchronized Layer grow(Layer[] seen) {
+        Layer[] current = layers;
+        Layer last = current[current.length - 1];
+        if (current != seen && last.count.get() < last.capacity) {
+            return last;
+        }
+        Layer[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = new Layer(last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING);
+        layers = grown;
+        return grown[current.length];
+    }
+
+    public long size() {
+        long size = 0;
+        for (Layer layer : layers) {
+            size += layer.count.get();
+        }
+        return size;
+    }
+
+    public int layerCount() {
+        return layers.length;
+    }
+
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            bytes += (long) layer.words.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Expected false positive rate at the current fill, combining every layer.
+     */
+    public double estimatedFalsePositiveRate() {
+        double allMiss = 1;
+        for (Layer layer : layers) {
+            allMiss *= 1 - layer.estimatedFalsePositiveRate();
+        }
+        return 1 - allMiss;
+    }
+
+    public double targetFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, finished with the murmur3 fmix64 avalanche
+    private static long hash(String element, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < element.length(); i++) {
+            h ^= element.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Layer {
+        final long capacity;
+        final double falsePositiveRate;
+        final long bits;
+        final int hashes;
+        final AtomicLongArray words;
+        final AtomicLong count = new AtomicLong();
+
+        Layer(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / LN2_SQUARED);
+            long wordCount = Math.max(1, (optimalBits + 63) / 64);
+            if (wordCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter layer too large: " + optimalBits + " bits");
+            }
+            this.words = new AtomicLongArray((int) wordCount);
+            this.bits = wordCount * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        }
+
+        // Kirsch-Mitzenmacher double hashing: index_i = h1 + i * h2
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(combined, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        void add(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(combined, bits);
+                long mask = 1L << bit;
+                int index = (int) (bit >>> 6);
+                long word = words.get(index);
+                while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+                combined += h2;
+            }
+        }
+
+        double estimatedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * count.get() / bits), hashes);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.result.UpdateResult;
+import com.portalsplatform.api.config.TransactionSearchProperties;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.TransactionSearchResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Support search over every transaction by description text, amount range and date range,
+ * newest first.
+ * <p>
+ * Pages are keyset-based: the cursor holds the {@code (transactionDate, _id)} of the last
+ * transaction returned, with the {@code _id}'s BSON type, and the next page starts strictly after
+ * it, so deep pages cost the same as the first and concurrent inserts never shift results between
+ * pages. Without text, the
+ * query walks {@code search_date_idx} in sort order, filtering amounts from the index key, and
+ * stops after one page. Text queries go through the description text index; matches are then
+ * sorted by date, so a very common term is bounded by the request deadline rather than the page.
+ */
+@Service
+@Slf4j
+public class TransactionSearchService {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "transactionDate", "_id");
+    static final String MIGRATIONS_COLLECTION = "migrations";
+    static final String AMOUNT_MIGRATION = "transaction-amount-decimal128";
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionSearchProperties properties;
+    private final RewardsVersions rewardsVersions;
+    private final Counter migrationConverted;
+    private final Counter migrationFailures;
+    private final ExecutorService migrator = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "amount-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TransactionSearchService(MongoTemplate mongoTemplate, TransactionSearchProperties properties,
+                                    RewardsVersions rewardsVersions, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.rewardsVersions = rewardsVersions;
+        this.migrationConverted = Counter.builder("transactions.amount_migration.converted")
+                .description("Transaction amounts converted from strings to Decimal128")
+                .register(meterRegistry);
+        this.migrationFailures = Counter.builder("transactions.amount_migration.failures")
+                .description("Amount migration batches that failed and were retried")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param text words to match in the description, or null
+     * @param minAmount inclusive lower amount bound, or null
+     * @param maxAmount inclusive upper amount bound, or null
+     * @param from inclusive lower date bound, or null
+     * @param to inclusive upper date bound, or null
+     */
+    public record Filter(String text, BigDecimal minAmount, BigDecimal maxAmount,
+                         LocalDateTime from, LocalDateTime to) {
+
+        public Filter {
+            text = text == null || text.isBlank() ? null : text.trim();
+            if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+                throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+            }
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+        }
+    }
+
+    /**
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     * @param size page size, capped at {@code transaction-search.max-page-size}
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public TransactionSearchResponse search(Filter filter, String cursor, Integer size) {
+        int limit = size == null ? properties.getDefaultPageSize()
+                : Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        // One extra tells whether there is a next page
+        List<Transaction> found = mongoTemplate.find(query(filter, Cursor.decode(cursor), limit + 1), Transaction.class);
+        if (found.size() <= limit) {
+            return new TransactionSearchResponse(found, null);
+        }
+        List<Transaction> page = found.subList(0, limit);
+        return new TransactionSearchResponse(page, Cursor.after(page.get(limit - 1)).encode());
+    }
+
+    Query query(Filter filter, Cursor after, int limit) {
+        Query query = new Query();
+        if (filter.text() != null) {
+            query.addCriteria(TextCriteria.forDefaultLanguage().matching(filter.text()));
+        }
+        if (filter.minAmount() != null || filter.maxAmount() != null) {
+            Criteria amount = Criteria.where("amount");
+            if (filter.minAmount() != null) {
+                amount = amount.gte(new Decimal128(filter.minAmount()));
+            }
+            if (filter.maxAmount() != null) {
+                amount = amount.lte(new Decimal128(filter.maxAmount()));
+            }
+            query.addCriteria(amount);
+        }
+
+        // The cursor only tightens the upper date bound, so the index scan starts at the cursor
+        LocalDateTime upper = filter.to();
+        if (after != null && (upper == null || after.transactionDate().isBefore(upper))) {
+            upper = after.transactionDate();
+        }
+        if (filter.from() != null || upper != null) {
+            Criteria date = Criteria.where("transactionDate");
+            if (filter.from() != null) {
+                date = date.gte(filter.from());
+            }
+            if (upper != null) {
+                date = date.lte(upper);
+            }
+            query.addCriteria(date);
+        }
+        if (after != null) {
+            // Skip what the previous page already returned on the cursor's own date. $lt only matches
+            // ids of the cursor's BSON type; String ids sort below every ObjectId, so they all follow one
+            List<Criteria> next = new ArrayList<>(List.of(
+                    Criteria.where("transactionDate").lt(after.transactionDate()),
+                    Criteria.where("_id").lt(after.id())));
+            if (after.id() instanceof ObjectId) {
+                next.add(Criteria.where("transactionDate").is(after.transactionDate())
+                        .and("_id").type(JsonSchemaObject.Type.STRING));
+            }
+            query.addCriteria(new Criteria().orOperator(next));
+        }
+        return query.with(NEWEST_FIRST).limit(limit);
+    }
+
+    /**
+     * Rewrite amounts stored as strings, from before amount was mapped to Decimal128, so that
+     * amount ranges match them. Runs once per database, in the background: batches of
+     * {@code transaction-search.migration-batch-size} in {@code _id} order, each recording its
+     * position in the {@code migrations} marker, so a restart resumes where the last one stopped and
+     * a finished migration is skipped. A failed batch is counted and retried after
+     * {@code transaction-search.migration-retry-backoff}. Strings that are not numbers stay as they
+     * are. Amounts written since the mapping change are already Decimal128.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAmounts() {
+        if (properties.isMigrateAmounts()) {
+            migrator.submit(this::migrateAmountsNow);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        migrator.shutdownNow();
+    }
+
+    void migrateAmountsNow() {
+        MongoCollection<Document> migrations = mongoTemplate.getCollection(MIGRATIONS_COLLECTION);
+        MongoCollection<Document> transactions =
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class));
+        Document marker = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (marker == null) {
+                    marker = migrations.find(Filters.eq("_id", AMOUNT_MIGRATION)).first();
+                    if (marker == null) {
+                        marker = new Document("_id", AMOUNT_MIGRATION).append("converted", 0L);
+                    }
+                }
+                if (marker.containsKey("completedAt")) {
+                    return;
+                }
+                if (!migrateBatch(migrations, transactions, marker)) {
+                    log.info("Converted {} transaction amounts from strings to Decimal128", marker.get("converted"));
+                    return;
+                }
+            } catch (Exception e) {
+                migrationFailures.increment();
+                log.warn("Could not convert transaction amounts to Decimal128, retrying in {}; "
+                        + "amount search misses unconverted ones: {}", properties.getMigrationRetryBackoff(), e.getMessage());
+                try {
+                    Thread.sleep(properties.getMigrationRetryBackoff().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert the next batch after the marker's position and record the new position.
+     *
+     * @return false once there was nothing left, with the marker recorded as completed
+     */
+    private boolean migrateBatch(MongoCollection<Document> migrations, MongoCollection<Document> transactions,
+                                 Document marker) {
+        Document filter = new Document("amount", new Document("$type", BsonType.STRING.getValue()));
+        if (marker.get("lastId") != null) {
+            // $expr compares across BSON types, so String and ObjectId ids are walked alike
+            filter.append("$expr", new Document("$gt", List.of("$_id", marker.get("lastId"))));
+        }
+        List<Object> ids = new ArrayList<>();
+        for (Document transaction : transactions.find(filter).projection(Projections.include("_id"))
+                .sort(Sorts.ascending("_id")).limit(properties.getMigrationBatchSize())) {
+            ids.add(transaction.get("_id"));
+        }
+        Document updated = new Document(marker);
+        if (ids.isEmpty()) {
+            updated.append("completedAt", new Date());
+        } else {
+            UpdateResult result = transactions.updateMany(
+                    Filters.and(Filters.in("_id", ids), new Document("amount", new Document("$type", BsonType.STRING.getValue()))),
+                    List.of(new Document("$set", new Document("amount", new Document("$convert",
+                            new Document("input", "$amount").append("to", "decimal").append("onError", "$amount"))))));
+            if (result.getModifiedCount() > 0) {
+                // Written around the mapping events, so no customer's version moved
+                rewardsVersions.bumpAll();
+                migrationConverted.increment(result.getModifiedCount());
+            }
+            updated.append("lastId", ids.get(ids.size() - 1))
+                    .append("converted", marker.get("converted", Number.class).longValue() + result.getModifiedCount());
+            log.debug("Converted {} more transaction amounts, {} so far", result.getModifiedCount(), updated.get("converted"));
+        }
+        // Upsert: another instance may be running the same migration; both convert the same way
+        migrations.replaceOne(Filters.eq("_id", AMOUNT_MIGRATION), updated, new ReplaceOptions().upsert(true));
+        marker.putAll(updated);
+        return !ids.isEmpty();
+    }
+
+    /**
+     * Position after the last transaction of a page, opaque to clients.
+     *
+     * @param id the raw {@code _id}: an {@link ObjectId}, or a String for ids that are not one
+     */
+    record Cursor(LocalDateTime transactionDate, Object id) {
+
+        static Cursor after(Transaction last) {
+            // Stored the way the mapping stores a String id: as an ObjectId whenever it is a valid one
+            String id = last.getId();
+            return new Cursor(last.getTransactionDate(), ObjectId.isValid(id) ? new ObjectId(id) : id);
+        }
+
+        String encode() {
+            String typed = (id instanceof ObjectId ? "o," : "s,") + id;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((transactionDate + "," + typed).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", 3);
+                if (parts.length == 3 && parts[1].equals("o") && ObjectId.isValid(parts[2])) {
+                    return new Cursor(LocalDateTime.parse(parts[0]), new ObjectId(parts[2]));
+                }
+                if (parts.length == 3 && parts[1].equals("s") && !parts[2].isEmpty()) {
+                    return new Cursor(LocalDateTime.parse(parts[0]), parts[2]);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
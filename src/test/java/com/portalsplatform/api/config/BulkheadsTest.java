@@ -0,0 +1,138 @@
+package com.portalsplatform.api.config;
+
+import com.portalsplatform.api.exception.BulkheadRejectedException;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Bulkheads Tests")
+class BulkheadsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkheads bulkheads;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        RequestContextHolder.resetRequestAttributes();
+        if (bulkheads != null) {
+            bulkheads.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject calls once the threads and queue are taken, without touching other bulkheads")
+    void shouldRejectWhenFull() throws Exception {
+        // Given - one thread, one queue slot
+        bulkheads = new Bulkheads(properties(Duration.ofSeconds(10)), meterRegistry);
+        CompletableFuture<String> running = bulkheads.rewards(this::blocked);
+        CompletableFuture<String> queued = bulkheads.rewards(() -> "queued");
+
+        // When
+        CompletableFuture<String> rejected = bulkheads.rewards(() -> "rejected");
+
+        // Then
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BulkheadRejectedException.class);
+        assertThat(bulkheads.lookup(() -> "lookup").get(5, TimeUnit.SECONDS)).isEqualTo("lookup");
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(calls("rewards", "rejected")).isEqualTo(1);
+        assertThat(calls("rewards", "accepted")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should answer with a rejection when a call outlives the bulkhead timeout")
+    void shouldTimeOut() {
+        // Given
+        bulkheads = new Bulkheads(properties(Duration.ofMillis(100)), meterRegistry);
+
+        // When
+        CompletableFuture<String> slow = bulkheads.rewards(this::blocked);
+        CompletableFuture<String> queued = bulkheads.rewards(() -> "queued");
+
+        // Then
+        assertThatThrownBy(() -> slow.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(BulkheadRejectedException.class)
+                .hasMessageContaining("timed out");
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(BulkheadRejectedException.class);
+        assertThat(calls("rewards", "timed_out")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should give up at the request deadline when it comes before the bulkhead timeout")
+    void shouldStopAtRequestDeadline() {
+        // Given
+        bulkheads = new Bulkheads(properties(Duration.ofSeconds(10)), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        CallContext.start(request, RequestDeadline.expiresAt(Duration.ofMillis(100)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When
+        CompletableFuture<String> slow = bulkheads.rewards(this::blocked);
+
+        // Then
+        assertThatThrownBy(() -> slow.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(calls("rewards", "timed_out")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should run the call with the caller's call context, not its request attributes")
+    void shouldPropagateCallContext() throws Exception {
+        // Given
+        bulkheads = new Bulkheads(properties(Duration.ofSeconds(10)), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadRouting.SESSION_TOKEN_HEADER, "token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        CallContext context = CallContext.current();
+
+        // When
+        CompletableFuture<CallContext> seen = bulkheads.write(() -> {
+            assertThat(RequestContextHolder.getRequestAttributes()).isNull();
+            return CallContext.current();
+        });
+
+        // Then
+        assertThat(seen.get(5, TimeUnit.SECONDS)).isSameAs(context);
+        assertThat(context.sessionToken()).isEqualTo("token");
+    }
+
+    private String blocked() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    private double calls(String bulkhead, String result) {
+        return meterRegistry.get("rewards.bulkhead.calls").tag("bulkhead", bulkhead).tag("result", result)
+                .counter().count();
+    }
+
+    private static BulkheadProperties properties(Duration timeout) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setRewards(new BulkheadProperties.Pool(1, 1, timeout));
+        return properties;
+    }
+}
@@ -0,0 +1,147 @@
+package com.portalsplatform.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Hedged Reads Tests")
+class HedgedReadsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadRouting readRouting = mock(ReadRouting.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HedgedReads hedgedReads;
+
+    @BeforeEach
+    void setUp() {
+        when(readRouting.primary(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(readRouting.preferred(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (hedgedReads != null) {
+            hedgedReads.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer from the hedge when the original read is slower than usual, and abandon it")
+    void shouldHedgeSlowRead() throws Exception {
+        // Given - the usual latency is known
+        hedgedReads = new HedgedReads(properties(1.0), new ReadRoutingProperties(), readRouting, meterRegistry);
+        train();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean loserAbandoned = new AtomicBoolean();
+        CountDownLatch loserDone = new CountDownLatch(1);
+
+        // When - the original read stalls, the duplicate answers at once
+        String result = hedgedReads.read("total", null, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(release);
+                loserAbandoned.set(HedgedReads.abandoned());
+                loserDone.countDown();
+                return "original";
+            }
+            return "hedge";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("hedge");
+        verify(readRouting, atLeastOnce()).primary(any());
+        verify(readRouting).preferred(any(), any());
+        release.countDown();
+        assertThat(loserDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(loserAbandoned).isTrue();
+        waitUntil(() -> meterRegistry.get("rewards.hedging.wasted").timer().count() == 1);
+        assertThat(calls("hedge_won")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not hedge beyond the hedge budget")
+    void shouldRespectBudget() throws Exception {
+        // Given - no budget for hedges at all
+        hedgedReads = new HedgedReads(properties(0), new ReadRoutingProperties(), readRouting, meterRegistry);
+        train();
+
+        // When
+        String result = hedgedReads.read("total", null, () -> {
+            await(release, 50);
+            return "original";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("original");
+        verify(readRouting, never()).preferred(any(), any());
+        assertThat(calls("budget_exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should leave reads in a session unhedged")
+    void shouldNotHedgeSessionReads() {
+        // Given
+        hedgedReads = new HedgedReads(properties(1.0), new ReadRoutingProperties(), readRouting, meterRegistry);
+        doReturn("session read").when(readRouting).secondary(eq("token"), any());
+
+        // When/Then
+        assertThat(hedgedReads.<String>read("total", "token", () -> "unused")).isEqualTo("session read");
+        assertThat(meterRegistry.find("rewards.hedging.threshold").gauge()).isNull();
+    }
+
+    private void train() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            assertThat(hedgedReads.read("total", null, () -> "fast")).isEqualTo("fast");
+        }
+        waitUntil(() -> meterRegistry.get("rewards.hedging.threshold").tag("operation", "total").gauge().value() > 0);
+    }
+
+    private double calls(String result) {
+        return meterRegistry.get("rewards.hedging.calls").tag("result", result).counter().count();
+    }
+
+    private static HedgingProperties properties(double maxHedgeRate) {
+        HedgingProperties properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setPercentile(0.5);
+        properties.setMinDelay(Duration.ofMillis(5));
+        properties.setSampleWindow(10);
+        properties.setMinSamples(10);
+        properties.setMaxHedgeRate(maxHedgeRate);
+        return properties;
+    }
+
+    private static void await(CountDownLatch latch) {
+        await(latch, 5000);
+    }
+
+    private static void await(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.MongoSocketReadTimeoutException;
+import com.mongodb.ServerAddress;
+import com.portalsplatform.api.exception.CircuitOpenException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MongoCircuitBreaker Tests")
+class MongoCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final RuntimeException UNAVAILABLE = new DataAccessResourceFailureException("Timed out");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should open once the failure rate crosses the threshold and refuse calls without reaching Mongo")
+    void shouldOpenOnFailureRate() {
+        // Given
+        MongoCircuitBreaker breaker = new MongoCircuitBreaker(properties(Duration.ofMinutes(1)), meterRegistry);
+
+        // When - 5 successes, then failures until half of the 10-call window failed
+        for (int i = 0; i < 5; i++) {
+            breaker.record(breaker.acquire(), FAST, null);
+        }
+        for (int i = 0; i < 4; i++) {
+            breaker.record(breaker.acquire(), FAST, UNAVAILABLE);
+        }
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.CLOSED);
+        breaker.record(breaker.acquire(), FAST, UNAVAILABLE);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(CircuitOpenException.class);
+        assertThat(calls("rejected")).isEqualTo(1);
+        assertThat(meterRegistry.get("rewards.circuit_breaker.state").tag("state", "open").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count slow calls as failures but not errors caused by the request itself")
+    void shouldClassifyFailures() {
+        // Given
+        MongoCircuitBreaker breaker = new MongoCircuitBreaker(properties(Duration.ofMinutes(1)), meterRegistry);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            breaker.record(breaker.acquire(), FAST, new DuplicateKeyException("E11000"));
+        }
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.CLOSED);
+        for (int i = 0; i < 5; i++) {
+            breaker.record(breaker.acquire(), Duration.ofSeconds(3).toNanos(), null);
+        }
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.OPEN);
+        assertThat(calls("failure")).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should close after enough successful trial calls, and reopen on a failed one")
+    void shouldProbeWhenHalfOpen() {
+        // Given - open, with the open period already over
+        MongoCircuitBreaker breaker = new MongoCircuitBreaker(properties(Duration.ZERO), meterRegistry);
+        open(breaker);
+
+        // When - a failed trial
+        breaker.record(breaker.acquire(), FAST, UNAVAILABLE);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.OPEN);
+
+        // When - two trials admitted, a third refused while they run, then both succeed
+        long first = breaker.acquire();
+        long second = breaker.acquire();
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(CircuitOpenException.class);
+        breaker.record(first, FAST, null);
+        breaker.record(second, FAST, null);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should ignore results of calls admitted before the last state change")
+    void shouldIgnoreOutdatedResults() {
+        // Given - a slow call admitted while closed
+        MongoCircuitBreaker breaker = new MongoCircuitBreaker(properties(Duration.ZERO), meterRegistry);
+        long straggler = breaker.acquire();
+        open(breaker);
+        long trial = breaker.acquire();
+
+        // When
+        breaker.record(straggler, FAST, UNAVAILABLE);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.HALF_OPEN);
+        breaker.record(trial, FAST, null);
+        breaker.record(breaker.acquire(), FAST, null);
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should recognise unavailability anywhere in the cause chain")
+    void shouldRecogniseUnavailability() {
+        RuntimeException wrapped = new IllegalStateException("Query failed",
+                new MongoSocketReadTimeoutException("Read timed out", new ServerAddress(), new RuntimeException()));
+
+        assertThat(MongoCircuitBreaker.isUnavailable(wrapped)).isTrue();
+        assertThat(MongoCircuitBreaker.isUnavailable(new CircuitOpenException())).isTrue();
+        assertThat(MongoCircuitBreaker.isUnavailable(new IllegalArgumentException("Bad month"))).isFalse();
+    }
+
+    private static void open(MongoCircuitBreaker breaker) {
+        for (int i = 0; i < 5; i++) {
+            breaker.record(breaker.acquire(), FAST, UNAVAILABLE);
+        }
+        assertThat(breaker.state()).isEqualTo(MongoCircuitBreaker.State.OPEN);
+    }
+
+    private double calls(String result) {
+        return meterRegistry.get("rewards.circuit_breaker.calls").tag("result", result).counter().count();
+    }
+
+    private static CircuitBreakerProperties properties(Duration openDuration) {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setSlidingWindow(10);
+        properties.setMinimumCalls(5);
+        properties.setOpenDuration(openDuration);
+        properties.setHalfOpenCalls(2);
+        return properties;
+    }
+}
@@ -0,0 +1,108 @@
+package com.portalsplatform.api.config;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Protobuf Message Converter Tests")
+class ProtobufHttpMessageConverterTest {
+
+    private final ProtobufHttpMessageConverter converter = new ProtobufHttpMessageConverter();
+
+    @Test
+    @DisplayName("Should encode a rewards response following rewards.proto")
+    void shouldEncodeRewardsResponse() throws IOException {
+        // Given
+        RewardsResponse response = new RewardsResponse("CUST001", "John Doe", 205,
+                Map.of("2024-08", 115, "2024-09", 90), "All time");
+
+        // When
+        CodedInputStream in = CodedInputStream.newInstance(encode(response));
+
+        // Then
+        Map<String, Integer> monthly = new LinkedHashMap<>();
+        List<Object> fields = new ArrayList<>();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1, 2, 5 -> fields.add(in.readString());
+                case 3 -> fields.add(in.readInt32());
+                case 4 -> {
+                    int limit = in.pushLimit(in.readRawVarint32());
+                    in.readTag();
+                    String month = in.readString();
+                    in.readTag();
+                    monthly.put(month, in.readInt32());
+                    in.popLimit(limit);
+                }
+                default -> fail("Unexpected field " + WireFormat.getTagFieldNumber(tag));
+            }
+        }
+        assertThat(fields).containsExactly("CUST001", "John Doe", 205, "All time");
+        assertThat(monthly).containsOnly(entry("2024-08", 115), entry("2024-09", 90));
+    }
+
+    @Test
+    @DisplayName("Should encode a transaction list as repeated length-delimited messages")
+    void shouldEncodeTransactionList() throws IOException {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2024, 9, 15, 10, 0);
+        List<Transaction> transactions = List.of(
+                new Transaction("TXN001", "CUST001", new BigDecimal("120.00"), date, "Store Purchase"),
+                new Transaction("TXN002", "CUST001", new BigDecimal("75.50"), date, "Online Purchase"));
+
+        // When
+        CodedInputStream in = CodedInputStream.newInstance(encode(transactions));
+
+        // Then
+        List<String> amounts = new ArrayList<>();
+        List<Long> dates = new ArrayList<>();
+        while (in.readTag() != 0) {
+            int limit = in.pushLimit(in.readRawVarint32());
+            for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case 4 -> amounts.add(in.readString());
+                    case 5 -> dates.add(in.readInt64());
+                    default -> in.skipField(tag);
+                }
+            }
+            in.popLimit(limit);
+        }
+        assertThat(amounts).containsExactly("120.00", "75.50");
+        assertThat(dates).containsOnly(date.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("Should only offer to write rewards, transactions and transaction lists")
+    void shouldLimitSupportedTypes() {
+        // Then
+        assertThat(converter.canWrite(RewardsResponse.class, RewardsResponse.class, ProtobufHttpMessageConverter.MEDIA_TYPE)).isTrue();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<Transaction>>() { }.getType(), List.class,
+                ProtobufHttpMessageConverter.MEDIA_TYPE)).isTrue();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<String>>() { }.getType(), List.class,
+                ProtobufHttpMessageConverter.MEDIA_TYPE)).isFalse();
+        assertThat(converter.canWrite(String.class, String.class, ProtobufHttpMessageConverter.MEDIA_TYPE)).isFalse();
+        assertThat(converter.canRead(RewardsResponse.class, ProtobufHttpMessageConverter.MEDIA_TYPE)).isFalse();
+    }
+
+    private static byte[] encode(Object body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProtobufHttpMessageConverter.encode(body, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,133 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.support.MongoReplicaSet;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Read Routing Integration Tests")
+class ReadRoutingIntegrationTest {
+
+    private static final List<CommandStartedEvent> FINDS = new CopyOnWriteArrayList<>();
+
+    private static MongoReplicaSet replicaSet;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static ReadRouting readRouting;
+
+    @BeforeAll
+    static void startReplicaSet() {
+        replicaSet = MongoReplicaSet.start(3);
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if (event.getCommandName().equals("find")) {
+                    FINDS.add(event);
+                }
+            }
+        };
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(replicaSet.connectionString("routing-test")))
+                .addCommandListener(listener)
+                .build());
+        mongoTemplate = new MongoTemplate(new ReadRoutingMongoDatabaseFactory(
+                new SimpleMongoClientDatabaseFactory(mongoClient, "routing-test")));
+        readRouting = new ReadRouting(mongoClient, new ReadRoutingProperties());
+    }
+
+    @AfterAll
+    static void stopReplicaSet() {
+        mongoClient.close();
+        replicaSet.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        FINDS.clear();
+    }
+
+    private static Transaction newTransaction(String transactionId) {
+        return new Transaction(transactionId, "CUST001", new BigDecimal("120.00"), LocalDateTime.now(), "Store");
+    }
+
+    private static Query byTransactionId(String transactionId) {
+        return Query.query(Criteria.where("transactionId").is(transactionId));
+    }
+
+    @Test
+    @DisplayName("Should send routed reads to a secondary")
+    void shouldRouteReadsToSecondary() {
+        // When
+        readRouting.secondary(null, () -> mongoTemplate.find(byTransactionId("NONE"), Transaction.class));
+
+        // Then
+        assertThat(FINDS).hasSize(1);
+        assertThat(FINDS.get(0).getConnectionDescription().getServerAddress().getPort())
+                .isNotEqualTo(replicaSet.primaryPort());
+    }
+
+    @Test
+    @DisplayName("Should keep unrouted reads on the primary")
+    void shouldKeepUnroutedReadsOnPrimary() {
+        // When
+        mongoTemplate.find(byTransactionId("NONE"), Transaction.class);
+
+        // Then
+        assertThat(FINDS).hasSize(1);
+        assertThat(FINDS.get(0).getConnectionDescription().getServerAddress().getPort())
+                .isEqualTo(replicaSet.primaryPort());
+    }
+
+    @Test
+    @DisplayName("Should read its own write from a secondary with the session token")
+    void shouldReadYourWritesWithSessionToken() {
+        // Given
+        ReadRouting.Tracked<Transaction> tracked = readRouting.tracked(
+                () -> mongoTemplate.insert(newTransaction("TXN-RYW")));
+        assertThat(tracked.sessionToken()).isNotBlank();
+
+        // When
+        Transaction found = readRouting.secondary(tracked.sessionToken(),
+                () -> mongoTemplate.findOne(byTransactionId("TXN-RYW"), Transaction.class));
+
+        // Then
+        assertThat(found).isNotNull();
+        CommandStartedEvent find = FINDS.get(FINDS.size() - 1);
+        assertThat(find.getConnectionDescription().getServerAddress().getPort())
+                .isNotEqualTo(replicaSet.primaryPort());
+        BsonDocument readConcern = find.getCommand().getDocument("readConcern");
+        assertThat(readConcern.containsKey("afterClusterTime")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary for a malformed token")
+    void shouldUsePrimaryForMalformedToken() {
+        // When
+        readRouting.secondary("not-a-token", () -> mongoTemplate.find(byTransactionId("NONE"), Transaction.class));
+
+        // Then
+        assertThat(FINDS.get(0).getConnectionDescription().getServerAddress().getPort())
+                .isEqualTo(replicaSet.primaryPort());
+    }
+}
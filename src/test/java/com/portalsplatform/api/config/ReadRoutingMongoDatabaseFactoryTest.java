@@ -0,0 +1,71 @@
+package com.portalsplatform.api.config;
+
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReadRoutingMongoDatabaseFactory Tests")
+class ReadRoutingMongoDatabaseFactoryTest {
+
+    private final MongoDatabaseFactory delegate = mock(MongoDatabaseFactory.class);
+    private final MongoDatabaseFactory bound = mock(MongoDatabaseFactory.class);
+    private final ClientSession session = mock(ClientSession.class);
+    private final MongoDatabase database = mock(MongoDatabase.class);
+    private final MongoDatabase bounded = mock(MongoDatabase.class);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.withSession(session)).thenReturn(bound);
+        when(bound.getMongoDatabase()).thenReturn(database);
+        when(database.withTimeout(anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(bounded);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should bound databases of a session-bound factory by the request deadline")
+    void shouldApplyDeadlineWithSession() {
+        // Given
+        CallContext.start(request, RequestDeadline.expiresAt(Duration.ofSeconds(5)));
+
+        // When
+        MongoDatabase result = new ReadRoutingMongoDatabaseFactory(delegate).withSession(session).getMongoDatabase();
+
+        // Then
+        assertThat(result).isSameAs(bounded);
+        verify(database).withTimeout(longThat(millis -> millis > 4_000 && millis <= 5_000), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Should refuse a session-bound database once the deadline has passed")
+    void shouldRefuseWithSessionAfterDeadline() {
+        // Given
+        CallContext.start(request, RequestDeadline.expiresAt(Duration.ZERO));
+        MongoDatabaseFactory factory = new ReadRoutingMongoDatabaseFactory(delegate).withSession(session);
+
+        // When/Then
+        assertThatThrownBy(factory::getMongoDatabase).isInstanceOf(DeadlineExceededException.class);
+        verifyNoInteractions(database);
+    }
+}
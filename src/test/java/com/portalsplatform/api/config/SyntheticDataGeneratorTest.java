@@ -0,0 +1,60 @@
+package com.portalsplatform.api.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Synthetic Data Generator Tests")
+class SyntheticDataGeneratorTest {
+
+    @Test
+    @DisplayName("Should assign exactly the requested number of transactions")
+    void shouldAssignExactTransactionTotal() {
+        // Given
+        SyntheticDataGenerator.ActivityPlan plan = new SyntheticDataGenerator.ActivityPlan(1_000, 123_457, 1.1);
+
+        // When
+        long total = 0;
+        for (int i = 0; i < 1_000; i++) {
+            total += plan.transactionsFor(i);
+        }
+
+        // Then
+        assertThat(total).isEqualTo(123_457);
+    }
+
+    @Test
+    @DisplayName("Should concentrate activity on the first customers")
+    void shouldSkewActivity() {
+        // Given
+        SyntheticDataGenerator.ActivityPlan plan = new SyntheticDataGenerator.ActivityPlan(1_000, 1_000_000, 1.1);
+
+        // Then
+        assertThat(plan.transactionsFor(0)).isGreaterThan(plan.transactionsFor(9) * 10);
+        assertThat(plan.transactionsFor(9)).isGreaterThan(plan.transactionsFor(999));
+    }
+
+    @Test
+    @DisplayName("Should sample amounts deterministically for a seed and within range")
+    void shouldSampleDeterministically() {
+        // Given
+        SyntheticDataGenerator.ZipfSampler sampler = new SyntheticDataGenerator.ZipfSampler(1_000, 0.6);
+        Random first = new Random(42);
+        Random second = new Random(42);
+
+        // Then
+        int small = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int value = sampler.sample(first);
+            assertThat(value).isBetween(1, 1_000).isEqualTo(sampler.sample(second));
+            if (value <= 100) {
+                small++;
+            }
+        }
+        // Skewed toward small amounts, but not degenerate
+        assertThat(small).isBetween(1_500, 6_000);
+    }
+}
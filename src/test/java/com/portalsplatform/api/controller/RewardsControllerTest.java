@@ -1,21 +1,53 @@
 package com.portalsplatform.api.controller;
 
+import com.portalsplatform.api.model.dto.RewardsField;
 import com.portalsplatform.api.model.dto.RewardsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.portalsplatform.api.config.BulkheadProperties;
+import com.portalsplatform.api.config.Bulkheads;
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.ProtobufHttpMessageConverter;
+import com.portalsplatform.api.exception.CircuitOpenException;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+import com.portalsplatform.api.service.ClosedMonthRewards;
 import com.portalsplatform.api.service.RewardsService;
+import com.portalsplatform.api.service.RewardsVersions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import com.portalsplatform.api.security.JsonSchemaValidationFilter;
+import com.portalsplatform.api.security.AccessLogFilter;
 import com.portalsplatform.api.security.ApiKeyAuthFilter;
+import com.portalsplatform.api.security.ConcurrencyLimitFilter;
 import com.portalsplatform.api.security.RateLimitingFilter;
+import com.portalsplatform.api.security.RequestDeadlineFilter;
 
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
@@ -37,9 +69,36 @@ class RewardsControllerTest {
     @MockBean
     private RateLimitingFilter rateLimitingFilter;
 
+    @MockBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockBean
+    private RequestDeadlineFilter requestDeadlineFilter;
+
+    @MockBean
+    private AccessLogFilter accessLogFilter;
+
     @MockBean
     private RewardsService rewardsService;
 
+    @MockBean
+    private RewardsVersions rewardsVersions;
+
+    @MockBean
+    private ClosedMonthRewards closedMonthRewards;
+
+    @MockBean
+    private ClosedMonthProperties closedMonthProperties;
+
+    @MockBean
+    private Bulkheads bulkheads;
+
+    @BeforeEach
+    void runBulkheadsInline() {
+        when(bulkheads.rewards(any())).thenAnswer(invocation ->
+            CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
+    }
+
     @Test
     void getTotalRewards_ShouldReturnOk() throws Exception {
         // Given
@@ -53,7 +112,7 @@ class RewardsControllerTest {
         when(rewardsService.calculateTotalRewards("CUST001")).thenReturn(mockResponse);
 
         // When/Then
-        mockMvc.perform(get("/api/customers/CUST001/rewards"))
+        perform(get("/api/customers/CUST001/rewards"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.customerId").value("CUST001"))
             .andExpect(jsonPath("$.totalPoints").value(365))
@@ -67,7 +126,7 @@ class RewardsControllerTest {
             .thenThrow(new NoSuchElementException("Customer not found"));
 
         // When/Then
-        mockMvc.perform(get("/api/customers/INVALID/rewards"))
+        perform(get("/api/customers/INVALID/rewards"))
             .andExpect(status().isNotFound());
     }
 
@@ -85,7 +144,7 @@ class RewardsControllerTest {
             .thenReturn(mockResponse);
 
         // When/Then
-        mockMvc.perform(get("/api/customers/CUST001/rewards/2024-09"))
+        perform(get("/api/customers/CUST001/rewards/2024-09"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.totalPoints").value(115));
     }
@@ -93,7 +152,7 @@ class RewardsControllerTest {
     @Test
     void getMonthlyRewards_InvalidFormat_ShouldReturn400() throws Exception {
         // When/Then
-        mockMvc.perform(get("/api/customers/CUST001/rewards/invalid"))
+        perform(get("/api/customers/CUST001/rewards/invalid"))
             .andExpect(status().isBadRequest());
     }
 
@@ -111,8 +170,259 @@ class RewardsControllerTest {
             .thenReturn(mockResponse);
 
         // When/Then
-        mockMvc.perform(get("/api/customers/CUST001/rewards/recent?months=3"))
+        perform(get("/api/customers/CUST001/rewards/recent?months=3"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.period").value("Last 3 months"));
     }
+
+    @Test
+    void getTotalRewards_ShouldTagResponseWithVersion() throws Exception {
+        // Given
+        when(rewardsVersions.current("CUST001")).thenReturn(new RewardsVersions.Version(7, null));
+        when(rewardsVersions.isSettled(any())).thenReturn(true);
+        when(rewardsService.calculateTotalRewards("CUST001"))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time"));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "W/\"7\""));
+    }
+
+    @Test
+    void getTotalRewards_MatchingETag_ShouldReturn304WithoutCalculating() throws Exception {
+        // Given
+        when(rewardsVersions.current("CUST001")).thenReturn(new RewardsVersions.Version(7, null));
+        when(rewardsVersions.isSettled(any())).thenReturn(true);
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards").header("If-None-Match", "W/\"7\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        verify(rewardsService, never()).calculateTotalRewards("CUST001");
+    }
+
+    @Test
+    void getRecentRewards_ETagFromPreviousMonth_ShouldReturnOk() throws Exception {
+        // Given - same version, but the window has moved on since the client's copy
+        when(rewardsVersions.current("CUST001")).thenReturn(new RewardsVersions.Version(7, null));
+        when(rewardsVersions.isSettled(any())).thenReturn(true);
+        when(rewardsService.calculateRewardsForLastMonths("CUST001", 3))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 0, Map.of(), "Last 3 months"));
+        String current = "W/\"7-" + YearMonth.now() + "\"";
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards/recent?months=3")
+                .header("If-None-Match", "W/\"7-" + YearMonth.now().minusMonths(1) + "\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", current));
+    }
+
+    @Test
+    void getTotalRewards_UnsettledVersion_ShouldReturnUntagged() throws Exception {
+        // Given - the last write may not have reached the projection yet
+        when(rewardsVersions.current("CUST001")).thenReturn(new RewardsVersions.Version(8, null));
+        when(rewardsVersions.isSettled(any())).thenReturn(false);
+        when(rewardsService.calculateTotalRewards("CUST001"))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time"));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards").header("If-None-Match", "W/\"8\""))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void getMonthlyRewards_ClosedMonth_ShouldBeImmutable() throws Exception {
+        // Given
+        when(closedMonthRewards.isClosed(YearMonth.of(2024, 9))).thenReturn(true);
+        when(closedMonthProperties.getMaxAge()).thenReturn(Duration.ofDays(30));
+        when(rewardsService.calculateMonthlyRewards("CUST001", "2024-09"))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 115, Map.of("2024-09", 115), "Month: 2024-09"));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards/2024-09"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control",
+                allOf(containsString("max-age=2592000"), containsString("private"), containsString("immutable"))));
+    }
+
+    @Test
+    void getMonthlyRewards_OpenMonth_ShouldNotSetCacheControl() throws Exception {
+        // Given
+        String thisMonth = YearMonth.now().toString();
+        when(rewardsService.calculateMonthlyRewards("CUST001", thisMonth))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 0, Map.of(thisMonth, 0), "Month: " + thisMonth));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards/" + thisMonth))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Cache-Control"));
+    }
+
+    @Test
+    void getTotalRewards_AcceptCbor_ShouldReturnCbor() throws Exception {
+        // Given
+        when(rewardsService.calculateTotalRewards("CUST001"))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time"));
+
+        // When
+        byte[] body = perform(get("/api/customers/CUST001/rewards").header("Accept", "application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Then - same document as the JSON form
+        RewardsResponse decoded = new ObjectMapper(new CBORFactory()).readValue(body, RewardsResponse.class);
+        assertThat(decoded.totalPoints()).isEqualTo(365);
+        assertThat(decoded.monthlyPoints()).containsEntry("2024-09", 365);
+    }
+
+    @Test
+    void getTotalRewards_AcceptProtobuf_ShouldReturnProtobuf() throws Exception {
+        // Given
+        when(rewardsService.calculateTotalRewards("CUST001"))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time"));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards").header("Accept", ProtobufHttpMessageConverter.MEDIA_TYPE_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ProtobufHttpMessageConverter.MEDIA_TYPE_VALUE));
+    }
+
+    @Test
+    void getTotalRewards_AcceptAnything_ShouldDefaultToJson() throws Exception {
+        // Given
+        when(rewardsService.calculateTotalRewards("CUST001"))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time"));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards").header("Accept", "*/*"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/json"));
+    }
+
+    @Test
+    void getRecentRewards_SeriesShape_ShouldReturnDensePoints() throws Exception {
+        // Given
+        YearMonth current = YearMonth.now();
+        when(rewardsService.calculateRewardsForLastMonths("CUST001", 3))
+            .thenReturn(new RewardsResponse("CUST001", "John Doe", 150,
+                Map.of(current.toString(), 100, current.minusMonths(2).toString(), 50), "Last 3 months"));
+
+        // When/Then - one slot per month of the window, oldest first
+        perform(get("/api/customers/CUST001/rewards/recent?months=3&shape=series"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.startMonth").value(current.minusMonths(3).toString()))
+            .andExpect(jsonPath("$.points", contains(0, 50, 0, 100)))
+            .andExpect(jsonPath("$.monthlyPoints").doesNotExist());
+    }
+
+    @Test
+    void getTotalRewards_UnknownShape_ShouldReturn400() throws Exception {
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards?shape=table"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTotalRewards_SelectedFields_ShouldOmitTheRest() throws Exception {
+        // Given
+        when(rewardsService.calculateTotalRewards("CUST001", EnumSet.of(RewardsField.CUSTOMER_ID, RewardsField.TOTAL_POINTS)))
+            .thenReturn(new RewardsResponse("CUST001", null, 365, null, null));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards?fields=customerId,totalPoints"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalPoints").value(365))
+            .andExpect(jsonPath("$.customerName").doesNotExist())
+            .andExpect(jsonPath("$.monthlyPoints").doesNotExist());
+    }
+
+    @Test
+    void getTotalRewards_UnknownField_ShouldReturn400() throws Exception {
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards?fields=customerId,email"))
+            .andExpect(status().isBadRequest());
+    }
+
+    // Controllers answer from a bulkhead, so every response arrives through an async dispatch
+    @Test
+    void getTotalRewards_StaleFallback_ShouldReturnUntaggedWithAge() throws Exception {
+        // Given - MongoDB went away after the version was read, and the last good response is served
+        when(rewardsVersions.current("CUST001")).thenReturn(new RewardsVersions.Version(7, null));
+        when(rewardsVersions.isSettled(any())).thenReturn(true);
+        when(rewardsService.calculateTotalRewards("CUST001")).thenAnswer(invocation -> {
+            CallContext.current().setStaleness(Duration.ofSeconds(42));
+            return new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time");
+        });
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalPoints").value(365))
+            .andExpect(header().doesNotExist("ETag"))
+            .andExpect(header().string("Age", "42"))
+            .andExpect(header().string("X-Rewards-Stale", "true"))
+            .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getTotalRewards_OnBulkheadThread_ShouldSeeRequestAfterDispatchReturned() throws Exception {
+        // Given - a real bulkhead, and a version read slow enough that the servlet thread has
+        // returned and completed the request's attributes before the controller records the version
+        Bulkheads realBulkheads = new Bulkheads(new BulkheadProperties(), new SimpleMeterRegistry());
+        doAnswer(invocation -> realBulkheads.rewards(invocation.<Supplier<?>>getArgument(0)))
+            .when(bulkheads).rewards(any());
+        when(rewardsVersions.current("CUST001")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return new RewardsVersions.Version(7, null);
+        });
+        when(rewardsVersions.isSettled(any())).thenReturn(true);
+        AtomicReference<Long> seenVersion = new AtomicReference<>();
+        when(rewardsService.calculateTotalRewards("CUST001")).thenAnswer(invocation -> {
+            seenVersion.set(RewardsVersions.requestVersion());
+            CallContext.current().setStaleness(Duration.ofSeconds(42));
+            return new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time");
+        });
+
+        // When/Then
+        try {
+            perform(get("/api/customers/CUST001/rewards"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "42"));
+            assertThat(seenVersion.get()).isEqualTo(7L);
+        } finally {
+            realBulkheads.destroy();
+        }
+    }
+
+    @Test
+    void getTotalRewards_MongoUnavailable_ShouldReturn503() throws Exception {
+        // Given - nothing to fall back on
+        when(rewardsVersions.current("CUST001")).thenThrow(new CircuitOpenException());
+        when(rewardsService.calculateTotalRewards("CUST001")).thenThrow(new CircuitOpenException());
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void getRecentRewards_DeadlineExceeded_ShouldReturn504() throws Exception {
+        // Given
+        when(rewardsService.calculateRewardsForLastMonths("CUST001", 3))
+            .thenThrow(new DeadlineExceededException("before a MongoDB call"));
+
+        // When/Then
+        perform(get("/api/customers/CUST001/rewards/recent?months=3"))
+            .andExpect(status().isGatewayTimeout());
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(builder)
+            .andExpect(request().asyncStarted())
+            .andReturn()));
+    }
 }
@@ -0,0 +1,89 @@
+package com.portalsplatform.api.metrics;
+
+import com.portalsplatform.api.config.AccessLogProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Access Log Tests")
+class AccessLogTest {
+
+    private static final String REWARDS = "/api/customers/{customerId}/rewards";
+    private static final long FAST = Duration.ofMillis(3).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccessLog accessLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (accessLog != null) {
+            accessLog.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should sample successes by route but always keep errors and slow requests")
+    void shouldSampleSuccessesOnly() {
+        // Given - successful rewards reads are never sampled
+        accessLog = new AccessLog(properties(16), meterRegistry, false);
+
+        // When/Then
+        assertThat(accessLog.record("GET", "/api/customers/CUST001/rewards", REWARDS, 200, FAST)).isFalse();
+        assertThat(accessLog.record("GET", "/api/customers/CUST001/rewards", REWARDS, 404, FAST)).isTrue();
+        assertThat(accessLog.record("GET", "/api/customers/CUST001/rewards", REWARDS, 200,
+                Duration.ofSeconds(2).toNanos())).isTrue();
+        assertThat(accessLog.record("POST", "/api/transactions", "/api/transactions", 201, FAST)).isTrue();
+        assertThat(count("sampled_out")).isEqualTo(1);
+        assertThat(count("queued")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should drop and count entries when the buffer is full instead of waiting")
+    void shouldDropOnOverflow() {
+        // Given - no writer draining a two-entry buffer
+        accessLog = new AccessLog(properties(2), meterRegistry, false);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            accessLog.record("GET", "/api/customers/CUST001/rewards", REWARDS, 500, FAST);
+        }
+
+        // Then
+        assertThat(accessLog.queued()).isEqualTo(2);
+        assertThat(count("dropped")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should write each entry as one JSON object")
+    void shouldFormatAsJson() {
+        // Given
+        accessLog = new AccessLog(properties(16), meterRegistry, false);
+        AccessLog.Entry entry = new AccessLog.Entry(0, "GET", "/api/customers/CUST\"1/rewards", REWARDS, 503,
+                Duration.ofMillis(12).toNanos(), "error");
+
+        // When
+        String json = accessLog.toJson(entry);
+
+        // Then
+        assertThat(json).isEqualTo("{\"@timestamp\":\"1970-01-01T00:00:00Z\",\"method\":\"GET\","
+                + "\"path\":\"/api/customers/CUST\\\"1/rewards\",\"route\":\"" + REWARDS + "\","
+                + "\"status\":503,\"duration_ms\":12.0,\"reason\":\"error\"}");
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("rewards.access_log.events").tag("result", result).counter().count();
+    }
+
+    private static AccessLogProperties properties(int queueCapacity) {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setQueueCapacity(queueCapacity);
+        properties.setRoutes(Map.of("/api/customers/*/rewards/**", 0.0));
+        return properties;
+    }
+}
@@ -0,0 +1,161 @@
+package com.portalsplatform.api.metrics;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.portalsplatform.api.config.MongoMetricsProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Mongo Command Metrics Tests")
+class MongoCommandMetricsTest {
+
+    @Test
+    @DisplayName("Should mask literal values but keep query shape")
+    void shouldSanitizeFilter() {
+        // Given
+        BsonDocument filter = BsonDocument.parse("""
+                {"customerId": "CUST001",
+                 "transactionDate": {"$gte": {"$date": "2024-09-01T00:00:00Z"}, "$lte": {"$date": "2024-09-30T23:59:59Z"}},
+                 "status": {"$in": ["A", "B", "C"]}}
+                """);
+
+        // When
+        String sanitized = MongoCommandMetrics.sanitize(filter).toString();
+
+        // Then
+        assertThat(sanitized)
+                .contains("customerId", "transactionDate", "$gte", "$lte", "$in")
+                .doesNotContain("CUST001", "2024-09", "\"B\"");
+    }
+
+    @Test
+    @DisplayName("Should sanitize aggregation pipelines stage by stage")
+    void shouldSanitizePipeline() {
+        // Given
+        BsonDocument command = BsonDocument.parse("""
+                {"pipeline": [{"$match": {"customerId": "CUST001"}}, {"$group": {"_id": "$customerId", "total": {"$sum": "$pointsEarned"}}}]}
+                """);
+
+        // When
+        String sanitized = MongoCommandMetrics.sanitize(command.get("pipeline")).toString();
+
+        // Then
+        assertThat(sanitized).contains("$match", "$group", "$sum").doesNotContain("CUST001");
+    }
+
+    @Test
+    @DisplayName("Should resolve the target collection for reads and getMore")
+    void shouldResolveCollection() {
+        assertThat(MongoCommandMetrics.collectionOf("find",
+                BsonDocument.parse("{\"find\": \"transactions\", \"filter\": {}}"))).isEqualTo("transactions");
+        assertThat(MongoCommandMetrics.collectionOf("getMore",
+                BsonDocument.parse("{\"getMore\": 42, \"collection\": \"transactions\"}"))).isEqualTo("transactions");
+        assertThat(MongoCommandMetrics.collectionOf("aggregate",
+                BsonDocument.parse("{\"aggregate\": 1, \"pipeline\": []}"))).isEqualTo("none");
+    }
+
+    @Test
+    @DisplayName("Should count documents from cursor batches and write results")
+    void shouldCountDocuments() {
+        assertThat(MongoCommandMetrics.documentsOf(BsonDocument.parse(
+                "{\"cursor\": {\"firstBatch\": [{}, {}, {}], \"id\": 0}, \"ok\": 1}"))).isEqualTo(3);
+        assertThat(MongoCommandMetrics.documentsOf(BsonDocument.parse(
+                "{\"cursor\": {\"nextBatch\": [{}], \"id\": 0}, \"ok\": 1}"))).isEqualTo(1);
+        assertThat(MongoCommandMetrics.documentsOf(BsonDocument.parse("{\"n\": 5, \"ok\": 1}"))).isEqualTo(5);
+        assertThat(MongoCommandMetrics.documentsOf(BsonDocument.parse("{\"ok\": 1}"))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should attribute work to the innermost origin and restore the outer one")
+    void shouldTrackNestedOrigins() {
+        assertThat(RepositoryOrigin.current()).isEqualTo(RepositoryOrigin.NONE);
+
+        String inner = RepositoryOrigin.with("TransactionRepository.findAll",
+                () -> RepositoryOrigin.with("explain", RepositoryOrigin::current));
+
+        assertThat(inner).isEqualTo("explain");
+        assertThat(RepositoryOrigin.current()).isEqualTo(RepositoryOrigin.NONE);
+    }
+
+    @Test
+    @DisplayName("Should not copy reads outside the explain sample")
+    @SuppressWarnings("unchecked")
+    void shouldNotCopyUnsampledReads() {
+        // Given
+        MongoMetricsProperties properties = new MongoMetricsProperties();
+        properties.setExplainSampleRate(0);
+        MongoCommandMetrics metrics = new MongoCommandMetrics(new SimpleMeterRegistry(), properties,
+                mock(ObjectProvider.class));
+        BsonDocument command = spy(BsonDocument.parse("{\"find\": \"transactions\", \"filter\": {}}"));
+
+        // When
+        metrics.commandStarted(started(1, command));
+
+        // Then
+        verify(command, never()).clone();
+        metrics.destroy();
+    }
+
+    @Test
+    @DisplayName("Should look command meters up in the registry once and reuse them")
+    @SuppressWarnings("unchecked")
+    void shouldReuseCommandMeters() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MongoCommandMetrics metrics = new MongoCommandMetrics(registry, new MongoMetricsProperties(),
+                mock(ObjectProvider.class));
+        succeed(metrics, 0);
+        Timer first = registry.get(MongoCommandMetrics.COMMAND_METRIC).timer();
+        // A lookup per command would register a fresh timer after this
+        registry.remove(first);
+
+        // When
+        succeed(metrics, 1);
+        succeed(metrics, 2);
+
+        // Then
+        assertThat(first.count()).isEqualTo(3);
+        assertThat(registry.find(MongoCommandMetrics.COMMAND_METRIC).timer()).isNull();
+        metrics.destroy();
+    }
+
+    @Test
+    @DisplayName("Should read a command's encoded size without copying it")
+    void shouldMeasureCommandSize() {
+        // Given
+        RawBsonDocument command = RawBsonDocument.parse("{\"find\": \"transactions\", \"filter\": {}}");
+
+        // When
+        long size = MongoCommandMetrics.sizeOf(command);
+
+        // Then
+        assertThat(size).isEqualTo(command.getByteBuffer().remaining()).isPositive();
+        assertThat(MongoCommandMetrics.sizeOf(BsonDocument.parse("{\"find\": \"transactions\"}"))).isZero();
+    }
+
+    private static void succeed(MongoCommandMetrics metrics, int requestId) {
+        metrics.commandStarted(started(requestId, BsonDocument.parse("{\"find\": \"transactions\", \"filter\": {}}")));
+        metrics.commandSucceeded(new CommandSucceededEvent(null, 1, requestId, connection(), "rewards", "find",
+                BsonDocument.parse("{\"cursor\": {\"firstBatch\": [{}], \"id\": 0}, \"ok\": 1}"), 1_000));
+    }
+
+    private static CommandStartedEvent started(int requestId, BsonDocument command) {
+        return new CommandStartedEvent(null, 1, requestId, connection(), "rewards", "find", command);
+    }
+
+    private static ConnectionDescription connection() {
+        return new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.portalsplatform.api.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Stage Metrics Tests")
+class StageMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StageMetrics stageMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stageMetrics = new StageMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should tag successful calls with success outcome")
+    void shouldRecordSuccess() {
+        // When
+        String result = stageMetrics.record("service.total_rewards", () -> "ok");
+
+        // Then
+        assertThat(result).isEqualTo("ok");
+        assertThat(timer("service.total_rewards", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should classify exceptions into a small outcome vocabulary and rethrow")
+    void shouldClassifyFailures() {
+        // When
+        assertThatThrownBy(() -> stageMetrics.record("service.total_rewards", () -> {
+            throw new NoSuchElementException("Customer not found");
+        })).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> stageMetrics.record("service.total_rewards", () -> {
+            throw new IllegalArgumentException("bad month");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stageMetrics.record("service.total_rewards", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(timer("service.total_rewards", "not_found").count()).isEqualTo(1);
+        assertThat(timer("service.total_rewards", "bad_request").count()).isEqualTo(1);
+        assertThat(timer("service.total_rewards", "error").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record explicit samples for filter stages")
+    void shouldRecordExplicitSamples() {
+        // When
+        Timer.Sample sample = stageMetrics.start();
+        stageMetrics.stop(sample, "filter.api_key", "rejected");
+
+        // Then
+        assertThat(timer("filter.api_key", "rejected").count()).isEqualTo(1);
+        assertThat(meterRegistry.find(StageMetrics.METRIC_NAME).tag("outcome", "authenticated").timer()).isNull();
+    }
+
+    private Timer timer(String stage, String outcome) {
+        return meterRegistry.get(StageMetrics.METRIC_NAME).tag("stage", stage).tag("outcome", outcome).timer();
+    }
+}
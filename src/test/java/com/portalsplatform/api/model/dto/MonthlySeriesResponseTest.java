@@ -0,0 +1,74 @@
+package com.portalsplatform.api.model.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Monthly Series Response Tests")
+class MonthlySeriesResponseTest {
+
+    @Test
+    @DisplayName("Should keep months of a rewards response in chronological order")
+    void shouldKeepMonthOrder() {
+        // Given - a hash map iterates in no particular order
+        Map<String, Integer> monthlyPoints = new HashMap<>();
+        monthlyPoints.put("2024-11", 5);
+        monthlyPoints.put("2024-02", 3);
+        monthlyPoints.put("2023-12", 1);
+
+        // When
+        RewardsResponse response = new RewardsResponse("CUST001", "John Doe", 9, monthlyPoints, "All time");
+
+        // Then
+        assertThat(response.monthlyPoints().keySet()).containsExactly("2023-12", "2024-02", "2024-11");
+        assertThatThrownBy(() -> response.monthlyPoints().put("2025-01", 1))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should span first to last month with zeros for months without points")
+    void shouldFillGaps() {
+        // Given
+        RewardsResponse response = new RewardsResponse("CUST001", "John Doe", 9,
+                Map.of("2024-11", 5, "2024-02", 3, "2023-12", 1), "All time");
+
+        // When
+        MonthlySeriesResponse series = MonthlySeriesResponse.of(response);
+
+        // Then
+        assertThat(series.startMonth()).isEqualTo("2023-12");
+        assertThat(series.points()).containsExactly(1, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 5);
+        assertThat(series.totalPoints()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should cover an explicit window and drop months outside it")
+    void shouldCoverWindow() {
+        // Given
+        RewardsResponse response = new RewardsResponse("CUST001", "John Doe", 9,
+                Map.of("2024-11", 5, "2024-02", 3, "2023-12", 1), "Last 3 months");
+
+        // When
+        MonthlySeriesResponse series = MonthlySeriesResponse.of(response, YearMonth.of(2024, 1), YearMonth.of(2024, 3));
+
+        // Then
+        assertThat(series.startMonth()).isEqualTo("2024-01");
+        assertThat(series.points()).containsExactly(0, 3, 0);
+    }
+
+    @Test
+    @DisplayName("Should represent a response without months as an empty series")
+    void shouldHandleEmptyResponse() {
+        // When
+        MonthlySeriesResponse series = MonthlySeriesResponse.of(RewardsResponse.empty("CUST001", "John Doe"));
+
+        // Then
+        assertThat(series.startMonth()).isNull();
+        assertThat(series.points()).isEmpty();
+    }
+}
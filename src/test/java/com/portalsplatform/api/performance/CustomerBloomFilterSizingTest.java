@@ -0,0 +1,54 @@
+package com.portalsplatform.api.performance;
+
+import com.portalsplatform.api.service.ScalableBloomFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Memory and false positive rate of the customer id filter. The 50M run takes about a minute
+ * and is opt-in: {@code mvn test -Dtest=CustomerBloomFilterSizingTest -Dbloom.full=true}.
+ */
+@DisplayName("Performance Tests - Customer Bloom Filter Sizing")
+class CustomerBloomFilterSizingTest {
+
+    private static final double TARGET_RATE = 0.01;
+
+    @Test
+    @DisplayName("Should hold 1M customer ids in under 2 MB with under 1% false positives")
+    void shouldSizeOneMillionCustomers() {
+        assertSizing(1_000_000, 2L << 20);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "bloom.full", matches = "true")
+    @DisplayName("Should hold 50M customer ids in under 70 MB with under 1% false positives")
+    void shouldSizeFiftyMillionCustomers() {
+        assertSizing(50_000_000, 70L << 20);
+    }
+
+    private static void assertSizing(int customers, long maxBytes) {
+        // Given - presized the way CustomerIndex sizes it from the collection count
+        ScalableBloomFilter filter = new ScalableBloomFilter(customers, TARGET_RATE);
+        for (int i = 0; i < customers; i++) {
+            filter.add(String.format("CUST%08d", i));
+        }
+
+        // When
+        int probes = 1_000_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(String.format("MISS%08d", i))) {
+                falsePositives++;
+            }
+        }
+        double measuredRate = falsePositives / (double) probes;
+
+        // Then
+        assertThat(filter.memoryBytes()).isLessThan(maxBytes);
+        assertThat(measuredRate).isLessThan(TARGET_RATE);
+        assertThat(filter.layerCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.portalsplatform.api.performance;
+
+import com.portalsplatform.api.config.CustomerCacheProperties;
+import com.portalsplatform.api.model.Customer;
+import com.portalsplatform.api.service.CustomerNameCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.ref.Reference;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Memory held by the customer name cache. The bound on entries is checked in every build; the
+ * heap measurement depends on the collector and is opt-in:
+ * {@code mvn test -Dtest=CustomerNameCacheMemoryTest -Dcache.memory=true}.
+ */
+@DisplayName("Performance Tests - Customer Name Cache Memory")
+class CustomerNameCacheMemoryTest {
+
+    private static final int ENTRIES = 200_000;
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+            "Thomas", "Taylor", "Moore", "Jackson", "Martin"};
+
+    @Test
+    @DisplayName("Should hold no more than max-entries names however many customers are looked up")
+    void shouldBoundEntries() {
+        // Given
+        CustomerNameCache cache = cache(ENTRIES / 2);
+
+        // When
+        load(cache, customerIds());
+
+        // Then - segments fill unevenly, so a few entries are evicted just below the overall bound
+        assertThat(cache.size()).isLessThanOrEqualTo(ENTRIES / 2).isGreaterThan(ENTRIES / 2 * 9 / 10);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "cache.memory", matches = "true")
+    @DisplayName("Should hold a cached display name in under 200 bytes per entry")
+    void shouldMeasureMemoryPerEntry() {
+        // Given - customer ids are created up front so only the cache's own footprint is measured
+        String[] customerIds = customerIds();
+        long before = usedHeap();
+        CustomerNameCache cache = cache(ENTRIES);
+
+        // When
+        load(cache, customerIds);
+        long used = usedHeap() - before;
+        // The ids are otherwise dead by now and would be collected inside the measurement window
+        Reference.reachabilityFence(customerIds);
+
+        // Then - map entry plus a two-reference name record; the name parts themselves are shared
+        assertThat(cache.size()).isGreaterThan(ENTRIES * 9 / 10);
+        assertThat(used / cache.size()).isLessThan(200);
+    }
+
+    private static CustomerNameCache cache(int maxEntries) {
+        CustomerCacheProperties properties = new CustomerCacheProperties();
+        properties.setMaxEntries(maxEntries);
+        return new CustomerNameCache(properties, new SimpleMeterRegistry());
+    }
+
+    private static String[] customerIds() {
+        String[] customerIds = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            customerIds[i] = String.format("CUST%07d", i);
+        }
+        return customerIds;
+    }
+
+    // Loaded names are fresh strings, as they would be when decoded from Mongo
+    private static void load(CustomerNameCache cache, String[] customerIds) {
+        for (int i = 0; i < customerIds.length; i++) {
+            int n = i;
+            cache.displayName(customerIds[i], id -> Optional.of(new Customer(id,
+                    new String(FIRST_NAMES[n % FIRST_NAMES.length]),
+                    new String(LAST_NAMES[(n / FIRST_NAMES.length) % LAST_NAMES.length]), null)));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
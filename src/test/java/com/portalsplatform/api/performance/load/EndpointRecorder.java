@@ -0,0 +1,62 @@
+package com.portalsplatform.api.performance.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and status counts for one operation.
+ * <p>
+ * Response time is measured from the request's scheduled start, so a stalled server shows up
+ * as latency instead of silently lowering the request rate (coordinated omission). Service time
+ * is measured from when the request was actually sent.
+ */
+final class EndpointRecorder {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram responseTime = new ConcurrentHistogram(MAX_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(MAX_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void recordResponse(int status, long intendedStartNanos, long sentNanos, long completedNanos) {
+        responseTime.recordValue(toMicros(completedNanos - intendedStartNanos));
+        serviceTime.recordValue(toMicros(completedNanos - sentNanos));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    void recordFailure(long intendedStartNanos, long completedNanos) {
+        responseTime.recordValue(toMicros(completedNanos - intendedStartNanos));
+        failures.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    LoadReport.EndpointReport report(double seconds) {
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+        long completed = responseTime.getTotalCount();
+        return new LoadReport.EndpointReport(
+                completed,
+                completed / seconds,
+                statusCounts,
+                failures.sum(),
+                dropped.sum(),
+                LoadReport.Percentiles.of(responseTime),
+                LoadReport.Percentiles.of(serviceTime)
+        );
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(MAX_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
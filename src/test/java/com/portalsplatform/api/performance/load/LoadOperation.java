@@ -0,0 +1,63 @@
+package com.portalsplatform.api.performance.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Endpoints exercised by the load generator.
+ */
+public enum LoadOperation {
+
+    TOTAL_REWARDS("total") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, String customerId, Random random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/customers/" + customerId + "/rewards")).GET();
+        }
+    },
+    RECENT_REWARDS("recent") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, String customerId, Random random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/customers/" + customerId
+                    + "/rewards/recent?months=" + (1 + random.nextInt(12)))).GET();
+        }
+    },
+    CREATE_TRANSACTION("create") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, String customerId, Random random) {
+            String body = String.format("{\"customerId\": \"%s\", \"amount\": %d.%02d, \"description\": \"Load test\"}",
+                    customerId, 10 + random.nextInt(300), random.nextInt(100));
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    private final String key;
+
+    LoadOperation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, String customerId, Random random);
+
+    HttpRequest build(String baseUrl, String apiKey, String customerId, Random random) {
+        return request(baseUrl, customerId, random)
+                .header("X-API-Key", apiKey)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    static LoadOperation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(op -> op.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load operation: " + key));
+    }
+}
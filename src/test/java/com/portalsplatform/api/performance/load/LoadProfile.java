@@ -0,0 +1,53 @@
+package com.portalsplatform.api.performance.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parameters for an open-model load run, read from system properties so runs are reproducible
+ * from the command line:
+ * <pre>
+ * mvn test -Dtest=RewardsLoadTest -Dload.enabled=true -Dload.rate=500 -Dload.duration=60s \
+ *     -Dload.mix=total=60,recent=30,create=10 -Dload.seed=42
+ * </pre>
+ *
+ * @param ratePerSecond fixed arrival rate, independent of how fast responses come back
+ * @param warmup initial period whose samples are discarded
+ * @param duration measured period after warmup
+ * @param mix relative weight of each operation
+ * @param customers number of distinct customers requests are spread over
+ * @param seed seed for operation and customer selection
+ * @param maxInFlight requests outstanding before new arrivals are counted as dropped
+ */
+public record LoadProfile(
+        int ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        Map<LoadOperation, Integer> mix,
+        int customers,
+        long seed,
+        int maxInFlight
+) {
+
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("load.rate", 200),
+                Duration.parse("PT" + System.getProperty("load.warmup", "5s")),
+                Duration.parse("PT" + System.getProperty("load.duration", "30s")),
+                parseMix(System.getProperty("load.mix", "total=60,recent=30,create=10")),
+                Integer.getInteger("load.customers", 50),
+                Long.getLong("load.seed", 42L),
+                Integer.getInteger("load.maxInFlight", 2_000)
+        );
+    }
+
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            weights.put(LoadOperation.fromKey(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,54 @@
+package com.portalsplatform.api.performance.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Machine readable result of a load run. All latencies are in milliseconds.
+ */
+public record LoadReport(
+        int targetRatePerSecond,
+        double measuredSeconds,
+        long seed,
+        Map<String, Integer> mix,
+        Map<String, EndpointReport> endpoints
+) {
+
+    public record EndpointReport(
+            long requests,
+            double throughputPerSecond,
+            Map<String, Long> statusCounts,
+            long failures,
+            long dropped,
+            Percentiles responseTime,
+            Percentiles serviceTime
+    ) {
+    }
+
+    public record Percentiles(double p50, double p90, double p99, double p999, double max) {
+
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+}
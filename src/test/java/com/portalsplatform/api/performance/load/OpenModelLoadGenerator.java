@@ -0,0 +1,125 @@
+package com.portalsplatform.api.performance.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are issued on a fixed schedule whether or not earlier
+ * ones have completed, the way independent users arrive in production.
+ * <p>
+ * The schedule and the operation/customer sequence are fully determined by the profile seed.
+ */
+public final class OpenModelLoadGenerator {
+
+    private final LoadProfile profile;
+    private final String baseUrl;
+    private final String apiKey;
+    private final List<String> customerIds;
+    private final Map<LoadOperation, EndpointRecorder> recorders = new EnumMap<>(LoadOperation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenModelLoadGenerator(LoadProfile profile, String baseUrl, String apiKey, List<String> customerIds) {
+        this.profile = profile;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.customerIds = customerIds;
+        profile.mix().keySet().forEach(op -> recorders.put(op, new EndpointRecorder()));
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            LoadOperation[] schedule = weightedSchedule();
+            Random random = new Random(profile.seed());
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond();
+            long warmupRequests = profile.warmup().toNanos() / intervalNanos;
+            long totalRequests = warmupRequests + profile.duration().toNanos() / intervalNanos;
+
+            long start = System.nanoTime();
+            for (long i = 0; i < totalRequests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                LoadOperation operation = schedule[random.nextInt(schedule.length)];
+                String customerId = customerIds.get(random.nextInt(customerIds.size()));
+                HttpRequest request = operation.build(baseUrl, apiKey, customerId, random);
+                fire(client, operation, request, intendedStart, i >= warmupRequests);
+            }
+            awaitInFlight(Duration.ofSeconds(60));
+        } finally {
+            executor.shutdownNow();
+        }
+        return report();
+    }
+
+    private void fire(HttpClient client, LoadOperation operation, HttpRequest request,
+                      long intendedStart, boolean measured) {
+        EndpointRecorder recorder = recorders.get(operation);
+        if (inFlight.get() >= profile.maxInFlight()) {
+            if (measured) {
+                recorder.recordDropped();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long completed = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    if (error != null) {
+                        recorder.recordFailure(intendedStart, completed);
+                    } else {
+                        recorder.recordResponse(response.statusCode(), intendedStart, sent, completed);
+                    }
+                });
+    }
+
+    private void awaitInFlight(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private LoadOperation[] weightedSchedule() {
+        List<LoadOperation> slots = new ArrayList<>();
+        profile.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        return slots.toArray(new LoadOperation[0]);
+    }
+
+    private LoadReport report() {
+        double seconds = profile.duration().toMillis() / 1000.0;
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        Map<String, LoadReport.EndpointReport> endpoints = new LinkedHashMap<>();
+        profile.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        recorders.forEach((operation, recorder) -> endpoints.put(operation.key(), recorder.report(seconds)));
+        return new LoadReport(profile.ratePerSecond(), seconds, profile.seed(), mix, endpoints);
+    }
+}
@@ -0,0 +1,140 @@
+package com.portalsplatform.api.performance.load;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.portalsplatform.api.model.Customer;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.repository.CustomerRepository;
+import com.portalsplatform.api.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Fixed-arrival-rate HTTP load run against the full application.
+ * <p>
+ * Disabled by default. Run with {@code -Dload.enabled=true}; see {@link LoadProfile} for tuning.
+ * Uses a Testcontainers Mongo unless {@code -Dload.mongoUri} points at an existing instance.
+ * The JSON report is written to target/load-test/load-report.json.
+ * <p>
+ * {@code -Dload.mongoDelayMs=50} adds that much latency to every Mongo command, on the calling
+ * thread like a slow server would, to watch the concurrency limit shed load with 503s.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "api.security.rate-limit.max-requests-per-minute=100000000")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@DisplayName("Load Test - Open Model Rewards Traffic")
+class RewardsLoadTest {
+
+    private static MongoDBContainer mongo;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String mongoUri = System.getProperty("load.mongoUri");
+        if (mongoUri == null) {
+            mongo = new MongoDBContainer("mongo:7");
+            mongo.start();
+            mongoUri = mongo.getReplicaSetUrl();
+        }
+        String uri = mongoUri;
+        registry.add("spring.data.mongodb.uri", () -> uri);
+        registry.add("spring.data.mongodb.auto-index-creation", () -> true);
+    }
+
+    @TestConfiguration
+    static class SlowMongoConfig {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer slowMongoCustomizer() {
+            long delayNanos = Long.getLong("load.mongoDelayMs", 0) * 1_000_000;
+            return builder -> {
+                if (delayNanos > 0) {
+                    builder.addCommandListener(new CommandListener() {
+                        @Override
+                        public void commandStarted(CommandStartedEvent event) {
+                            LockSupport.parkNanos(delayNanos);
+                        }
+                    });
+                }
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${api.security.api-key}")
+    private String validApiKey;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private LoadProfile profile;
+    private List<String> customerIds;
+
+    @BeforeEach
+    void setUp() {
+        profile = LoadProfile.fromSystemProperties();
+        transactionRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        // Deterministic seed data: every customer has a year of history
+        Random random = new Random(profile.seed());
+        LocalDateTime now = LocalDateTime.now();
+        customerIds = new ArrayList<>();
+        List<Transaction> transactions = new ArrayList<>();
+        for (int c = 0; c < profile.customers(); c++) {
+            String customerId = String.format("LOAD%04d", c);
+            customerIds.add(customerId);
+            customerRepository.save(new Customer(customerId, "Load", "Customer" + c, customerId + "@load.test"));
+            for (int t = 0; t < 200; t++) {
+                transactions.add(new Transaction(customerId + "-" + t, customerId,
+                        new BigDecimal(10 + random.nextInt(300)), now.minusDays(random.nextInt(365)), "Seed"));
+            }
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    @Test
+    @DisplayName("Should sustain the configured arrival rate and write a latency report")
+    void shouldSustainArrivalRateAndWriteReport() throws Exception {
+        // When
+        LoadReport report = new OpenModelLoadGenerator(profile, "http://localhost:" + port, validApiKey, customerIds)
+                .run();
+        Path output = Path.of("target", "load-test", "load-report.json");
+        report.write(output);
+
+        // Then - the report is the deliverable; only sanity check that traffic flowed
+        assertThat(output).exists();
+        report.endpoints().forEach((endpoint, result) -> {
+            assertThat(result.requests()).as(endpoint + " requests").isPositive();
+            assertThat(result.failures()).as(endpoint + " transport failures").isLessThan(result.requests() / 100 + 1);
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.portalsplatform.api.security;
+
+import com.portalsplatform.api.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Adaptive Concurrency Limiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Map<String, Double> SHARES = Map.of("read", 0.7, "write", 0.3);
+
+    @Test
+    @DisplayName("Should reject beyond the limit while keeping the other partition's share")
+    void shouldRejectBeyondLimitPerPartition() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(10, 10, 10), SHARES);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+
+        // When - reads fill the whole limit by borrowing the unused write share
+        while (true) {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire("read");
+            if (permit == null) {
+                break;
+            }
+            permits.add(permit);
+        }
+
+        // Then - writes are still admitted up to their own share
+        assertThat(permits).hasSize(10);
+        AdaptiveConcurrencyLimiter.Permit write = limiter.tryAcquire("write");
+        assertThat(write).isNotNull();
+        assertThat(limiter.tryAcquire("write")).isNotNull();
+        assertThat(limiter.tryAcquire("write")).isNotNull();
+        assertThat(limiter.tryAcquire("write")).isNull();
+        assertThat(limiter.inFlight()).isEqualTo(13);
+
+        // And - a released read is not reusable while the total is over the limit, a released write is
+        limiter.release(permits.get(0));
+        assertThat(limiter.tryAcquire("read")).isNull();
+        limiter.release(write);
+        assertThat(limiter.inFlight("write")).isEqualTo(2);
+        assertThat(limiter.tryAcquire("write")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should grow while latency is steady and shrink when the backend slows down")
+    void shouldFollowLatency() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(20, 10, 200), SHARES);
+
+        // When - fast, fully used
+        for (int i = 0; i < 500; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(10), limiter.limit());
+        }
+        int grown = limiter.limit();
+
+        // And - the backend becomes five times slower
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(50), limiter.limit());
+        }
+
+        // Then
+        assertThat(grown).isEqualTo(200);
+        assertThat(limiter.limit()).isLessThan(50);
+    }
+
+    @Test
+    @DisplayName("Should not grow while most of the limit is unused")
+    void shouldNotGrowWhenAppLimited() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(20, 10, 200), SHARES);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(10), 2);
+        }
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    private static ConcurrencyLimitProperties properties(int initial, int min, int max) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(initial);
+        properties.setMinLimit(min);
+        properties.setMaxLimit(max);
+        return properties;
+    }
+}
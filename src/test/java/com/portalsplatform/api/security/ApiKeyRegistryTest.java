@@ -0,0 +1,136 @@
+package com.portalsplatform.api.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("API Key Registry Tests")
+class ApiKeyRegistryTest {
+
+    private ApiKeyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ApiKeyRegistry();
+        registry.replace(List.of(
+                ApiKeyRegistry.entryForKey("partner-key-one", "acme", "gold"),
+                ApiKeyRegistry.entryForDigest(ApiKeyRegistry.sha256Hex("partner-key-two"), "globex", "standard")
+        ));
+    }
+
+    @Test
+    @DisplayName("Should resolve tenant and tier for registered keys")
+    void shouldResolveRegisteredKeys() {
+        // When
+        ApiKeyPrincipal one = registry.authenticate("partner-key-one");
+        ApiKeyPrincipal two = registry.authenticate("partner-key-two");
+
+        // Then
+        assertThat(one.tenant()).isEqualTo("acme");
+        assertThat(one.rateTier()).isEqualTo("gold");
+        assertThat(two.tenant()).isEqualTo("globex");
+        assertThat(one.keyId()).hasSize(8).isNotEqualTo(two.keyId());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown, empty and null keys")
+    void shouldRejectUnknownKeys() {
+        assertThat(registry.authenticate("partner-key-three")).isNull();
+        assertThat(registry.authenticate("")).isNull();
+        assertThat(registry.authenticate(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should hash non-ASCII and oversized keys consistently")
+    void shouldHandleNonAsciiAndLongKeys() {
+        // Given
+        String unicodeKey = "clé-partenaire-✓";
+        String longKey = "k".repeat(1000);
+        registry.replace(List.of(
+                ApiKeyRegistry.entryForDigest(ApiKeyRegistry.sha256Hex(unicodeKey), "unicode", "standard"),
+                ApiKeyRegistry.entryForKey(longKey, "long", "standard")
+        ));
+
+        // Then
+        assertThat(registry.authenticate(unicodeKey).tenant()).isEqualTo("unicode");
+        assertThat(registry.authenticate(longKey).tenant()).isEqualTo("long");
+    }
+
+    @Test
+    @DisplayName("Should swap the whole key set on replace")
+    void shouldSwapKeySetOnReplace() {
+        // When
+        int size = registry.replace(List.of(ApiKeyRegistry.entryForKey("rotated-key", "acme", "gold")));
+
+        // Then
+        assertThat(size).isEqualTo(1);
+        assertThat(registry.authenticate("partner-key-one")).isNull();
+        assertThat(registry.authenticate("rotated-key")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the last entry for duplicate digests")
+    void shouldDeduplicateDigests() {
+        // When
+        int size = registry.replace(List.of(
+                ApiKeyRegistry.entryForKey("same-key", "old-tenant", "standard"),
+                ApiKeyRegistry.entryForKey("same-key", "new-tenant", "gold")
+        ));
+
+        // Then
+        assertThat(size).isEqualTo(1);
+        assertThat(registry.authenticate("same-key").tenant()).isEqualTo("new-tenant");
+    }
+
+    @Test
+    @DisplayName("Should resolve every key in a large registry")
+    void shouldResolveEveryKeyInLargeRegistry() {
+        // Given
+        List<ApiKeyRegistry.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(ApiKeyRegistry.entryForKey("key-" + i, "tenant-" + (i % 50), "standard"));
+        }
+        registry.replace(entries);
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(registry.authenticate("key-" + i).tenant()).isEqualTo("tenant-" + (i % 50));
+        }
+        assertThat(registry.authenticate("key-10000")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject digests that are not SHA-256 sized")
+    void shouldRejectMalformedDigest() {
+        assertThatThrownBy(() -> ApiKeyRegistry.entryForDigest("abcd", "acme", "gold"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should find any of 100k keys within a few table slots")
+    void shouldKeepProbeChainsShortForLargeRegistry() {
+        // Given
+        List<ApiKeyRegistry.Entry> entries = new ArrayList<>(100_000);
+        String[] keys = new String[100_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "partner-" + i + "-3f9c1d7e5a2b";
+            entries.add(ApiKeyRegistry.entryForKey(keys[i], "tenant-" + (i % 1000), "standard"));
+        }
+
+        // When
+        registry.replace(entries);
+
+        // Then - a lookup is one SHA-256 plus a short probe, however many keys are registered;
+        // timings are in ApiKeyRegistryBenchmark
+        assertThat(registry.size()).isEqualTo(keys.length);
+        assertThat(registry.longestProbe()).isLessThanOrEqualTo(32);
+        for (String key : keys) {
+            assertThat(registry.authenticate(key)).isNotNull();
+        }
+    }
+}
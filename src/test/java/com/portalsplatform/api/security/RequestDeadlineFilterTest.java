@@ -0,0 +1,85 @@
+package com.portalsplatform.api.security;
+
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.RequestDeadlineProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Request Deadline Filter Tests")
+class RequestDeadlineFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestDeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RequestDeadlineProperties properties = new RequestDeadlineProperties();
+        properties.setRoutes(Map.of("/api/customers/*/rewards/**", Duration.ofSeconds(8)));
+        filter = new RequestDeadlineFilter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should take the client's budget, capped at the maximum")
+    void shouldUseHeader() throws Exception {
+        assertThat(budgetOf(get("/api/customers/CUST001/rewards", "1500")))
+                .isCloseTo(1500, within(100L));
+        assertThat(budgetOf(get("/api/customers/CUST001/rewards", "2m")))
+                .isCloseTo(30_000, within(100L));
+        assertThat(meterRegistry.get("rewards.deadline.requests").tag("source", "header").tag("result", "completed")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the matching route, then to the default")
+    void shouldUseRouteOrDefault() throws Exception {
+        assertThat(budgetOf(get("/api/customers/CUST001/rewards"))).isCloseTo(8000, within(100L));
+        assertThat(budgetOf(get("/api/customers/CUST001/rewards/2024-09"))).isCloseTo(8000, within(100L));
+        assertThat(budgetOf(get("/api/transactions/customer/CUST001"))).isCloseTo(5000, within(100L));
+    }
+
+    @Test
+    @DisplayName("Should reject an unusable header and leave writes without a deadline")
+    void shouldRejectBadHeaderAndSkipWrites() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(get("/api/customers/CUST001/rewards", "soon"), response,
+                new MockFilterChain());
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(400);
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/transactions");
+        filter.doFilter(post, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(CallContext.of(post).deadline()).isNull();
+    }
+
+    private long budgetOf(MockHttpServletRequest request) throws Exception {
+        long before = System.nanoTime();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Long expiresAt = CallContext.of(request).deadline();
+        assertThat(expiresAt).isNotNull();
+        return TimeUnit.NANOSECONDS.toMillis(expiresAt - before);
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static MockHttpServletRequest get(String uri, String timeout) {
+        MockHttpServletRequest request = get(uri);
+        request.addHeader("X-Request-Timeout", timeout);
+        return request;
+    }
+}
@@ -63,8 +63,10 @@ class SecurityIntegrationTest extends com.portalsplatform.api.support.AbstractMo
     @DisplayName("Should allow access with valid API key from configuration")
     void shouldAllowAccessWithValidApiKeyFromConfig() throws Exception {
         // Uses API key injected from test configuration
-        mockMvc.perform(get("/api/customers/CUST001/rewards")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/customers/CUST001/rewards")
                         .header("X-API-Key", validApiKey))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
                 .andExpect(status().isNotFound()); // 404, not 401 - auth passed
     }
 
@@ -76,8 +78,10 @@ class SecurityIntegrationTest extends com.portalsplatform.api.support.AbstractMo
                 .andExpect(status().isUnauthorized());
 
         // With valid API key from config
-        mockMvc.perform(get("/api/transactions/customer/CUST001")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/transactions/customer/CUST001")
                         .header("X-API-Key", validApiKey))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
                 .andExpect(status().isNotFound()); // Auth passed, customer doesn't exist
     }
 
@@ -99,10 +103,12 @@ class SecurityIntegrationTest extends com.portalsplatform.api.support.AbstractMo
                 .andExpect(status().isUnauthorized());
 
         // With valid API key from config
-        mockMvc.perform(post("/api/transactions")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/api/transactions")
                         .header("X-API-Key", validApiKey)
                         .contentType("application/json")
                         .content(requestBody))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
                 .andExpect(status().isNotFound()); // Auth passed, customer validation failed
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.ReadRouting;
+import com.portalsplatform.api.config.ReadRoutingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ClosedMonthRewards Tests")
+class ClosedMonthRewardsTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 9);
+
+    private final AtomicInteger scans = new AtomicInteger();
+    private final RewardsVersions rewardsVersions = mock(RewardsVersions.class);
+    private ClosedMonthRewards closedMonthRewards;
+
+    @BeforeEach
+    void setUp() {
+        ClosedMonthProperties properties = new ClosedMonthProperties();
+        properties.setMaxEntries(2);
+        closedMonthRewards = new ClosedMonthRewards(properties,
+                new ReadRouting(null, new ReadRoutingProperties()), rewardsVersions, new SimpleMeterRegistry());
+        when(rewardsVersions.monthGeneration(anyString(), eq(MONTH))).thenReturn(1L);
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recently used entries")
+    void shouldBoundEntries() {
+        // When
+        points("CUST001");
+        points("CUST002");
+        points("CUST001");
+        points("CUST003");
+
+        // Then - CUST002 was the least recently used
+        assertThat(closedMonthRewards.size()).isEqualTo(2);
+        points("CUST001");
+        assertThat(scans).hasValue(3);
+        points("CUST002");
+        assertThat(scans).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Should recompute once the month's generation has moved on")
+    void shouldRecomputeAtNewGeneration() {
+        // Given
+        points("CUST001");
+
+        // When
+        when(rewardsVersions.monthGeneration("CUST001", MONTH)).thenReturn(2L);
+        points("CUST001");
+        points("CUST001");
+
+        // Then
+        assertThat(scans).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not memoize without a generation")
+    void shouldNotMemoizeWithoutGeneration() {
+        // Given - a failed bump is pending
+        when(rewardsVersions.monthGeneration("CUST001", MONTH)).thenReturn(null);
+
+        // When
+        points("CUST001");
+        points("CUST001");
+
+        // Then
+        assertThat(scans).hasValue(2);
+        assertThat(closedMonthRewards.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should compute afresh when the generation cannot be read")
+    void shouldComputeWhenGenerationUnreadable() {
+        // Given
+        when(rewardsVersions.monthGeneration("CUST001", MONTH)).thenThrow(new IllegalStateException("down"));
+
+        // When/Then
+        assertThat(points("CUST001")).isEqualTo(1);
+        assertThat(closedMonthRewards.size()).isZero();
+    }
+
+    private int points(String customerId) {
+        return closedMonthRewards.points(customerId, MONTH, scans::incrementAndGet);
+    }
+}
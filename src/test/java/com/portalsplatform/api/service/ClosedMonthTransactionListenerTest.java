@@ -0,0 +1,61 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.ReadRouting;
+import com.portalsplatform.api.config.ReadRoutingProperties;
+import com.portalsplatform.api.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ClosedMonthTransactionListener Tests")
+class ClosedMonthTransactionListenerTest {
+
+    private final RewardsVersions rewardsVersions = mock(RewardsVersions.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClosedMonthTransactionListener listener = new ClosedMonthTransactionListener(
+            new ClosedMonthRewards(new ClosedMonthProperties(), new ReadRouting(null, new ReadRoutingProperties()),
+                    rewardsVersions, meterRegistry),
+            mock(ProgramAnalyticsService.class), rewardsVersions, mock(MongoTemplate.class), meterRegistry);
+
+    @Test
+    @DisplayName("Should move on the generation of a closed month only for transactions written into it")
+    void shouldBumpClosedMonth() {
+        // When
+        save(LocalDateTime.of(2024, 9, 15, 10, 0));
+        save(LocalDateTime.now());
+
+        // Then
+        verify(rewardsVersions).bumpMonth("CUST001", YearMonth.of(2024, 9));
+        verify(rewardsVersions, times(1)).bumpMonth(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should not fail a saved write when its bump fails, and bump every version instead")
+    void shouldFallBackToGlobalBump() {
+        // Given
+        doThrow(new IllegalStateException("down")).when(rewardsVersions).bumpMonth("CUST001", YearMonth.of(2024, 9));
+
+        // When/Then
+        assertThatCode(() -> save(LocalDateTime.of(2024, 9, 15, 10, 0))).doesNotThrowAnyException();
+        verify(rewardsVersions).bumpAll();
+        assertThat(meterRegistry.get(RewardsVersionListener.FAILURES_METRIC).counter().count()).isEqualTo(1);
+    }
+
+    private void save(LocalDateTime date) {
+        Transaction transaction = new Transaction("TXN1", "CUST001", new BigDecimal("120.00"), date, "Store");
+        listener.onAfterSave(new AfterSaveEvent<>(transaction, new Document(), "transactions"));
+    }
+}
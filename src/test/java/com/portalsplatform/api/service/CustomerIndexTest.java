@@ -0,0 +1,165 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.MongoDatabase;
+import com.portalsplatform.api.config.CustomerIndexProperties;
+import com.portalsplatform.api.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CustomerIndex Tests")
+class CustomerIndexTest {
+
+    private MongoTemplate mongoTemplate;
+    private CustomerRepository customerRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        customerRepository = mock(CustomerRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new CustomerIndex(mongoTemplate, customerRepository, new CustomerIndexProperties(), meterRegistry);
+    }
+
+    private void load(String... customerIds) {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (String customerId : customerIds) {
+            filter.add(customerId);
+        }
+        index.loaded(filter);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("customers.index.lookups").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should ask Mongo until the filter is loaded")
+    void shouldAskMongoBeforeLoad() {
+        // Given
+        when(customerRepository.existsByCustomerId("CUST001")).thenReturn(true);
+
+        // When
+        boolean exists = index.exists("CUST001");
+
+        // Then
+        assertThat(exists).isTrue();
+        verify(customerRepository).existsByCustomerId("CUST001");
+    }
+
+    @Test
+    @DisplayName("Should answer a definite miss without asking Mongo")
+    void shouldAnswerDefiniteMissFromFilter() {
+        // Given
+        load("CUST001");
+
+        // When
+        boolean exists = index.exists("CUST999");
+
+        // Then
+        assertThat(exists).isFalse();
+        verify(customerRepository, never()).existsByCustomerId(anyString());
+        assertThat(lookups("definite_negative")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should confirm a possible hit in Mongo once and then answer from memory")
+    void shouldConfirmPossibleHitOnce() {
+        // Given
+        load("CUST001");
+        when(customerRepository.existsByCustomerId("CUST001")).thenReturn(true);
+
+        // When
+        boolean first = index.exists("CUST001");
+        boolean second = index.exists("CUST001");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(customerRepository, times(1)).existsByCustomerId("CUST001");
+        assertThat(lookups("confirmed_positive")).isEqualTo(1);
+        assertThat(lookups("cache_hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should answer customers created by this instance without asking Mongo")
+    void shouldKnowLocallyAddedCustomers() {
+        // Given
+        load();
+
+        // When
+        index.added("CUST002");
+
+        // Then
+        assertThat(index.exists("CUST002")).isTrue();
+        verify(customerRepository, never()).existsByCustomerId(anyString());
+    }
+
+    @Test
+    @DisplayName("Should ask Mongo again for a deleted customer")
+    void shouldForgetDeletedCustomer() {
+        // Given
+        load();
+        index.added("CUST001");
+        when(customerRepository.existsByCustomerId("CUST001")).thenReturn(false);
+
+        // When
+        index.removed("CUST001");
+        boolean exists = index.exists("CUST001");
+
+        // Then
+        assertThat(exists).isFalse();
+        verify(customerRepository).existsByCustomerId("CUST001");
+        assertThat(lookups("false_positive")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should ask Mongo again for every confirmed customer after an unidentified delete")
+    void shouldForgetAllOnUnidentifiedDelete() {
+        // Given
+        load();
+        index.added("CUST001");
+        index.added("CUST002");
+        when(customerRepository.existsByCustomerId(anyString())).thenReturn(true);
+
+        // When
+        index.removedAll();
+        index.exists("CUST001");
+        index.exists("CUST002");
+
+        // Then
+        verify(customerRepository).existsByCustomerId("CUST001");
+        verify(customerRepository).existsByCustomerId("CUST002");
+    }
+
+    @Test
+    @DisplayName("Should never load the filter without change streams, so customers created elsewhere are found")
+    void shouldAskMongoOnStandalone() {
+        // Given - a standalone server answers hello without a replica set name
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.runCommand(any(Bson.class))).thenReturn(new Document("isWritablePrimary", true));
+        when(customerRepository.existsByCustomerId("CUST777")).thenReturn(true);
+
+        // When
+        index.start();
+        verify(database, timeout(5_000)).runCommand(any(Bson.class));
+        boolean exists = index.exists("CUST777");
+
+        // Then
+        assertThat(exists).isTrue();
+        verify(database, after(200).never()).getCollection("customers");
+        index.stop();
+    }
+}
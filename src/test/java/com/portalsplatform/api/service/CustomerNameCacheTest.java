@@ -0,0 +1,98 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.CustomerCacheProperties;
+import com.portalsplatform.api.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CustomerNameCache Tests")
+class CustomerNameCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, Optional<Customer>> loader = customerId -> {
+        loads.incrementAndGet();
+        return customerId.startsWith("MISSING")
+                ? Optional.empty()
+                : Optional.of(new Customer(customerId, "John", "Doe " + customerId, customerId + "@example.com"));
+    };
+
+    private static CustomerNameCache cache(int maxEntries) {
+        CustomerCacheProperties properties = new CustomerCacheProperties();
+        properties.setMaxEntries(maxEntries);
+        return new CustomerNameCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should load a customer once and then serve the name from memory")
+    void shouldServeRepeatLookupsFromMemory() {
+        // Given
+        CustomerNameCache cache = cache(100);
+
+        // When
+        Optional<String> first = cache.displayName("CUST001", loader);
+        Optional<String> second = cache.displayName("CUST001", loader);
+
+        // Then
+        assertThat(first).contains("John Doe CUST001");
+        assertThat(second).isEqualTo(first);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache missing customers")
+    void shouldNotCacheMissingCustomers() {
+        // Given
+        CustomerNameCache cache = cache(100);
+
+        // When
+        cache.displayName("MISSING1", loader);
+        Optional<String> result = cache.displayName("MISSING1", loader);
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reload after eviction")
+    void shouldReloadAfterEviction() {
+        // Given
+        CustomerNameCache cache = cache(100);
+        cache.displayName("CUST001", loader);
+
+        // When
+        cache.evict("CUST001");
+        cache.displayName("CUST001", loader);
+
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should stay within its bound and keep recently used entries")
+    void shouldEvictLeastRecentlyUsed() {
+        // Given
+        CustomerNameCache cache = cache(1_600);
+
+        // When - keep touching CUST0 while filling well past capacity
+        for (int i = 0; i < 10_000; i++) {
+            cache.displayName("CUST" + i, loader);
+            cache.displayName("CUST0", loader);
+        }
+        int loadsBefore = loads.get();
+        cache.displayName("CUST0", loader);
+        cache.displayName("CUST1", loader);
+
+        // Then
+        assertThat(cache.size()).isLessThanOrEqualTo(1_600);
+        assertThat(loads.get()).isEqualTo(loadsBefore + 1);
+    }
+}
@@ -0,0 +1,169 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.RewardsFallbackProperties;
+import com.portalsplatform.api.exception.CircuitOpenException;
+import com.portalsplatform.api.model.dto.RewardsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Last Known Rewards Tests")
+class LastKnownRewardsTest {
+
+    private static final RewardsResponse RESPONSE =
+            new RewardsResponse("CUST001", "John Doe", 365, Map.of("2024-09", 365), "All time");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private LastKnownRewards lastKnownRewards;
+
+    @BeforeEach
+    void setUp() {
+        RewardsFallbackProperties properties = new RewardsFallbackProperties();
+        properties.setMaxStaleness(Duration.ofHours(1));
+        // Refreshed by hand in these tests
+        properties.setRefreshInterval(Duration.ZERO);
+        lastKnownRewards = new LastKnownRewards(properties, meterRegistry, clock);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        lastKnownRewards.destroy();
+    }
+
+    @Test
+    @DisplayName("Should serve the last good response with its age while MongoDB is unavailable")
+    void shouldServeStale() {
+        // Given
+        lastKnownRewards.call("total:CUST001", () -> RESPONSE);
+        clock.advance(Duration.ofMinutes(5));
+
+        // When
+        RewardsResponse served = lastKnownRewards.call("total:CUST001", () -> {
+            throw new CircuitOpenException();
+        });
+
+        // Then
+        assertThat(served).isSameAs(RESPONSE);
+        assertThat(LastKnownRewards.requestStaleness()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(count("fresh")).isEqualTo(1);
+        assertThat(count("stale")).isEqualTo(1);
+        assertThat(lastKnownRewards.pendingRefreshes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail when there is nothing recent enough to fall back on")
+    void shouldFailWithoutRecentEntry() {
+        // Given
+        lastKnownRewards.call("total:CUST001", () -> RESPONSE);
+        clock.advance(Duration.ofHours(2));
+
+        // When/Then
+        assertThatThrownBy(() -> lastKnownRewards.call("total:CUST001", () -> {
+            throw new CircuitOpenException();
+        })).isInstanceOf(CircuitOpenException.class);
+        assertThatThrownBy(() -> lastKnownRewards.call("total:CUST002", () -> {
+            throw new CircuitOpenException();
+        })).isInstanceOf(CircuitOpenException.class);
+        assertThat(count("unavailable")).isEqualTo(2);
+        assertThat(LastKnownRewards.requestStaleness()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should pass on errors that are not about MongoDB being unavailable")
+    void shouldNotMaskOtherErrors() {
+        // Given
+        lastKnownRewards.call("total:CUST001", () -> RESPONSE);
+
+        // When/Then
+        assertThatThrownBy(() -> lastKnownRewards.call("total:CUST001", () -> {
+            throw new NoSuchElementException("Customer not found: CUST001");
+        })).isInstanceOf(NoSuchElementException.class);
+        assertThat(count("stale")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should recompute stale responses once MongoDB answers again")
+    void shouldRefreshInBackground() {
+        // Given - served stale twice for one key, once for another that is then deleted
+        lastKnownRewards.call("total:CUST001", () -> RESPONSE);
+        lastKnownRewards.call("total:CUST002", () -> RESPONSE);
+        boolean[] up = {false};
+        RewardsResponse refreshed = new RewardsResponse("CUST001", "John Doe", 400, Map.of("2024-09", 400), "All time");
+        lastKnownRewards.call("total:CUST001", () -> {
+            if (!up[0]) {
+                throw new CircuitOpenException();
+            }
+            return refreshed;
+        });
+        lastKnownRewards.call("total:CUST002", () -> {
+            if (!up[0]) {
+                throw new CircuitOpenException();
+            }
+            throw new DuplicateKeyException("E11000");
+        });
+
+        // When - still down
+        lastKnownRewards.refreshPending();
+
+        // Then
+        assertThat(lastKnownRewards.pendingRefreshes()).isEqualTo(2);
+
+        // When - back up
+        up[0] = true;
+        lastKnownRewards.refreshPending();
+
+        // Then
+        assertThat(lastKnownRewards.pendingRefreshes()).isZero();
+        assertThat(lastKnownRewards.size()).isEqualTo(1);
+        assertThat(lastKnownRewards.call("total:CUST001", () -> {
+            throw new CircuitOpenException();
+        })).isSameAs(refreshed);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("rewards.fallback.calls").tag("result", result).counter().count();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-09-30T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
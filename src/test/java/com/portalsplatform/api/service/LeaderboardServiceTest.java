@@ -0,0 +1,229 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.portalsplatform.api.config.LeaderboardProperties;
+import com.portalsplatform.api.model.LeaderboardRecord;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.LeaderboardResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeaderboardService Unit Tests")
+class LeaderboardServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private Leases leases;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        leaderboardService = new LeaderboardService(mongoTemplate, new LeaderboardProperties(), leases, meterRegistry);
+    }
+
+    private void recordPurchase(String customerId, String amount, LocalDateTime date) {
+        leaderboardService.record(new Transaction(null, customerId, new BigDecimal(amount), date, "Store"));
+    }
+
+    @Test
+    @DisplayName("Should rank customers by accumulated points")
+    void shouldRankCustomersByAccumulatedPoints() {
+        // Given
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LeaderboardRecord.class))
+                .thenReturn(bulkOperations);
+        LocalDateTime now = LocalDateTime.now();
+        recordPurchase("CUST001", "120.00", now);  // 90 points
+        recordPurchase("CUST002", "200.00", now);  // 250 points
+        recordPurchase("CUST001", "175.00", now);  // 200 points, 290 total
+
+        // When
+        LeaderboardResponse response = leaderboardService.top(null, 10);
+
+        // Then
+        assertThat(response.period()).isEqualTo("All time");
+        assertThat(response.entries()).containsExactly(
+                new LeaderboardResponse.Entry(1, "CUST001", 290),
+                new LeaderboardResponse.Entry(2, "CUST002", 250));
+        verify(bulkOperations, timeout(5_000).times(3)).execute();
+    }
+
+    @Test
+    @DisplayName("Should keep monthly rankings separate from all time")
+    void shouldKeepMonthlyRankingsSeparate() {
+        // Given
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LeaderboardRecord.class))
+                .thenReturn(bulkOperations);
+        LocalDateTime thisMonth = LocalDateTime.now();
+        LocalDateTime lastMonth = thisMonth.minusMonths(1);
+        recordPurchase("CUST001", "120.00", lastMonth);  // 90 points
+        recordPurchase("CUST002", "75.00", thisMonth);   // 25 points
+
+        // When
+        LeaderboardResponse response = leaderboardService.top(YearMonth.now().toString(), 10);
+
+        // Then
+        assertThat(response.period()).isEqualTo(YearMonth.now().toString());
+        assertThat(response.entries()).containsExactly(new LeaderboardResponse.Entry(1, "CUST002", 25));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(LeaderboardRecord.class));
+        verify(bulkOperations, timeout(5_000).times(2)).execute();
+    }
+
+    @Test
+    @DisplayName("Should ignore transactions that earn no points")
+    void shouldIgnoreZeroPointTransactions() {
+        // When
+        recordPurchase("CUST001", "45.00", LocalDateTime.now());
+
+        // Then
+        assertThat(leaderboardService.top(null, 10).entries()).isEmpty();
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should read months outside the retained window from Mongo")
+    void shouldReadOldMonthsFromMongo() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(LeaderboardRecord.class))).thenReturn(List.of(
+                new LeaderboardRecord("2020-01:CUST003", "2020-01", "CUST003", 500),
+                new LeaderboardRecord("2020-01:CUST001", "2020-01", "CUST001", 90)));
+
+        // When
+        LeaderboardResponse response = leaderboardService.top("2020-01", 2);
+
+        // Then
+        assertThat(response.entries()).extracting(LeaderboardResponse.Entry::customerId)
+                .containsExactly("CUST003", "CUST001");
+        assertThat(response.entries().get(0).rank()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep recording saves during a rebuild and apply them on top of the rebuilt rankings")
+    void shouldNotLoseSavesDuringRebuild() throws Exception {
+        // Given - a rebuild stuck in its aggregation
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LeaderboardRecord.class))
+                .thenReturn(bulkOperations);
+        CountDownLatch aggregating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String month = YearMonth.now().toString();
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("transactions"), eq(Document.class)))
+                .thenAnswer(invocation -> {
+                    aggregating.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Stream.of(new Document("_id", new Document("customerId", "CUST001").append("month", month))
+                            .append("points", 90));
+                });
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(leaderboardService::rebuild);
+        assertThat(aggregating.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<Void> save = CompletableFuture.runAsync(() ->
+                recordPurchase("CUST001", "75.00", LocalDateTime.now()));  // 25 points
+        save.get(5, TimeUnit.SECONDS);
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        // Then - the save did not wait for the aggregation, and this instance did not rewrite the collection
+        assertThat(leaderboardService.top(null, 10).entries())
+                .containsExactly(new LeaderboardResponse.Entry(1, "CUST001", 115));
+        verify(bulkOperations, timeout(5_000)).execute();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should not fail a save when its increments cannot be persisted")
+    void shouldCountPersistFailures() {
+        // Given
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LeaderboardRecord.class))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When
+        assertThatCode(() -> recordPurchase("CUST001", "120.00", LocalDateTime.now())).doesNotThrowAnyException();
+
+        // Then
+        assertThat(leaderboardService.top(null, 10).entries())
+                .containsExactly(new LeaderboardResponse.Entry(1, "CUST001", 90));
+        verify(bulkOperations, timeout(5_000)).execute();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> persistFailures() == 1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the persisted copy into a side collection and rename it over the live one")
+    void shouldSwapInRebuiltCollection() {
+        // Given - this instance holds the rebuild lease
+        when(leases.tryAcquire(eq(LeaderboardService.REBUILD_LEASE), any())).thenReturn(true);
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("transactions"), eq(Document.class)))
+                .thenReturn(Stream.of(new Document("_id", new Document("customerId", "CUST001").append("month", "2020-01"))
+                        .append("points", 90)));
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), startsWith("leaderboard_rebuild_")))
+                .thenReturn(bulkOperations);
+        when(mongoTemplate.indexOps(startsWith("leaderboard_rebuild_"))).thenReturn(mock(IndexOperations.class));
+        when(mongoTemplate.getCollectionName(LeaderboardRecord.class)).thenReturn("leaderboard");
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getName()).thenReturn("rewards");
+        when(mongoTemplate.getDb()).thenReturn(database);
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> side = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection(startsWith("leaderboard_rebuild_"))).thenReturn(side);
+
+        // When
+        leaderboardService.rebuild();
+
+        // Then
+        verify(side, timeout(5_000)).renameCollection(eq(new MongoNamespace("rewards", "leaderboard")),
+                any(RenameCollectionOptions.class));
+        verify(leases, timeout(5_000)).release(LeaderboardService.REBUILD_LEASE);
+        verify(bulkOperations).execute();
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(LeaderboardRecord.class));
+        assertThat(leaderboardService.top(null, 10).entries())
+                .containsExactly(new LeaderboardResponse.Entry(1, "CUST001", 90));
+    }
+
+    private double persistFailures() {
+        return meterRegistry.get("rewards.leaderboard.persist_failures").counter().count();
+    }
+
+    @Test
+    @DisplayName("Should reject limits above the configured maximum")
+    void shouldRejectLimitAboveMaximum() {
+        assertThatThrownBy(() -> leaderboardService.top(null, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
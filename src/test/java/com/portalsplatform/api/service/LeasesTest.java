@@ -0,0 +1,41 @@
+package com.portalsplatform.api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Leases Tests")
+class LeasesTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final Leases leases = new Leases(mongoTemplate);
+
+    @Test
+    @DisplayName("Should take a lease that is free, expired or already held by this instance")
+    void shouldAcquireFreeLease() {
+        // When/Then
+        assertThat(leases.tryAcquire("projection", Duration.ofSeconds(30))).isTrue();
+        verify(mongoTemplate).upsert(any(Query.class), any(UpdateDefinition.class), eq(Leases.COLLECTION));
+    }
+
+    @Test
+    @DisplayName("Should not take a lease another instance holds")
+    void shouldNotAcquireHeldLease() {
+        // Given - the upsert matched nothing and its insert collided with the holder's document
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(Leases.COLLECTION)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        // When/Then
+        assertThat(leases.tryAcquire("projection", Duration.ofSeconds(30))).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.portalsplatform.api.config.AnalyticsProperties;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.ProgramAnalyticsResponse;
+import com.portalsplatform.api.support.AbstractMongoIntegrationTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ProgramAnalyticsService Integration Tests")
+class ProgramAnalyticsServiceIntegrationTest extends AbstractMongoIntegrationTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void seed() {
+        mongoClient = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(mongoClient, "analytics-test");
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int c = 0; c < 200; c++) {
+            String customerId = String.format("CUST%04d", c);
+            for (int t = 0; t <= c % 5; t++) {
+                // $120 = 90 points; customers with c % 5 == 0 buy once, the rest several times
+                transactions.add(new Transaction("TXN" + c + "-" + t, customerId, new BigDecimal("120.00"),
+                        MONTH.atDay(1 + t).atTime(12, 0), "Store"));
+            }
+            // Outside the month, must not be counted
+            transactions.add(new Transaction("TXN" + c + "-next", customerId, new BigDecimal("500.00"),
+                    MONTH.plusMonths(1).atDay(1).atTime(12, 0), "Store"));
+        }
+        mongoTemplate.insertAll(transactions);
+    }
+
+    @AfterAll
+    static void close() {
+        mongoClient.close();
+    }
+
+    @Test
+    @DisplayName("Should compute month totals and distribution")
+    void shouldComputeMonthTotals() {
+        // Given
+        ProgramAnalyticsService service = new ProgramAnalyticsService(mongoTemplate, new AnalyticsProperties());
+
+        // When
+        ProgramAnalyticsResponse response = service.compute(MONTH, 1);
+
+        // Then - 200 customers with 1 to 5 purchases of 90 points each
+        assertThat(response.activeCustomers()).isEqualTo(200);
+        assertThat(response.transactionCount()).isEqualTo(600);
+        assertThat(response.totalPoints()).isEqualTo(600 * 90);
+        assertThat(response.distribution())
+                .extracting(ProgramAnalyticsResponse.PointsBucket::customers)
+                .containsExactly(0L, 40L, 160L, 0L, 0L, 0L);
+    }
+
+    @Test
+    @DisplayName("Should produce the same result for any partition count")
+    void shouldMatchAcrossPartitionCounts() {
+        // Given
+        ProgramAnalyticsService service = new ProgramAnalyticsService(mongoTemplate, new AnalyticsProperties());
+        ProgramAnalyticsResponse single = service.compute(MONTH, 1);
+
+        // Then
+        for (int partitions : new int[]{2, 3, 8, 64}) {
+            assertThat(service.compute(MONTH, partitions)).as("%d partitions", partitions).isEqualTo(single);
+        }
+    }
+
+    @Test
+    @DisplayName("Should choose sorted, distinct partition boundaries")
+    void shouldChooseSortedBoundaries() {
+        // Given
+        ProgramAnalyticsService service = new ProgramAnalyticsService(mongoTemplate, new AnalyticsProperties());
+
+        // When
+        List<String> boundaries = service.partitionBoundaries(4);
+
+        // Then
+        assertThat(boundaries).isSorted().doesNotHaveDuplicates().hasSizeBetween(1, 3);
+    }
+}
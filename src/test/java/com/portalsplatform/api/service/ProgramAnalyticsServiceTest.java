@@ -0,0 +1,116 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.MongoDatabase;
+import com.portalsplatform.api.config.AnalyticsProperties;
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.ReadRoutingMongoDatabaseFactory;
+import com.portalsplatform.api.config.RequestDeadline;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProgramAnalyticsService Unit Tests")
+class ProgramAnalyticsServiceTest {
+
+    private static final YearMonth CLOSED = YearMonth.now().minusMonths(2);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private AnalyticsProperties properties;
+    private ProgramAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyticsProperties();
+        properties.setPartitions(1);
+        service = new ProgramAnalyticsService(mongoTemplate, properties);
+        lenient().when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class))).thenAnswer(invocation ->
+                new AggregationResults<>(List.of(new Document("_id", 1L).append("customers", 2)
+                        .append("points", 180).append("transactions", 2)), new Document()));
+    }
+
+    @Test
+    @DisplayName("Should compute a closed month once and again after it is invalidated")
+    void shouldCacheClosedMonthUntilInvalidated() {
+        // When
+        long first = service.monthlyAnalytics(CLOSED).totalPoints();
+        service.monthlyAnalytics(CLOSED);
+        service.invalidate(CLOSED);
+        service.monthlyAnalytics(CLOSED);
+
+        // Then
+        assertThat(first).isEqualTo(180);
+        verify(mongoTemplate, times(2)).aggregate(any(TypedAggregation.class), eq(Document.class));
+    }
+
+    @Test
+    @DisplayName("Should recompute a closed month once its cached figures have expired")
+    void shouldExpireClosedMonth() {
+        // Given
+        properties.setClosedMonthTtl(Duration.ZERO);
+
+        // When
+        service.monthlyAnalytics(CLOSED);
+        service.monthlyAnalytics(CLOSED);
+
+        // Then
+        verify(mongoTemplate, times(2)).aggregate(any(TypedAggregation.class), eq(Document.class));
+    }
+
+    @Test
+    @DisplayName("Should never cache the current month")
+    void shouldNotCacheCurrentMonth() {
+        // When
+        service.monthlyAnalytics(YearMonth.now());
+        service.monthlyAnalytics(YearMonth.now());
+
+        // Then
+        verify(mongoTemplate, times(2)).aggregate(any(TypedAggregation.class), eq(Document.class));
+    }
+
+    @Test
+    @DisplayName("Should run partition aggregations under the request deadline, sent as maxTimeMS")
+    void shouldBoundPartitionsByRequestDeadline() {
+        // Given - a template over the routing factory, whose databases carry the deadline as their timeout
+        MongoDatabaseFactory delegate = mock(MongoDatabaseFactory.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        MongoDatabase bounded = mock(MongoDatabase.class);
+        when(delegate.getMongoDatabase()).thenReturn(database);
+        when(delegate.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        when(database.withTimeout(anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(bounded);
+        when(bounded.getCollection(anyString(), eq(Document.class))).thenThrow(new IllegalStateException("stop here"));
+        ProgramAnalyticsService routed = new ProgramAnalyticsService(
+                new MongoTemplate(new ReadRoutingMongoDatabaseFactory(delegate)), properties);
+        CallContext context = CallContext.start(new MockHttpServletRequest(),
+                RequestDeadline.expiresAt(Duration.ofSeconds(8)));
+
+        // When
+        assertThatThrownBy(() -> CallContext.with(context, () -> routed.compute(CLOSED, 1)))
+                .hasRootCauseMessage("stop here");
+
+        // Then - the aggregation ran on a pool thread, yet against a database bounded by the request's 8s
+        verify(database).withTimeout(longThat(millis -> millis > 7_000 && millis <= 8_000), eq(TimeUnit.MILLISECONDS));
+        routed.shutdown();
+    }
+}
@@ -0,0 +1,183 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.CallContext;
+import com.portalsplatform.api.config.RequestDeadline;
+import com.portalsplatform.api.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Request Coalescer Tests")
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @Test
+    @DisplayName("Should run identical concurrent calls once and share the result")
+    void shouldShareOneComputation() throws Exception {
+        // Given - the first call blocks until every other caller has joined it
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.execute("CUST001", () -> {
+                runs.incrementAndGet();
+                await(release);
+                return "rewards";
+            })));
+        }
+        waitUntil(() -> count("executed") + count("coalesced") == CALLERS);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("rewards");
+        }
+        assertThat(runs).hasValue(1);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+        assertThat(coalescer.inFlight()).isZero();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hand the leader's exception to every waiting caller")
+    void shouldShareFailure() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.<String>execute("CUST999", () -> {
+                await(release);
+                throw new NoSuchElementException("Customer not found: CUST999");
+            })));
+        }
+        waitUntil(() -> count("executed") + count("coalesced") == CALLERS);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(NoSuchElementException.class);
+        }
+        assertThat(coalescer.inFlight()).isZero();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should not coalesce different keys or calls made after a flight finished")
+    void shouldRunSeparately() {
+        // When
+        String first = coalescer.execute("CUST001", () -> "first");
+        String second = coalescer.execute("CUST001", () -> "second");
+        String other = coalescer.execute("CUST002", () -> "other");
+
+        // Then
+        assertThat(first).isEqualTo("first");
+        assertThat(second).isEqualTo("second");
+        assertThat(other).isEqualTo("other");
+        assertThat(count("executed")).isEqualTo(3);
+        assertThat(count("coalesced")).isZero();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should stop waiting for the leader at the caller's deadline and run the work itself")
+    void shouldRunIndependentlyAfterDeadline() throws Exception {
+        // Given - the leader holds the flight well past the follower's deadline
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> coalescer.execute("CUST001", () -> {
+            await(release);
+            return "leader";
+        }));
+        waitUntil(() -> coalescer.inFlight() == 1);
+        CallContext context = CallContext.start(new MockHttpServletRequest(),
+                RequestDeadline.expiresAt(Duration.ofMillis(50)));
+
+        // When
+        String follower = executor.submit(() -> CallContext.with(context,
+                () -> coalescer.execute("CUST001", () -> "independent"))).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Then
+        assertThat(follower).isEqualTo("independent");
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        assertThat(count("coalesced")).isEqualTo(1);
+        assertThat(count("independent")).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run the work itself when the leader fails on its own deadline")
+    void shouldRunIndependentlyAfterLeaderDeadline() throws Exception {
+        // Given - a leader whose request runs out of time once the follower has joined
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> coalescer.<String>execute("CUST001", () -> {
+            await(release);
+            throw new DeadlineExceededException("before a MongoDB call");
+        }));
+        waitUntil(() -> coalescer.inFlight() == 1);
+
+        // When - the follower has no deadline of its own
+        Future<String> follower = executor.submit(() -> coalescer.execute("CUST001", () -> "independent"));
+        waitUntil(() -> count("coalesced") == 1);
+        release.countDown();
+
+        // Then
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("independent");
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(count("independent")).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(RequestCoalescer.METRIC_NAME).tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
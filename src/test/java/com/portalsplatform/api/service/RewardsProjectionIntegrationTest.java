@@ -0,0 +1,157 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.portalsplatform.api.config.ProjectionProperties;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.support.AbstractMongoIntegrationTest;
+import org.awaitility.Awaitility;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RewardsProjection Integration Tests")
+class RewardsProjectionIntegrationTest extends AbstractMongoIntegrationTest {
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private ProjectionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(mongoClient, "projection-test");
+        mongoTemplate.getDb().drop();
+        properties = new ProjectionProperties();
+        properties.setCheckpointInterval(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+    }
+
+    private void insert(String customerId, String amount, LocalDateTime date) {
+        mongoTemplate.insert(new Transaction(null, customerId, new BigDecimal(amount), date, "Store"));
+    }
+
+    @Test
+    @DisplayName("Should bootstrap existing totals and apply new inserts")
+    void shouldBootstrapAndFollowInserts() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        String thisMonth = YearMonth.now().toString();
+        insert("CUST001", "120.00", now);  // 90 points
+        RewardsProjection projection = new RewardsProjection(mongoClient, mongoTemplate, properties, new Leases(mongoTemplate));
+
+        // When
+        projection.start();
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(projection::isReady);
+        insert("CUST001", "75.00", now);  // 25 points, written after the snapshot
+
+        // Then
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(projection.monthlyPoints("CUST001")).containsEntry(thisMonth, 115));
+        projection.stop();
+    }
+
+    @Test
+    @DisplayName("Should apply updates and deletes as deltas without rebuilding")
+    void shouldApplyUpdatesAndDeletes() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        String thisMonth = YearMonth.now().toString();
+        String lastMonth = YearMonth.now().minusMonths(1).toString();
+        insert("CUST003", "120.00", now);  // 90 points
+        RewardsProjection projection = new RewardsProjection(mongoClient, mongoTemplate, properties, new Leases(mongoTemplate));
+        projection.start();
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(projection::isReady);
+        Transaction moved = mongoTemplate.insert(new Transaction(null, "CUST003", new BigDecimal("75.00"), now, "Store"));
+        Transaction deleted = mongoTemplate.insert(new Transaction(null, "CUST003", new BigDecimal("60.00"), now, "Store"));
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(projection.monthlyPoints("CUST003")).containsEntry(thisMonth, 125));
+
+        // When - one is backdated into last month, the other removed
+        moved.setTransactionDate(now.minusMonths(1));
+        mongoTemplate.save(moved);
+        mongoTemplate.remove(deleted);
+
+        // Then
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(projection.monthlyPoints("CUST003"))
+                        .containsEntry(thisMonth, 90).containsEntry(lastMonth, 25));
+        assertThat(projection.isReady()).isTrue();
+        assertThat(mongoTemplate.getCollection(RewardsProjection.CHECKPOINT_COLLECTION).countDocuments())
+                .isEqualTo(1);
+        projection.stop();
+    }
+
+    @Test
+    @DisplayName("Should resume from the checkpoint after a restart")
+    void shouldResumeFromCheckpoint() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        String thisMonth = YearMonth.now().toString();
+        insert("CUST002", "120.00", now);
+        RewardsProjection first = new RewardsProjection(mongoClient, mongoTemplate, properties, new Leases(mongoTemplate));
+        first.start();
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(first::isReady);
+        insert("CUST002", "120.00", now);
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(mongoTemplate.getCollection(RewardsProjection.PROJECTION_COLLECTION)
+                        .countDocuments(new Document("months." + thisMonth, 180))).isEqualTo(1));
+        first.stop();
+
+        // When - a write lands while no instance is running
+        insert("CUST002", "75.00", now);
+        RewardsProjection second = new RewardsProjection(mongoClient, mongoTemplate, properties, new Leases(mongoTemplate));
+        second.start();
+
+        // Then
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(second.monthlyPoints("CUST002")).containsEntry(thisMonth, 205));
+        second.stop();
+    }
+
+    @Test
+    @DisplayName("Should let every instance project but only the lease holder checkpoint")
+    void shouldCheckpointFromOneInstance() {
+        // Given - two instances over the same database
+        LocalDateTime now = LocalDateTime.now();
+        String thisMonth = YearMonth.now().toString();
+        insert("CUST004", "120.00", now);  // 90 points
+        Leases firstLeases = new Leases(mongoTemplate);
+        RewardsProjection first = new RewardsProjection(mongoClient, mongoTemplate, properties, firstLeases);
+        RewardsProjection second = new RewardsProjection(mongoClient, mongoTemplate, properties, new Leases(mongoTemplate));
+
+        // When
+        first.start();
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(first::isReady);
+        second.start();
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(second::isReady);
+        insert("CUST004", "75.00", now);  // 25 points
+
+        // Then
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(first.monthlyPoints("CUST004")).containsEntry(thisMonth, 115);
+            assertThat(second.monthlyPoints("CUST004")).containsEntry(thisMonth, 115);
+            assertThat(mongoTemplate.getCollection(RewardsProjection.PROJECTION_COLLECTION)
+                    .countDocuments(new Document("months." + thisMonth, 115))).isEqualTo(1);
+        });
+        assertThat(mongoTemplate.getCollection(Leases.COLLECTION)
+                .find(new Document("_id", RewardsProjection.LEASE)).first())
+                .containsEntry("owner", firstLeases.owner());
+        first.stop();
+        second.stop();
+    }
+}
@@ -1,24 +1,38 @@
 package com.portalsplatform.api.service;
 
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.CustomerCacheProperties;
+import com.portalsplatform.api.config.ReadRouting;
+import com.portalsplatform.api.config.ReadRoutingProperties;
 import com.portalsplatform.api.model.Customer;
 import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.RewardsField;
 import com.portalsplatform.api.model.dto.RewardsResponse;
 import com.portalsplatform.api.repository.CustomerRepository;
 import com.portalsplatform.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +47,19 @@ class RewardsServiceImplTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private RewardsProjection rewardsProjection;
+
+    @Spy
+    private CustomerNameCache customerNameCache =
+            new CustomerNameCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+
+    private final RewardsVersions rewardsVersions = mock(RewardsVersions.class);
+
+    @Spy
+    private ClosedMonthRewards closedMonthRewards = new ClosedMonthRewards(new ClosedMonthProperties(),
+            new ReadRouting(null, new ReadRoutingProperties()), rewardsVersions, new SimpleMeterRegistry());
+
     @InjectMocks
     private RewardsServiceImpl rewardsService;
 
@@ -131,6 +158,34 @@ class RewardsServiceImplTest {
         assertThat(response.period()).isEqualTo("Month: " + yearMonth);
     }
 
+    @Test
+    @DisplayName("Should scan a closed month once per generation and rescan after it is invalidated")
+    void shouldMemoizeClosedMonths() {
+        // Given
+        when(rewardsVersions.monthGeneration("CUST001", YearMonth.of(2024, 9))).thenReturn(7L);
+        when(customerRepository.findByCustomerId("CUST001")).thenReturn(Optional.of(testCustomer));
+        when(transactionRepository.findByCustomerIdAndTransactionDateBetween(
+                eq("CUST001"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new Transaction("TXN001", "CUST001", new BigDecimal("120.00"),
+                        LocalDateTime.of(2024, 9, 15, 10, 0), "Store Purchase")));
+
+        // When
+        rewardsService.calculateMonthlyRewards("CUST001", "2024-09");
+        RewardsResponse memoized = rewardsService.calculateMonthlyRewards("CUST001", "2024-09");
+        closedMonthRewards.invalidate("CUST001", YearMonth.of(2024, 9));
+        rewardsService.calculateMonthlyRewards("CUST001", "2024-09");
+        // A backdated transaction on another instance moved the generation on
+        when(rewardsVersions.monthGeneration("CUST001", YearMonth.of(2024, 9))).thenReturn(8L);
+        rewardsService.calculateMonthlyRewards("CUST001", "2024-09");
+        rewardsService.calculateMonthlyRewards("CUST001", "2024-09");
+
+        // Then
+        assertThat(memoized.totalPoints()).isEqualTo(90);
+        verify(transactionRepository, times(3)).findByCustomerIdAndTransactionDateBetween(
+                eq("CUST001"), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(rewardsProjection, never()).monthlyPoints("CUST001");
+    }
+
     @Test
     @DisplayName("Should validate recent rewards calculation")
     void shouldValidateRecentRewardsCalculation() {
@@ -162,4 +217,108 @@ class RewardsServiceImplTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Months must be between 1 and 36");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should answer from the projection when it is ready")
+    void shouldAnswerFromProjectionWhenReady() {
+        // Given
+        String thisMonth = YearMonth.now().toString();
+        String longAgo = YearMonth.now().minusMonths(12).toString();
+        when(customerRepository.findByCustomerId("CUST001")).thenReturn(Optional.of(testCustomer));
+        when(rewardsProjection.isReady()).thenReturn(true);
+        when(rewardsProjection.monthlyPoints("CUST001"))
+                .thenReturn(new TreeMap<>(Map.of(longAgo, 40, thisMonth, 115)));
+
+        // When
+        RewardsResponse total = rewardsService.calculateTotalRewards("CUST001");
+        RewardsResponse monthly = rewardsService.calculateMonthlyRewards("CUST001", thisMonth);
+
+        // Then
+        assertThat(total.totalPoints()).isEqualTo(155);
+        assertThat(total.monthlyPoints()).containsOnlyKeys(longAgo, thisMonth);
+        assertThat(monthly.totalPoints()).isEqualTo(115);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Should read Mongo instead of the projection for a request with a session token")
+    void shouldBypassProjectionWithSessionToken() {
+        // Given - the client just wrote and presents the token of that write
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadRouting.SESSION_TOKEN_HEADER, "token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(customerRepository.findByCustomerId("CUST001")).thenReturn(Optional.of(testCustomer));
+        when(rewardsProjection.isReady()).thenReturn(true);
+        when(transactionRepository.findByCustomerIdOrderByTransactionDateDesc("CUST001")).thenReturn(testTransactions);
+
+        // When
+        RewardsResponse response;
+        try {
+            response = rewardsService.calculateTotalRewards("CUST001");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // Then
+        assertThat(response.totalPoints()).isEqualTo(115);
+        verify(rewardsProjection, never()).monthlyPoints(any());
+    }
+
+    @Test
+    @DisplayName("Should take the current month of a recent window from Mongo, leaving out future-dated transactions")
+    void shouldExcludeFutureDatedFromProjectedWindow() {
+        // Given - the projection's current month includes a transaction dated later this month
+        YearMonth current = YearMonth.now();
+        String lastMonth = current.minusMonths(1).toString();
+        when(customerRepository.findByCustomerId("CUST001")).thenReturn(Optional.of(testCustomer));
+        when(rewardsProjection.isReady()).thenReturn(true);
+        when(rewardsProjection.monthlyPoints("CUST001"))
+                .thenReturn(new TreeMap<>(Map.of(lastMonth, 40, current.toString(), 205)));
+        when(transactionRepository.sumPointsBetween(eq("CUST001"), eq(current.atDay(1).atStartOfDay()),
+                any(LocalDateTime.class))).thenReturn(new TransactionRepository.PointsSum(115, 2));
+
+        // When
+        RewardsResponse recent = rewardsService.calculateRewardsForLastMonths("CUST001", 3);
+
+        // Then
+        assertThat(recent.totalPoints()).isEqualTo(155);
+        assertThat(recent.monthlyPoints()).containsEntry(lastMonth, 40).containsEntry(current.toString(), 115);
+        assertThat(recent.period()).isEqualTo("Last 3 months");
+        verify(transactionRepository, never()).findByCustomerIdAndTransactionDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should sum points without loading transactions or the customer when only the total is selected")
+    void shouldComputeOnlySelectedFields() {
+        // Given
+        when(customerRepository.countByCustomerId("CUST001")).thenReturn(1L);
+        when(transactionRepository.sumPoints("CUST001")).thenReturn(new TransactionRepository.PointsSum(115, 3));
+
+        // When
+        RewardsResponse response = rewardsService.calculateTotalRewards("CUST001",
+                EnumSet.of(RewardsField.CUSTOMER_ID, RewardsField.TOTAL_POINTS));
+
+        // Then
+        assertThat(response.customerId()).isEqualTo("CUST001");
+        assertThat(response.totalPoints()).isEqualTo(115);
+        assertThat(response.customerName()).isNull();
+        assertThat(response.monthlyPoints()).isNull();
+        assertThat(response.period()).isNull();
+        verify(customerRepository, never()).findByCustomerId(any());
+        verify(transactionRepository, never()).findByCustomerIdOrderByTransactionDateDesc(any());
+    }
+
+    @Test
+    @DisplayName("Should still report unknown customers when the name is not selected")
+    void shouldCheckExistenceWithoutName() {
+        // Given
+        when(customerRepository.countByCustomerId("INVALID")).thenReturn(0L);
+
+        // When & Then
+        assertThatThrownBy(() -> rewardsService.calculateRewardsForLastMonths("INVALID", 3,
+                EnumSet.of(RewardsField.TOTAL_POINTS)))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Customer not found: INVALID");
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -1,16 +1,22 @@
 package com.portalsplatform.api.service;
 
+import com.portalsplatform.api.config.ClosedMonthProperties;
+import com.portalsplatform.api.config.CustomerCacheProperties;
+import com.portalsplatform.api.config.ReadRouting;
+import com.portalsplatform.api.config.ReadRoutingProperties;
 import com.portalsplatform.api.model.Customer;
 import com.portalsplatform.api.model.Transaction;
 import com.portalsplatform.api.model.dto.RewardsResponse;
 import com.portalsplatform.api.repository.CustomerRepository;
 import com.portalsplatform.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -29,6 +35,17 @@ class RewardsServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private RewardsProjection rewardsProjection;
+
+    @Spy
+    private CustomerNameCache customerNameCache =
+            new CustomerNameCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private ClosedMonthRewards closedMonthRewards = new ClosedMonthRewards(new ClosedMonthProperties(),
+            new ReadRouting(null, new ReadRoutingProperties()), mock(RewardsVersions.class), new SimpleMeterRegistry());
+
     @InjectMocks
     private RewardsServiceImpl rewardsService;
 
@@ -0,0 +1,121 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.model.Customer;
+import com.portalsplatform.api.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RewardsVersionListener Tests")
+class RewardsVersionListenerTest {
+
+    private final RewardsVersions rewardsVersions = mock(RewardsVersions.class);
+    private final RewardsVersionListener listener = new RewardsVersionListener(rewardsVersions,
+            new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should bump the customer of a saved transaction")
+    void shouldBumpOnSave() {
+        // Given
+        Transaction transaction = new Transaction("TXN1", "CUST001", new BigDecimal("120.00"),
+                LocalDateTime.now(), "Store");
+
+        // When
+        listener.onAfterSave(new AfterSaveEvent<>(transaction, new Document(), "transactions"));
+
+        // Then
+        verify(rewardsVersions).bump("CUST001");
+    }
+
+    @Test
+    @DisplayName("Should bump only the customers whose documents a delete by id removed")
+    void shouldBumpCustomersOfDeleteById() {
+        // Given
+        Document byId = new Document("_id", "abc");
+        when(rewardsVersions.customersMatching(byId, "transactions")).thenReturn(List.of("CUST002"));
+
+        // When
+        listener.onBeforeDelete(new BeforeDeleteEvent<>(byId, (Class<Object>) (Class<?>) Transaction.class, "transactions"));
+        listener.onAfterDelete(new AfterDeleteEvent<>(byId, (Class<Object>) (Class<?>) Transaction.class, "transactions"));
+
+        // Then
+        verify(rewardsVersions).bump("CUST002");
+        verify(rewardsVersions, times(1)).bump(anyString());
+    }
+
+    @Test
+    @DisplayName("Should bump a customer named by the delete without looking anything up")
+    void shouldBumpNamedCustomer() {
+        // Given
+        Document byCustomer = new Document("customerId", "CUST003");
+
+        // When
+        listener.onBeforeDelete(new BeforeDeleteEvent<>(byCustomer, (Class<Object>) (Class<?>) Customer.class, "customers"));
+        listener.onAfterDelete(new AfterDeleteEvent<>(byCustomer, (Class<Object>) (Class<?>) Customer.class, "customers"));
+
+        // Then
+        verify(rewardsVersions).bump("CUST003");
+        verify(rewardsVersions, never()).customersMatching(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not fail a saved write when its bump fails, and bump every version instead")
+    void shouldFallBackToGlobalBump() {
+        // Given
+        doThrow(new IllegalStateException("down")).when(rewardsVersions).bump("CUST001");
+        Transaction transaction = new Transaction("TXN1", "CUST001", new BigDecimal("120.00"),
+                LocalDateTime.now(), "Store");
+
+        // When
+        assertThatCode(() -> listener.onAfterSave(new AfterSaveEvent<>(transaction, new Document(), "transactions")))
+                .doesNotThrowAnyException();
+
+        // Then
+        verify(rewardsVersions).bumpAll();
+        verify(rewardsVersions, never()).bumpAllLater();
+    }
+
+    @Test
+    @DisplayName("Should leave the global bump pending when Mongo refuses every bump")
+    void shouldRetryGlobalBumpLater() {
+        // Given
+        doThrow(new IllegalStateException("down")).when(rewardsVersions).bump("CUST001");
+        doThrow(new IllegalStateException("down")).when(rewardsVersions).bumpAll();
+        Document byCustomer = new Document("customerId", "CUST001");
+
+        // When
+        listener.onAfterDelete(new AfterDeleteEvent<>(byCustomer, (Class<Object>) (Class<?>) Transaction.class, "transactions"));
+
+        // Then
+        verify(rewardsVersions).bumpAllLater();
+    }
+
+    @Test
+    @DisplayName("Should bump every version after a delete whose customers could not be looked up")
+    void shouldBumpAllWhenDeleteLookupFails() {
+        // Given
+        Document byId = new Document("_id", "abc");
+        when(rewardsVersions.customersMatching(byId, "transactions")).thenThrow(new IllegalStateException("down"));
+
+        // When
+        listener.onBeforeDelete(new BeforeDeleteEvent<>(byId, (Class<Object>) (Class<?>) Transaction.class, "transactions"));
+        listener.onAfterDelete(new AfterDeleteEvent<>(byId, (Class<Object>) (Class<?>) Transaction.class, "transactions"));
+
+        // Then
+        verify(rewardsVersions).bumpAll();
+        verify(rewardsVersions, never()).bump(anyString());
+    }
+}
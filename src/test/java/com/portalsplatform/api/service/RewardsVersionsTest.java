@@ -0,0 +1,69 @@
+package com.portalsplatform.api.service;
+
+import com.portalsplatform.api.config.ReadRoutingProperties;
+import com.portalsplatform.api.config.RewardsVersionProperties;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RewardsVersions Tests")
+class RewardsVersionsTest {
+
+    private MongoTemplate mongoTemplate;
+    private RewardsVersions rewardsVersions;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        rewardsVersions = new RewardsVersions(mongoTemplate, new RewardsVersionProperties(), new ReadRoutingProperties());
+    }
+
+    @Test
+    @DisplayName("Should add the global version to the customer's, so a global bump moves every customer on")
+    void shouldIncludeGlobalVersion() {
+        // Given
+        Date old = new Date(0);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(RewardsVersions.COLLECTION))).thenReturn(List.of(
+                new Document("_id", "CUST001").append("version", 3L).append("updatedAt", old),
+                new Document("_id", RewardsVersions.GLOBAL_ID).append("version", 2L).append("updatedAt", old)));
+
+        // When
+        RewardsVersions.Version version = rewardsVersions.current("CUST001");
+
+        // Then
+        assertThat(version.value()).isEqualTo(5);
+        assertThat(rewardsVersions.isSettled(version)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should hand out no settled version until a failed bump has been made up for")
+    void shouldStayUnsettledWhileBumpPending() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(RewardsVersions.COLLECTION))).thenReturn(List.of());
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(RewardsVersions.COLLECTION)))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(null);
+        rewardsVersions.bumpAllLater();
+
+        // When
+        RewardsVersions.Version whileDown = rewardsVersions.current("CUST001");
+        boolean settledWhileDown = rewardsVersions.isSettled(whileDown);
+        RewardsVersions.Version afterRetry = rewardsVersions.current("CUST001");
+
+        // Then
+        assertThat(settledWhileDown).isFalse();
+        assertThat(rewardsVersions.isSettled(afterRetry)).isTrue();
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq(RewardsVersions.COLLECTION));
+    }
+}
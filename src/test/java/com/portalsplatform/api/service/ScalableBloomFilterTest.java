@@ -0,0 +1,64 @@
+package com.portalsplatform.api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ScalableBloomFilter Tests")
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an added element as absent")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("CUST" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain("CUST" + i)).isTrue();
+        }
+        // Elements that already looked present are not counted again
+        assertThat(filter.size()).isBetween(49_000L, 50_000L);
+    }
+
+    @Test
+    @DisplayName("Should add layers as it fills and stay under the target false positive rate")
+    void shouldGrowAndBoundFalsePositives() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("CUST" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("OTHER" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(filter.layerCount()).isGreaterThan(1);
+        assertThat(falsePositives / 100_000.0).isLessThan(0.01);
+        assertThat(filter.estimatedFalsePositiveRate()).isLessThan(0.01);
+    }
+
+    @Test
+    @DisplayName("Should report duplicates without counting them")
+    void shouldIgnoreDuplicates() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        // When & Then
+        assertThat(filter.add("CUST001")).isTrue();
+        assertThat(filter.add("CUST001")).isFalse();
+        assertThat(filter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,264 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.portalsplatform.api.config.TransactionSearchProperties;
+import com.portalsplatform.api.model.Transaction;
+import com.portalsplatform.api.model.dto.TransactionSearchResponse;
+import com.portalsplatform.api.support.AbstractMongoIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Plans and paging of {@link TransactionSearchService}. Seeds 50k transactions by default; the
+ * plans are the same at production scale, which takes several minutes to seed and is opt-in:
+ * {@code mvn test -Dtest=TransactionSearchIntegrationTest -Dsearch.documents=10000000}.
+ */
+@DisplayName("TransactionSearchService Integration Tests")
+class TransactionSearchIntegrationTest extends AbstractMongoIntegrationTest {
+
+    private static final int DOCUMENTS = Integer.getInteger("search.documents", 50_000);
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 730;
+    private static final String[] DESCRIPTIONS = {
+            "Grocery store", "Electronics purchase", "Fuel station", "Online order", "Restaurant dinner"};
+
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static TransactionSearchService service;
+
+    @BeforeAll
+    static void seed() {
+        mongoClient = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(mongoClient, "search-test");
+        IndexOperations indexes = mongoTemplate.indexOps(Transaction.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Transaction.class).forEach(indexes::createIndex);
+
+        Random random = new Random(42);
+        List<Transaction> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            // One in a thousand is a refund, the rare term support staff search for
+            String description = i % 1_000 == 0 ? "Refund issued" : DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+            batch.add(new Transaction("TXN" + i, String.format("CUST%05d", random.nextInt(10_000)),
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2),
+                    FIRST_DAY.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), random.nextInt(60)),
+                    description));
+            if (batch.size() == 10_000) {
+                mongoTemplate.insertAll(batch);
+                batch.clear();
+            }
+        }
+        mongoTemplate.insertAll(batch);
+        service = new TransactionSearchService(mongoTemplate, new TransactionSearchProperties(),
+                mock(RewardsVersions.class), new SimpleMeterRegistry());
+    }
+
+    @AfterAll
+    static void close() {
+        mongoTemplate.getDb().drop();
+        mongoClient.close();
+    }
+
+    @Test
+    @DisplayName("Should walk the date index in sort order for a date range, reading one page of documents")
+    void shouldUseDateIndexForDateRange() {
+        // Given
+        TransactionSearchService.Filter filter = new TransactionSearchService.Filter(null, null, null,
+                LocalDateTime.of(2023, 6, 1, 0, 0), LocalDateTime.of(2023, 9, 1, 0, 0));
+
+        // When
+        Document explain = explain(filter, null, 21);
+
+        // Then
+        assertThat(stages(explain)).contains("IXSCAN").doesNotContain("COLLSCAN", "SORT");
+        assertThat(indexNames(explain)).contains("search_date_idx");
+        assertThat(docsExamined(explain)).isLessThanOrEqualTo(21);
+    }
+
+    @Test
+    @DisplayName("Should filter amounts from the index key without a collection scan or in-memory sort")
+    void shouldFilterAmountFromIndex() {
+        // Given
+        TransactionSearchService.Filter filter = new TransactionSearchService.Filter(null,
+                new BigDecimal("250.00"), new BigDecimal("260.00"), LocalDateTime.of(2024, 1, 1, 0, 0), null);
+
+        // When
+        Document explain = explain(filter, null, 21);
+
+        // Then
+        assertThat(stages(explain)).contains("IXSCAN").doesNotContain("COLLSCAN", "SORT");
+        assertThat(docsExamined(explain)).isLessThanOrEqualTo(21);
+    }
+
+    @Test
+    @DisplayName("Should use the text index for description search")
+    void shouldUseTextIndex() {
+        // Given
+        TransactionSearchService.Filter filter = new TransactionSearchService.Filter("refund",
+                new BigDecimal("10.00"), null, null, null);
+
+        // When
+        Document explain = explain(filter, null, 21);
+
+        // Then
+        assertThat(stages(explain)).contains("TEXT_MATCH").doesNotContain("COLLSCAN");
+        assertThat(docsExamined(explain)).isLessThanOrEqualTo(DOCUMENTS / 1_000 + 1);
+    }
+
+    @Test
+    @DisplayName("Should start a later page at the cursor instead of skipping earlier ones")
+    void shouldSeekToCursor() {
+        // Given
+        TransactionSearchService.Filter filter = new TransactionSearchService.Filter(null, null, null, null, null);
+        TransactionSearchResponse first = service.search(filter, null, 20);
+
+        // When
+        Document explain = explain(filter, TransactionSearchService.Cursor.decode(first.nextCursor()), 21);
+
+        // Then
+        assertThat(stages(explain)).doesNotContain("COLLSCAN", "SORT");
+        assertThat(keysExamined(explain)).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should page through every match once, newest first")
+    void shouldPageThroughMatches() {
+        // Given
+        TransactionSearchService.Filter filter = new TransactionSearchService.Filter(null,
+                new BigDecimal("900.00"), null, LocalDateTime.of(2024, 6, 1, 0, 0), null);
+        long expected = mongoTemplate.count(service.query(filter, null, 0), Transaction.class);
+
+        // When
+        List<Transaction> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionSearchResponse page = service.search(filter, cursor, 7);
+            seen.addAll(page.transactions());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertThat(expected).isPositive();
+        assertThat(seen).hasSize((int) expected);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < seen.size(); i++) {
+            Transaction transaction = seen.get(i);
+            assertThat(ids.add(transaction.getId())).isTrue();
+            assertThat(transaction.getAmount()).isGreaterThanOrEqualTo(new BigDecimal("900.00"));
+            if (i > 0) {
+                assertThat(transaction.getTransactionDate()).isBeforeOrEqualTo(seen.get(i - 1).getTransactionDate());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and inverted ranges")
+    void shouldRejectInvalidInput() {
+        assertThatThrownBy(() -> service.search(
+                new TransactionSearchService.Filter(null, null, null, null, null), "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TransactionSearchService.Filter(null,
+                new BigDecimal("10"), new BigDecimal("5"), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should convert string amounts once and skip the scan on later starts")
+    void shouldMigrateAmountsOnce() {
+        // Given - a database of its own, so the seeded transactions stay untouched
+        MongoTemplate template = new MongoTemplate(mongoClient, "migration-test");
+        MongoCollection<Document> transactions = template.getCollection(template.getCollectionName(Transaction.class));
+        transactions.insertOne(new Document("transactionId", "OLD1").append("amount", "12.50"));
+        TransactionSearchService migrating = new TransactionSearchService(template, new TransactionSearchProperties(),
+                mock(RewardsVersions.class), new SimpleMeterRegistry());
+
+        try {
+            // When
+            migrating.migrateAmountsNow();
+            transactions.insertOne(new Document("transactionId", "OLD2").append("amount", "7.25"));
+            migrating.migrateAmountsNow();
+
+            // Then
+            assertThat(transactions.find(new Document("transactionId", "OLD1")).first().get("amount"))
+                    .isEqualTo(new Decimal128(new BigDecimal("12.50")));
+            assertThat(transactions.find(new Document("transactionId", "OLD2")).first().get("amount"))
+                    .isEqualTo("7.25");
+            assertThat(template.getCollection(TransactionSearchService.MIGRATIONS_COLLECTION)
+                    .find(new Document("_id", TransactionSearchService.AMOUNT_MIGRATION)).first())
+                    .isNotNull();
+        } finally {
+            template.getDb().drop();
+        }
+    }
+
+    private static Document explain(TransactionSearchService.Filter filter, TransactionSearchService.Cursor after,
+                                    int limit) {
+        Query query = service.query(filter, after, limit);
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Transaction.class);
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+                .find(mapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(mapper.getMappedSort(query.getSortObject(), entity))
+                .limit(limit)
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+    }
+
+    private static long docsExamined(Document explain) {
+        return explain.get("executionStats", Document.class).get("totalDocsExamined", Number.class).longValue();
+    }
+
+    private static long keysExamined(Document explain) {
+        return explain.get("executionStats", Document.class).get("totalKeysExamined", Number.class).longValue();
+    }
+
+    private static List<String> stages(Document explain) {
+        List<String> stages = new ArrayList<>();
+        collect(explain.get("queryPlanner", Document.class).get("winningPlan"), "stage", stages);
+        return stages;
+    }
+
+    private static List<String> indexNames(Document explain) {
+        List<String> names = new ArrayList<>();
+        collect(explain.get("queryPlanner", Document.class).get("winningPlan"), "indexName", names);
+        return names;
+    }
+
+    // Walks the whole plan, which nests stages differently across server versions and engines
+    private static void collect(Object node, String field, List<String> values) {
+        if (node instanceof Document document) {
+            if (document.get(field) instanceof String value) {
+                values.add(value);
+            }
+            document.values().forEach(child -> collect(child, field, values));
+        } else if (node instanceof List<?> list) {
+            list.forEach(child -> collect(child, field, values));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.portalsplatform.api.service;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.result.UpdateResult;
+import com.portalsplatform.api.config.TransactionSearchProperties;
+import com.portalsplatform.api.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TransactionSearchService Tests")
+class TransactionSearchServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private MongoCollection<Document> transactions;
+    private MongoCollection<Document> migrations;
+    private FindIterable<Document> marker;
+    private RewardsVersions rewardsVersions;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionSearchService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        transactions = mock(MongoCollection.class);
+        migrations = mock(MongoCollection.class);
+        marker = mock(FindIterable.class);
+        when(mongoTemplate.getCollectionName(any())).thenReturn("transactions");
+        when(mongoTemplate.getCollection("transactions")).thenReturn(transactions);
+        when(mongoTemplate.getCollection(TransactionSearchService.MIGRATIONS_COLLECTION)).thenReturn(migrations);
+        when(migrations.find(any(Bson.class))).thenReturn(marker);
+        rewardsVersions = mock(RewardsVersions.class);
+        meterRegistry = new SimpleMeterRegistry();
+        TransactionSearchProperties properties = new TransactionSearchProperties();
+        properties.setMigrationRetryBackoff(Duration.ZERO);
+        service = new TransactionSearchService(mongoTemplate, properties, rewardsVersions, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should keep the id type in cursors, so ids that are not ObjectIds page too")
+    void shouldRoundTripCursorIdTypes() {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2024, 3, 15, 10, 30);
+        Transaction legacy = new Transaction();
+        legacy.setId("txn-42");
+        legacy.setTransactionDate(date);
+        Transaction generated = new Transaction();
+        generated.setId(new ObjectId().toHexString());
+        generated.setTransactionDate(date);
+
+        // When
+        TransactionSearchService.Cursor fromString =
+                TransactionSearchService.Cursor.decode(TransactionSearchService.Cursor.after(legacy).encode());
+        TransactionSearchService.Cursor fromObjectId =
+                TransactionSearchService.Cursor.decode(TransactionSearchService.Cursor.after(generated).encode());
+
+        // Then
+        assertThat(fromString).isEqualTo(new TransactionSearchService.Cursor(date, "txn-42"));
+        assertThat(fromObjectId).isEqualTo(new TransactionSearchService.Cursor(date, new ObjectId(generated.getId())));
+        assertThatThrownBy(() -> TransactionSearchService.Cursor.decode("bm90LWEtY3Vyc29y"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should convert string amounts in batches, recording progress and then completion")
+    void shouldMigrateAmountsWithoutMarker() {
+        // Given - one batch of two string amounts, then nothing left
+        when(marker.first()).thenReturn(null);
+        FindIterable<Document> batch = found("a", "b");
+        FindIterable<Document> rest = found();
+        when(transactions.find(any(Bson.class))).thenReturn(batch, rest);
+        when(transactions.updateMany(any(Bson.class), anyList())).thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        // When
+        service.migrateAmountsNow();
+
+        // Then
+        verify(transactions).updateMany(any(Bson.class), anyList());
+        verify(rewardsVersions).bumpAll();
+        List<Document> recorded = recordedMarkers(2);
+        assertThat(recorded.get(0)).containsEntry("lastId", "b").containsEntry("converted", 2L)
+                .doesNotContainKey("completedAt");
+        assertThat(recorded.get(1)).containsKey("completedAt");
+        assertThat(counter("converted")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should resume after the position a previous start recorded")
+    void shouldResumeFromMarker() {
+        // Given
+        when(marker.first()).thenReturn(new Document("_id", TransactionSearchService.AMOUNT_MIGRATION)
+                .append("lastId", "b").append("converted", 2L));
+        FindIterable<Document> rest = found();
+        when(transactions.find(any(Bson.class))).thenReturn(rest);
+
+        // When
+        service.migrateAmountsNow();
+
+        // Then
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(transactions).find(filter.capture());
+        assertThat(filter.getValue().toBsonDocument().toJson()).contains("\"$gt\": [\"$_id\", \"b\"]");
+        assertThat(recordedMarkers(1).get(0)).containsKey("completedAt").containsEntry("converted", 2L);
+    }
+
+    @Test
+    @DisplayName("Should not scan transactions once the migration is recorded as completed")
+    void shouldSkipMigrationWithMarker() {
+        // Given
+        when(marker.first()).thenReturn(new Document("_id", TransactionSearchService.AMOUNT_MIGRATION)
+                .append("completedAt", new Date()));
+
+        // When
+        service.migrateAmountsNow();
+
+        // Then
+        verify(transactions, never()).find(any(Bson.class));
+        verify(migrations, never()).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+    }
+
+    @Test
+    @DisplayName("Should count a failed batch and retry it without recording it")
+    void shouldRetryFailedBatch() {
+        // Given
+        when(marker.first()).thenReturn(null);
+        FindIterable<Document> failed = found("a");
+        FindIterable<Document> retried = found("a");
+        FindIterable<Document> rest = found();
+        when(transactions.find(any(Bson.class))).thenReturn(failed, retried, rest);
+        when(transactions.updateMany(any(Bson.class), anyList()))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // When
+        service.migrateAmountsNow();
+
+        // Then
+        assertThat(counter("failures")).isEqualTo(1);
+        List<Document> recorded = recordedMarkers(2);
+        assertThat(recorded.get(0)).containsEntry("lastId", "a").containsEntry("converted", 1L);
+        assertThat(recorded.get(1)).containsKey("completedAt");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FindIterable<Document> found(String... ids) {
+        FindIterable<Document> iterable = mock(FindIterable.class);
+        when(iterable.projection(any())).thenReturn(iterable);
+        when(iterable.sort(any())).thenReturn(iterable);
+        when(iterable.limit(anyInt())).thenReturn(iterable);
+        Iterator<Document> documents = Arrays.stream(ids).map(id -> new Document("_id", id)).iterator();
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> documents.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> documents.next());
+        when(iterable.iterator()).thenReturn(cursor);
+        return iterable;
+    }
+
+    private List<Document> recordedMarkers(int times) {
+        ArgumentCaptor<Document> recorded = ArgumentCaptor.forClass(Document.class);
+        verify(migrations, times(times)).replaceOne(any(Bson.class), recorded.capture(), any(ReplaceOptions.class));
+        return recorded.getAllValues();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get("transactions.amount_migration." + name).counter().count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.portalsplatform.api.support;
+
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.PortBinding;
+import com.github.dockerjava.api.model.Ports;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A multi-member replica set in one container, for tests that need real secondaries.
+ * <p>
+ * Each mongod listens on the same port inside and outside the container and advertises
+ * itself as localhost, so the driver can discover every member from the host. This needs a
+ * Docker daemon reachable on localhost.
+ */
+public final class MongoReplicaSet implements AutoCloseable {
+
+    private static final String READY = "REPLICA SET READY";
+
+    private final List<Integer> ports;
+    private final GenericContainer<?> container;
+
+    private MongoReplicaSet(List<Integer> ports, GenericContainer<?> container) {
+        this.ports = ports;
+        this.container = container;
+    }
+
+    /**
+     * Start the members; the first one is elected primary.
+     */
+    @SuppressWarnings("resource")
+    public static MongoReplicaSet start(int members) {
+        List<Integer> ports = freePorts(members);
+        StringBuilder script = new StringBuilder("set -e\n");
+        StringBuilder config = new StringBuilder("{_id: 'rs0', members: [");
+        for (int i = 0; i < members; i++) {
+            int port = ports.get(i);
+            script.append("mkdir -p /data/rs").append(port).append('\n')
+                    .append("mongod --replSet rs0 --bind_ip_all --port ").append(port)
+                    .append(" --dbpath /data/rs").append(port)
+                    .append(" --fork --logpath /data/rs").append(port).append(".log\n");
+            config.append(i > 0 ? ", " : "").append("{_id: ").append(i)
+                    .append(", host: 'localhost:").append(port).append("', priority: ").append(i == 0 ? 2 : 1).append('}');
+        }
+        config.append("]}");
+        script.append("mongosh --quiet --port ").append(ports.get(0)).append(" --eval \"")
+                .append("rs.initiate(").append(config).append(");")
+                .append("while (!db.hello().isWritablePrimary) sleep(100);")
+                .append("while (rs.status().members.filter(m => m.state === 2).length < ").append(members - 1)
+                .append(") sleep(100);")
+                .append("print('").append(READY).append("')\"\n")
+                .append("tail -f /dev/null\n");
+
+        List<ExposedPort> exposed = ports.stream().map(ExposedPort::tcp).collect(Collectors.toList());
+        Ports bindings = new Ports();
+        exposed.forEach(port -> bindings.bind(port, Ports.Binding.bindPort(port.getPort())));
+
+        GenericContainer<?> container = new GenericContainer<>("mongo:7")
+                .withCommand("bash", "-c", script.toString())
+                .withCreateContainerCmdModifier(cmd -> {
+                    cmd.withExposedPorts(exposed);
+                    cmd.getHostConfig().withPortBindings(bindings);
+                })
+                .waitingFor(Wait.forLogMessage(".*" + READY + ".*\\n", 1)
+                        .withStartupTimeout(Duration.ofMinutes(2)));
+        container.start();
+        return new MongoReplicaSet(ports, container);
+    }
+
+    public String connectionString(String database) {
+        String hosts = ports.stream().map(port -> "localhost:" + port).collect(Collectors.joining(","));
+        return "mongodb://" + hosts + "/" + database + "?replicaSet=rs0";
+    }
+
+    public int primaryPort() {
+        return ports.get(0);
+    }
+
+    @Override
+    public void close() {
+        container.stop();
+    }
+
+    private static List<Integer> freePorts(int count) {
+        List<ServerSocket> sockets = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                sockets.add(new ServerSocket(0));
+            }
+            return sockets.stream().map(ServerSocket::getLocalPort).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (ServerSocket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // best effort
+                }
+            }
+        }
+    }
+}